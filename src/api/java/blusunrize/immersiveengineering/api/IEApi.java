@@ -20,6 +20,7 @@ import net.minecraftforge.fml.ModList;
 import net.minecraftforge.registries.IForgeRegistryEntry;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -40,7 +41,7 @@ public class IEApi
 	/**
 	 * This map caches the preferred ores for the given OreDict name
 	 */
-	private static HashMap<TagKey<Item>, ItemStack> oreOutputPreference = new HashMap<>();
+	private static final Map<TagKey<Item>, ItemStack> oreOutputPreference = new ConcurrentHashMap<>();
 
 	/**
 	 * The TextureSheet id for the revolver's icons
@@ -9,6 +9,7 @@
 package blusunrize.immersiveengineering.api.crafting;
 
 import blusunrize.immersiveengineering.api.crafting.cache.CachedRecipeList;
+import blusunrize.immersiveengineering.api.crafting.cache.RecipeItemIndex;
 import com.google.common.collect.Lists;
 import net.minecraft.core.NonNullList;
 import net.minecraft.resources.ResourceLocation;
@@ -21,6 +22,7 @@ import net.minecraftforge.registries.RegistryObject;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
@@ -46,6 +48,12 @@ public class ArcFurnaceRecipe extends MultiblockRecipe
 	public String specialRecipeType;
 	public static List<String> specialRecipeTypes = new ArrayList<>();
 	public static final CachedRecipeList<ArcFurnaceRecipe> RECIPES = new CachedRecipeList<>(() -> TYPE, ArcFurnaceRecipe.class);
+	private static final RecipeItemIndex<ArcFurnaceRecipe> BY_INPUT = RECIPES.createItemIndex(
+			r -> r.input!=null?List.of(r.input): List.of()
+	);
+	private static final RecipeItemIndex<ArcFurnaceRecipe> BY_ADDITIVE = RECIPES.createItemIndex(
+			r -> Arrays.asList(r.additives)
+	);
 
 	public ArcFurnaceRecipe(
 			ResourceLocation id,
@@ -197,7 +205,7 @@ public class ArcFurnaceRecipe extends MultiblockRecipe
 
 	public static ArcFurnaceRecipe findRecipe(Level level, ItemStack input, NonNullList<ItemStack> additives)
 	{
-		for(ArcFurnaceRecipe recipe : RECIPES.getRecipes(level))
+		for(ArcFurnaceRecipe recipe : BY_INPUT.getCandidates(level, input))
 			if(recipe!=null&&recipe.matches(input, additives))
 				return recipe;
 		return null;
@@ -205,7 +213,7 @@ public class ArcFurnaceRecipe extends MultiblockRecipe
 
 	public static boolean isValidRecipeInput(Level level, ItemStack stack)
 	{
-		for(ArcFurnaceRecipe recipe : RECIPES.getRecipes(level))
+		for(ArcFurnaceRecipe recipe : BY_INPUT.getCandidates(level, stack))
 			if(recipe!=null&&recipe.isValidInput(stack))
 				return true;
 		return false;
@@ -213,7 +221,7 @@ public class ArcFurnaceRecipe extends MultiblockRecipe
 
 	public static boolean isValidRecipeAdditive(Level level, ItemStack stack)
 	{
-		for(ArcFurnaceRecipe recipe : RECIPES.getRecipes(level))
+		for(ArcFurnaceRecipe recipe : BY_ADDITIVE.getCandidates(level, stack))
 			if(recipe!=null&&recipe.isValidAdditive(stack))
 				return true;
 		return false;
@@ -43,9 +43,7 @@ public class ArcRecyclingChecker
 	{
 		if(stack.is(IETags.recyclingBlacklist))
 			return false;
-		if(knownItemValidity.computeIfAbsent(
-				stack.getItem(), (Item i) -> RECYCLING_ALLOWED.stream().anyMatch(p -> p.test(tags, i))
-		))
+		if(isItemAllowed(tags, stack.getItem()))
 			return true;
 		for(BiPredicate<RegistryAccess, ItemStack> stackSensitive : RECYCLING_ALLOWED_STACK_SENSITIVE)
 			if(stackSensitive.test(tags, stack))
@@ -53,6 +51,23 @@ public class ArcRecyclingChecker
 		return false;
 	}
 
+	// Arc recycling recipes are computed in parallel, so the cache is guarded by a lock. The predicates are evaluated
+	// outside the lock, in the worst case this evaluates them twice for an item.
+	private boolean isItemAllowed(RegistryAccess tags, Item item)
+	{
+		synchronized(knownItemValidity)
+		{
+			if(knownItemValidity.containsKey(item))
+				return knownItemValidity.getBoolean(item);
+		}
+		boolean allowed = RECYCLING_ALLOWED.stream().anyMatch(p -> p.test(tags, item));
+		synchronized(knownItemValidity)
+		{
+			knownItemValidity.put(item, allowed);
+		}
+		return allowed;
+	}
+
 	private static final Set<RecipeType<?>> RECYCLING_RECIPE_TYPES = new HashSet<>();
 	private static final List<BiPredicate<RegistryAccess, ItemStack>> RECYCLING_ALLOWED_STACK_SENSITIVE = new ArrayList<>();
 	private static final List<BiPredicate<RegistryAccess, Item>> RECYCLING_ALLOWED = new ArrayList<>();
@@ -9,6 +9,7 @@
 package blusunrize.immersiveengineering.api.crafting;
 
 import blusunrize.immersiveengineering.api.crafting.cache.CachedRecipeList;
+import blusunrize.immersiveengineering.api.crafting.cache.RecipeItemIndex;
 import blusunrize.immersiveengineering.api.utils.ItemUtils;
 import com.google.common.collect.Lists;
 import net.minecraft.core.NonNullList;
@@ -41,6 +42,10 @@ public class BottlingMachineRecipe extends MultiblockRecipe
 	public static RecipeType<BottlingMachineRecipe> TYPE;
 	public static RegistryObject<IERecipeSerializer<BottlingMachineRecipe>> SERIALIZER;
 	public static final CachedRecipeList<BottlingMachineRecipe> RECIPES = new CachedRecipeList<>(() -> TYPE, BottlingMachineRecipe.class);
+	// Every input needs to be matched by one of the stacks, so indexing by the first one is sufficient
+	private static final RecipeItemIndex<BottlingMachineRecipe> BY_INPUT = RECIPES.createItemIndex(
+			r -> r.inputs.length > 0?List.of(r.inputs[0]): null
+	);
 
 	public final IngredientWithSize[] inputs;
 	public final FluidTagInput fluidInput;
@@ -115,7 +120,7 @@ public class BottlingMachineRecipe extends MultiblockRecipe
 	{
 		if(fluid.isEmpty())
 			return null;
-		for(BottlingMachineRecipe recipe : RECIPES.getRecipes(level))
+		for(BottlingMachineRecipe recipe : BY_INPUT.getCandidates(level, Arrays.asList(input)))
 			if(recipe.matches(input, fluid))
 				return recipe;
 		return null;
@@ -10,6 +10,7 @@ package blusunrize.immersiveengineering.api.crafting;
 
 import blusunrize.immersiveengineering.api.ApiUtils;
 import blusunrize.immersiveengineering.api.crafting.cache.CachedRecipeList;
+import blusunrize.immersiveengineering.api.crafting.cache.RecipeItemIndex;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import net.minecraft.core.NonNullList;
@@ -35,6 +36,9 @@ public class CrusherRecipe extends MultiblockRecipe
 	public static RecipeType<CrusherRecipe> TYPE;
 	public static RegistryObject<IERecipeSerializer<CrusherRecipe>> SERIALIZER;
 	public static final CachedRecipeList<CrusherRecipe> RECIPES = new CachedRecipeList<>(() -> TYPE, CrusherRecipe.class);
+	private static final RecipeItemIndex<CrusherRecipe> BY_INPUT = RECIPES.createItemIndex(
+			r -> List.of(new IngredientWithSize(r.input))
+	);
 
 	public final Ingredient input;
 	public final Lazy<ItemStack> output;
@@ -83,7 +87,7 @@ public class CrusherRecipe extends MultiblockRecipe
 
 	public static CrusherRecipe findRecipe(Level level, ItemStack input)
 	{
-		for(CrusherRecipe recipe : RECIPES.getRecipes(level))
+		for(CrusherRecipe recipe : BY_INPUT.getCandidates(level, input))
 			if(recipe.input.test(input))
 				return recipe;
 		return null;
@@ -9,6 +9,7 @@
 package blusunrize.immersiveengineering.api.crafting;
 
 import blusunrize.immersiveengineering.api.crafting.cache.CachedRecipeList;
+import blusunrize.immersiveengineering.api.crafting.cache.RecipeItemIndex;
 import com.google.common.collect.Lists;
 import net.minecraft.core.NonNullList;
 import net.minecraft.resources.ResourceLocation;
@@ -21,6 +22,7 @@ import net.minecraftforge.registries.RegistryObject;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -33,6 +35,13 @@ public class MixerRecipe extends MultiblockRecipe
 	public static RecipeType<MixerRecipe> TYPE;
 	public static RegistryObject<IERecipeSerializer<MixerRecipe>> SERIALIZER;
 	public static final CachedRecipeList<MixerRecipe> RECIPES = new CachedRecipeList<>(() -> TYPE, MixerRecipe.class);
+	// Every item input needs to be matched by a component, so indexing by any one of them is sufficient
+	private static final RecipeItemIndex<MixerRecipe> BY_COMPONENT = RECIPES.createItemIndex(r -> {
+		for(IngredientWithSize input : r.itemInputs)
+			if(input!=null)
+				return List.of(input);
+		return null;
+	});
 
 	public final IngredientWithSize[] itemInputs;
 	public final FluidTagInput fluidInput;
@@ -63,7 +72,7 @@ public class MixerRecipe extends MultiblockRecipe
 	{
 		if(fluid.isEmpty())
 			return null;
-		for(MixerRecipe recipe : RECIPES.getRecipes(level))
+		for(MixerRecipe recipe : BY_COMPONENT.getCandidates(level, components))
 			if(recipe.matches(fluid, components))
 				return recipe;
 		return null;
@@ -9,6 +9,7 @@
 package blusunrize.immersiveengineering.api.crafting;
 
 import blusunrize.immersiveengineering.api.crafting.cache.CachedRecipeList;
+import blusunrize.immersiveengineering.api.crafting.cache.RecipeItemIndex;
 import com.google.common.collect.Lists;
 import net.minecraft.core.NonNullList;
 import net.minecraft.network.chat.Component;
@@ -23,6 +24,7 @@ import net.minecraftforge.registries.RegistryObject;
 
 import javax.annotation.Nonnull;
 import java.util.Comparator;
+import java.util.List;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.function.Function;
@@ -37,6 +39,7 @@ public class SqueezerRecipe extends MultiblockRecipe
 	public static RecipeType<SqueezerRecipe> TYPE;
 	public static RegistryObject<IERecipeSerializer<SqueezerRecipe>> SERIALIZER;
 	public static final CachedRecipeList<SqueezerRecipe> RECIPES = new CachedRecipeList<>(() -> TYPE, SqueezerRecipe.class);
+	private static final RecipeItemIndex<SqueezerRecipe> BY_INPUT = RECIPES.createItemIndex(r -> List.of(r.input));
 
 	public IngredientWithSize input;
 	public final FluidStack fluidOutput;
@@ -72,7 +75,7 @@ public class SqueezerRecipe extends MultiblockRecipe
 	{
 		if(input.isEmpty())
 			return null;
-		for(SqueezerRecipe recipe : RECIPES.getRecipes(level))
+		for(SqueezerRecipe recipe : BY_INPUT.getCandidates(level, input))
 			if(recipe.input.test(input))
 				return recipe;
 		return null;
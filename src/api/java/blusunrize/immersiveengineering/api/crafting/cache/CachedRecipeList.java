@@ -9,6 +9,7 @@
 package blusunrize.immersiveengineering.api.crafting.cache;
 
 import blusunrize.immersiveengineering.api.Lib;
+import blusunrize.immersiveengineering.api.crafting.IngredientWithSize;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.crafting.Recipe;
 import net.minecraft.world.item.crafting.RecipeManager;
@@ -21,6 +22,7 @@ import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 
 import javax.annotation.Nonnull;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
@@ -39,6 +41,8 @@ public class CachedRecipeList<R extends Recipe<?>>
 	private Map<ResourceLocation, R> recipes;
 	private boolean cachedDataIsClient;
 	private int cachedAtReloadCount = INVALID_RELOAD_COUNT;
+	// Incremented whenever the cached recipes are replaced, used by RecipeItemIndex to detect stale indices
+	private int generation = 0;
 
 	public CachedRecipeList(Supplier<RecipeType<R>> type, Class<R> recipeClass)
 	{
@@ -63,6 +67,15 @@ public class CachedRecipeList<R extends Recipe<?>>
 		return reloadCount;
 	}
 
+	/**
+	 * Invalidates all cached lists, e.g. when recipes generated in the background become available. Must be called on
+	 * the thread the lists are used on.
+	 */
+	public static void invalidateAll()
+	{
+		++reloadCount;
+	}
+
 	public Collection<R> getRecipes(@Nonnull Level level)
 	{
 		updateCache(level.getRecipeManager(), level.isClientSide());
@@ -81,6 +94,23 @@ public class CachedRecipeList<R extends Recipe<?>>
 		return recipes.get(name);
 	}
 
+	/**
+	 * Creates an index of this list's recipes by the items accepted by their ingredients
+	 *
+	 * @param keyIngredients returns the ingredients of a recipe at least one of which needs to match some input for the
+	 *                       recipe to match, or null if the recipe can not be indexed
+	 */
+	public RecipeItemIndex<R> createItemIndex(Function<R, List<IngredientWithSize>> keyIngredients)
+	{
+		return new RecipeItemIndex<>(this, keyIngredients);
+	}
+
+	int getGeneration(@Nonnull Level level)
+	{
+		updateCache(level.getRecipeManager(), level.isClientSide());
+		return generation;
+	}
+
 	private void updateCache(RecipeManager manager, boolean isClient)
 	{
 		if(recipes!=null&&cachedAtReloadCount==reloadCount&&(!cachedDataIsClient||isClient))
@@ -97,5 +127,6 @@ public class CachedRecipeList<R extends Recipe<?>>
 				.collect(Collectors.toMap(R::getId, Function.identity()));
 		this.cachedDataIsClient = isClient;
 		this.cachedAtReloadCount = reloadCount;
+		++this.generation;
 	}
 }
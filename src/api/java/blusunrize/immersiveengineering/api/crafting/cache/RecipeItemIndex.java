@@ -0,0 +1,204 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.crafting.cache;
+
+import blusunrize.immersiveengineering.api.crafting.IngredientWithSize;
+import com.google.common.collect.Iterables;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.level.Level;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Maps items to the recipes of a {@link CachedRecipeList} that can possibly accept them, so lookups only need to test
+ * a few candidates instead of every recipe. Recipes whose key ingredients can not be indexed (custom or NBT-sensitive
+ * ingredients) are candidates for every input. Candidates are always returned in the iteration order of the recipe
+ * list, so the first matching candidate is the same recipe a linear search would find.
+ */
+public class RecipeItemIndex<R extends Recipe<?>>
+{
+	private final CachedRecipeList<R> list;
+	private final Function<R, List<IngredientWithSize>> keyIngredients;
+	// The list is shared between the client and the integrated server, so the index is replaced as a whole
+	private volatile Snapshot<Item> snapshot = new Snapshot<>(-1, new Object[0], Map.of(), new int[0]);
+
+	RecipeItemIndex(CachedRecipeList<R> list, Function<R, List<IngredientWithSize>> keyIngredients)
+	{
+		this.list = list;
+		this.keyIngredients = keyIngredients;
+	}
+
+	/**
+	 * @return all recipes that may accept the given stack, in the order of the recipe list
+	 */
+	public List<R> getCandidates(@Nonnull Level level, ItemStack stack)
+	{
+		return getSnapshot(level).getCandidates(stack.getItem());
+	}
+
+	/**
+	 * @return all recipes that may accept at least one of the given stacks, in the order of the recipe list
+	 */
+	public List<R> getCandidates(@Nonnull Level level, Iterable<ItemStack> stacks)
+	{
+		return getSnapshot(level).getCandidates(Iterables.transform(stacks, ItemStack::getItem));
+	}
+
+	private Snapshot<Item> getSnapshot(Level level)
+	{
+		Snapshot<Item> current = snapshot;
+		// Read the generation first, if the recipes change while building the index is rebuilt on the next access
+		int currentGeneration = list.getGeneration(level);
+		if(currentGeneration==current.generation())
+			return current;
+		current = Snapshot.build(currentGeneration, list.getRecipes(level), this::getIndexedItems);
+		snapshot = current;
+		return current;
+	}
+
+	/**
+	 * @return all items the key ingredients of the recipe can possibly accept, or null if the recipe needs to be
+	 * tested for every input
+	 */
+	private ReferenceSet<Item> getIndexedItems(R recipe)
+	{
+		List<IngredientWithSize> ingredients = keyIngredients.apply(recipe);
+		if(ingredients==null)
+			return null;
+		ReferenceSet<Item> items = new ReferenceOpenHashSet<>();
+		for(IngredientWithSize ingredient : ingredients)
+		{
+			if(ingredient==null||ingredient.getCount() <= 0)
+				return null;
+			Ingredient base = ingredient.getBaseIngredient();
+			// Custom ingredients may accept items they don't list, empty ingredients accept empty stacks
+			if(!base.isVanilla()||base.isEmpty())
+				return null;
+			for(ItemStack stack : base.getItems())
+				items.add(stack.getItem());
+		}
+		return items;
+	}
+
+	/**
+	 * An immutable index of the recipes of one generation of the list, keyed by the items (or other keys in tests) the
+	 * recipes may accept
+	 *
+	 * @param recipes          the recipes in the order of the recipe list
+	 * @param candidatesByKey  sorted recipe ordinals for each indexed key, including the fallback recipes
+	 * @param fallback         sorted ordinals of recipes that need to be tested for every input
+	 */
+	record Snapshot<K>(int generation, Object[] recipes, Map<K, int[]> candidatesByKey, int[] fallback)
+	{
+		/**
+		 * @param keysOf returns the keys a recipe may accept, or null if the recipe needs to be tested for every input
+		 */
+		static <R, K> Snapshot<K> build(int generation, Collection<R> recipeList, Function<R, Set<K>> keysOf)
+		{
+			Object[] recipes = recipeList.toArray();
+			Map<K, IntList> byKey = new HashMap<>();
+			IntList fallbackList = new IntArrayList();
+			for(int ordinal = 0; ordinal < recipes.length; ++ordinal)
+			{
+				@SuppressWarnings("unchecked")
+				Set<K> keys = keysOf.apply((R)recipes[ordinal]);
+				if(keys==null)
+					fallbackList.add(ordinal);
+				else
+					for(K key : keys)
+						byKey.computeIfAbsent(key, k -> new IntArrayList()).add(ordinal);
+			}
+			int[] fallback = fallbackList.toIntArray();
+			Map<K, int[]> candidatesByKey = new HashMap<>();
+			for(Map.Entry<K, IntList> entry : byKey.entrySet())
+				candidatesByKey.put(entry.getKey(), mergeSorted(entry.getValue().toIntArray(), fallback));
+			return new Snapshot<>(generation, recipes, Collections.unmodifiableMap(candidatesByKey), fallback);
+		}
+
+		<R> List<R> getCandidates(K key)
+		{
+			return new CandidateList<>(recipes, candidatesByKey.getOrDefault(key, fallback));
+		}
+
+		<R> List<R> getCandidates(Iterable<K> keys)
+		{
+			int[] single = null;
+			BitSet union = null;
+			for(K key : keys)
+			{
+				int[] forKey = candidatesByKey.getOrDefault(key, fallback);
+				if(single==null||single==forKey)
+					single = forKey;
+				else
+				{
+					if(union==null)
+					{
+						union = new BitSet(recipes.length);
+						for(int ordinal : single)
+							union.set(ordinal);
+					}
+					for(int ordinal : forKey)
+						union.set(ordinal);
+				}
+			}
+			if(union!=null)
+				return new CandidateList<>(recipes, union.stream().toArray());
+			else
+				return new CandidateList<>(recipes, single!=null?single: fallback);
+		}
+
+		private static int[] mergeSorted(int[] a, int[] b)
+		{
+			if(b.length==0)
+				return a;
+			int[] result = new int[a.length+b.length];
+			int i = 0, j = 0, k = 0;
+			while(i < a.length||j < b.length)
+				if(j >= b.length||(i < a.length&&a[i] < b[j]))
+					result[k++] = a[i++];
+				else
+					result[k++] = b[j++];
+			return result;
+		}
+	}
+
+	private static class CandidateList<R> extends AbstractList<R>
+	{
+		private final Object[] recipes;
+		private final int[] ordinals;
+
+		private CandidateList(Object[] recipes, int[] ordinals)
+		{
+			this.recipes = recipes;
+			this.ordinals = ordinals;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public R get(int index)
+		{
+			return (R)recipes[ordinals[index]];
+		}
+
+		@Override
+		public int size()
+		{
+			return ordinals.length;
+		}
+	}
+}
@@ -23,6 +23,11 @@ import net.minecraft.world.level.levelgen.synth.PerlinSimplexNoise;
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 /**
@@ -33,8 +38,13 @@ import java.util.stream.Collectors;
 public class ExcavatorHandler
 {
 	private static final Multimap<ResourceKey<Level>, MineralVein> MINERAL_VEIN_LIST = ArrayListMultimap.create();
-	// Only access when synchronized on MINERAL_VEIN_LIST
-	private static final Map<Pair<ResourceKey<Level>, ColumnPos>, MineralWorldInfo> MINERAL_INFO_CACHE = new HashMap<>();
+	// Spatial index of MINERAL_VEIN_LIST, guarded by INDEX_LOCK. Writers need to hold the monitor of MINERAL_VEIN_LIST
+	// first and then the write lock, so that callers synchronizing on the list externally cannot cause deadlocks.
+	private static final Map<ResourceKey<Level>, MineralVeinIndex> VEIN_INDEX = new HashMap<>();
+	private static final ReadWriteLock INDEX_LOCK = new ReentrantReadWriteLock();
+	// Maximum number of cached columns per dimension
+	private static final int MINERAL_INFO_CACHE_SIZE = 1<<14;
+	private static final Map<ResourceKey<Level>, MineralInfoCache> MINERAL_INFO_CACHE = new ConcurrentHashMap<>();
 	static final SetRestrictedField<Runnable> MARK_SAVE_DATA_DIRTY = SetRestrictedField.common();
 	public static int mineralVeinYield = 0;
 	public static double initialVeinDepletion = 0;
@@ -66,17 +76,21 @@ public class ExcavatorHandler
 		if(world.isClientSide)
 			return null;
 		ResourceKey<Level> dimension = world.dimension();
-		Pair<ResourceKey<Level>, ColumnPos> cacheKey = Pair.of(dimension, columnPos);
-		synchronized(MINERAL_VEIN_LIST)
+		MineralInfoCache cache = MINERAL_INFO_CACHE.computeIfAbsent(
+				dimension, d -> new MineralInfoCache(MINERAL_INFO_CACHE_SIZE)
+		);
+		MineralWorldInfo worldInfo = cache.get(columnPos);
+		if(worldInfo!=null)
+			return worldInfo;
+		// Hold the read lock until the result is cached, so a concurrent addVein can not be overwritten by stale info
+		INDEX_LOCK.readLock().lock();
+		try
 		{
-			MineralWorldInfo worldInfo = MINERAL_INFO_CACHE.get(cacheKey);
-			if(worldInfo==null)
-			{
-				List<Pair<MineralVein, Double>> inVeins = new ArrayList<>();
-				double totalSaturation = 0;
-				// Iterate all known veins
-				for(MineralVein vein : MINERAL_VEIN_LIST.get(dimension))
-				{
+			List<Pair<MineralVein, Double>> inVeins = new ArrayList<>();
+			MineralVeinIndex index = VEIN_INDEX.get(dimension);
+			if(index!=null)
+				// Only check veins that are close enough to possibly contain the position
+				index.forEachNear(columnPos, index.getMaxRadius(), vein -> {
 					// Use longs here to avoid overflow issues (#4468)
 					// With longs we can handle distances up to roughly 2**31 * sqrt(2), much larger than the maximum
 					// distance in an MC world (6*10**6*sqrt(2))
@@ -85,21 +99,22 @@ public class ExcavatorHandler
 					long d = dX*dX+dZ*dZ;
 					double rSq = vein.getRadius()*vein.getRadius();
 					if(d < rSq)
-					{
-						double saturation = 1-(d/rSq);
-						inVeins.add(Pair.of(vein, saturation));
-						totalSaturation += saturation;
-					}
-				}
-				final double finalTotalSaturation = totalSaturation;
-				worldInfo = new MineralWorldInfo(inVeins.stream()
-						.map(pair -> Pair.of(pair.getFirst(), (int)(pair.getSecond()/finalTotalSaturation*1000)))
-						.filter(p -> p.getFirst().getMineral(world)!=null)
-						.collect(Collectors.toList())
-				);
-				MINERAL_INFO_CACHE.put(cacheKey, worldInfo);
-			}
+						inVeins.add(Pair.of(vein, 1-(d/rSq)));
+				});
+			double totalSaturation = 0;
+			for(Pair<MineralVein, Double> inVein : inVeins)
+				totalSaturation += inVein.getSecond();
+			final double finalTotalSaturation = totalSaturation;
+			worldInfo = new MineralWorldInfo(inVeins.stream()
+					.map(pair -> Pair.of(pair.getFirst(), (int)(pair.getSecond()/finalTotalSaturation*1000)))
+					.filter(p -> p.getFirst().getMineral(world)!=null)
+					.collect(Collectors.toList())
+			);
+			cache.put(columnPos, worldInfo);
 			return worldInfo;
+		} finally
+		{
+			INDEX_LOCK.readLock().unlock();
 		}
 	}
 
@@ -126,63 +141,124 @@ public class ExcavatorHandler
 			}
 
 		if(pos!=null)
-			synchronized(MINERAL_VEIN_LIST)
+		{
+			final int radius = 12+rand.nextInt(32);
+			final ResourceKey<Level> dimension = world.dimension();
+			// Check under the read lock first, most candidate positions are rejected here
+			if(hasCrossover(dimension, pos, radius, INDEX_LOCK.readLock()))
+				return;
+			MineralMix mineralMix = null;
+			MineralSelection selection = new MineralSelection(world);
+			if(selection.getTotalWeight() > 0)
 			{
-				ColumnPos finalPos = pos;
-				int radius = 12+rand.nextInt(32);
-				int radiusSq = radius*radius;
-				boolean crossover = MINERAL_VEIN_LIST.get(world.dimension()).stream().anyMatch(vein -> {
-					// Use longs to prevent overflow
-					long dX = vein.getPos().x-finalPos.x;
-					long dZ = vein.getPos().z-finalPos.z;
-					long dSq = dX*dX+dZ*dZ;
-					return dSq < vein.getRadius()*vein.getRadius()||dSq < radiusSq;
-				});
-				if(!crossover)
+				int weight = selection.getRandomWeight(rand);
+				for(MineralMix e : selection.getMinerals())
 				{
-					MineralMix mineralMix = null;
-					MineralSelection selection = new MineralSelection(world);
-					if(selection.getTotalWeight() > 0)
-					{
-						int weight = selection.getRandomWeight(rand);
-						for(MineralMix e : selection.getMinerals())
-						{
-							weight -= e.weight;
-							if(weight < 0)
-							{
-								mineralMix = e;
-								break;
-							}
-						}
-					}
-					if(mineralMix!=null)
+					weight -= e.weight;
+					if(weight < 0)
 					{
-						MineralVein vein = new MineralVein(pos, mineralMix.getId(), radius);
-						// generate initial depletion
-						if(initialVeinDepletion > 0)
-							vein.setDepletion((int)(mineralVeinYield*(rand.nextDouble()*initialVeinDepletion)));
-						addVein(world.dimension(), vein);
-						MARK_SAVE_DATA_DIRTY.getValue().run();
+						mineralMix = e;
+						break;
 					}
 				}
 			}
+			if(mineralMix!=null)
+			{
+				MineralVein vein = new MineralVein(pos, mineralMix.getId(), radius);
+				// generate initial depletion
+				if(initialVeinDepletion > 0)
+					vein.setDepletion((int)(mineralVeinYield*(rand.nextDouble()*initialVeinDepletion)));
+				synchronized(MINERAL_VEIN_LIST)
+				{
+					// Another thread may have added a vein in the meantime, so check again before actually adding
+					if(hasCrossover(dimension, pos, radius, INDEX_LOCK.writeLock()))
+						return;
+					addVein(dimension, vein);
+				}
+				MARK_SAVE_DATA_DIRTY.getValue().run();
+			}
+		}
+	}
+
+	private static boolean hasCrossover(ResourceKey<Level> dimension, ColumnPos pos, int radius, Lock lock)
+	{
+		final int radiusSq = radius*radius;
+		lock.lock();
+		try
+		{
+			MineralVeinIndex index = VEIN_INDEX.get(dimension);
+			if(index==null)
+				return false;
+			return index.anyMatchNear(pos, Math.max(radius, index.getMaxRadius()), vein -> {
+				// Use longs to prevent overflow
+				long dX = vein.getPos().x-pos.x;
+				long dZ = vein.getPos().z-pos.z;
+				long dSq = dX*dX+dZ*dZ;
+				return dSq < vein.getRadius()*vein.getRadius()||dSq < radiusSq;
+			});
+		} finally
+		{
+			lock.unlock();
+		}
 	}
 
 	public static void addVein(ResourceKey<Level> dimension, MineralVein vein)
 	{
 		synchronized(MINERAL_VEIN_LIST)
 		{
-			MINERAL_VEIN_LIST.put(dimension, vein);
-			resetCache();
+			INDEX_LOCK.writeLock().lock();
+			try
+			{
+				MINERAL_VEIN_LIST.put(dimension, vein);
+				VEIN_INDEX.computeIfAbsent(dimension, d -> new MineralVeinIndex()).add(vein);
+				// Only the columns covered by the new vein can change
+				MineralInfoCache cache = MINERAL_INFO_CACHE.get(dimension);
+				if(cache!=null)
+					cache.invalidate(vein.getPos(), vein.getRadius());
+			} finally
+			{
+				INDEX_LOCK.writeLock().unlock();
+			}
 		}
 	}
 
+	/**
+	 * Rebuilds the spatial index and clears the cached mineral info. Needs to be called after the vein list is
+	 * modified directly.
+	 */
 	public static void resetCache()
 	{
 		synchronized(MINERAL_VEIN_LIST)
 		{
-			MINERAL_INFO_CACHE.clear();
+			INDEX_LOCK.writeLock().lock();
+			try
+			{
+				VEIN_INDEX.clear();
+				for(Entry<ResourceKey<Level>, MineralVein> entry : MINERAL_VEIN_LIST.entries())
+					VEIN_INDEX.computeIfAbsent(entry.getKey(), d -> new MineralVeinIndex()).add(entry.getValue());
+				MINERAL_INFO_CACHE.values().forEach(MineralInfoCache::clear);
+			} finally
+			{
+				INDEX_LOCK.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * @return the statistics of the mineral info cache for the given dimension, or the sum over all dimensions if
+	 * dimension is null
+	 */
+	public static MineralInfoCache.CacheStats getCacheStats(@Nullable ResourceKey<Level> dimension)
+	{
+		if(dimension!=null)
+		{
+			MineralInfoCache cache = MINERAL_INFO_CACHE.get(dimension);
+			return cache!=null?cache.getStats(): MineralInfoCache.CacheStats.EMPTY;
 		}
+		MineralInfoCache.CacheStats total = MineralInfoCache.CacheStats.EMPTY;
+		for(MineralInfoCache cache : MINERAL_INFO_CACHE.values())
+			total = total.add(cache.getStats());
+		return total;
 	}
 
 	public static void setSetDirtyCallback(Runnable setDirty) {
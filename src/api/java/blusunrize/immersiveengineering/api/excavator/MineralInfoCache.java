@@ -0,0 +1,123 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2021
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ *
+ */
+
+package blusunrize.immersiveengineering.api.excavator;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.server.level.ColumnPos;
+import net.minecraft.world.level.ChunkPos;
+
+import javax.annotation.Nullable;
+
+/**
+ * Size-bounded LRU cache of the {@link MineralWorldInfo} for the columns of one dimension, keyed by the packed column
+ * position. All methods are synchronized, since excavators and worldgen threads access the cache concurrently.
+ */
+public class MineralInfoCache
+{
+	private final Long2ObjectLinkedOpenHashMap<MineralWorldInfo> entries = new Long2ObjectLinkedOpenHashMap<>();
+	private final int capacity;
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+	private long invalidations = 0;
+
+	MineralInfoCache(int capacity)
+	{
+		this.capacity = capacity;
+	}
+
+	static long pack(ColumnPos pos)
+	{
+		return ChunkPos.asLong(pos.x, pos.z);
+	}
+
+	@Nullable
+	synchronized MineralWorldInfo get(ColumnPos pos)
+	{
+		MineralWorldInfo info = entries.getAndMoveToLast(pack(pos));
+		if(info!=null)
+			++hits;
+		else
+			++misses;
+		return info;
+	}
+
+	synchronized void put(ColumnPos pos, MineralWorldInfo info)
+	{
+		entries.putAndMoveToLast(pack(pos), info);
+		while(entries.size() > capacity)
+		{
+			entries.removeFirst();
+			++evictions;
+		}
+	}
+
+	/**
+	 * Removes all cached columns strictly within the given radius of center, i.e. all columns a vein with these
+	 * parameters covers
+	 */
+	synchronized void invalidate(ColumnPos center, int radius)
+	{
+		final long radiusSq = (long)radius*radius;
+		// Iterate whichever is smaller: the cached entries or the columns covered by the vein
+		if(entries.size() < 4L*radiusSq)
+		{
+			ObjectIterator<Long2ObjectMap.Entry<MineralWorldInfo>> it = entries.long2ObjectEntrySet().fastIterator();
+			while(it.hasNext())
+			{
+				long key = it.next().getLongKey();
+				long dX = ChunkPos.getX(key)-center.x;
+				long dZ = ChunkPos.getZ(key)-center.z;
+				if(dX*dX+dZ*dZ < radiusSq)
+				{
+					it.remove();
+					++invalidations;
+				}
+			}
+		}
+		else
+			for(int dX = -radius+1; dX < radius; ++dX)
+				for(int dZ = -radius+1; dZ < radius; ++dZ)
+					if((long)dX*dX+(long)dZ*dZ < radiusSq&&entries.remove(ChunkPos.asLong(center.x+dX, center.z+dZ))!=null)
+						++invalidations;
+	}
+
+	synchronized void clear()
+	{
+		invalidations += entries.size();
+		entries.clear();
+	}
+
+	synchronized CacheStats getStats()
+	{
+		return new CacheStats(entries.size(), capacity, hits, misses, evictions, invalidations);
+	}
+
+	public record CacheStats(int size, int capacity, long hits, long misses, long evictions, long invalidations)
+	{
+		public static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0);
+
+		public CacheStats add(CacheStats other)
+		{
+			return new CacheStats(
+					size+other.size, capacity+other.capacity, hits+other.hits, misses+other.misses,
+					evictions+other.evictions, invalidations+other.invalidations
+			);
+		}
+
+		public double hitRate()
+		{
+			long total = hits+misses;
+			return total > 0?hits/(double)total: 0;
+		}
+	}
+}
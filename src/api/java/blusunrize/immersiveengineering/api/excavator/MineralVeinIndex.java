@@ -0,0 +1,89 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2021
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ *
+ */
+
+package blusunrize.immersiveengineering.api.excavator;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.server.level.ColumnPos;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Grid of the mineral veins in one dimension, bucketed by the position of their center. Not thread-safe, access is
+ * synchronized by {@link ExcavatorHandler}.
+ */
+class MineralVeinIndex
+{
+	// Cells are 64x64 blocks, which is larger than the radius of any generated vein
+	private static final int CELL_SHIFT = 6;
+
+	private final Long2ObjectMap<List<MineralVein>> veinsByCell = new Long2ObjectOpenHashMap<>();
+	private int maxRadius = 0;
+
+	void add(MineralVein vein)
+	{
+		ColumnPos center = vein.getPos();
+		long cell = ChunkPos.asLong(center.x >> CELL_SHIFT, center.z >> CELL_SHIFT);
+		veinsByCell.computeIfAbsent(cell, l -> new ArrayList<>()).add(vein);
+		maxRadius = Math.max(maxRadius, vein.getRadius());
+	}
+
+	void clear()
+	{
+		veinsByCell.clear();
+		maxRadius = 0;
+	}
+
+	/**
+	 * @return the largest radius of any vein in the index, i.e. the maximum distance at which a vein can contain a
+	 * given position
+	 */
+	int getMaxRadius()
+	{
+		return maxRadius;
+	}
+
+	/**
+	 * Calls the consumer for (at least) all veins with a center at most the given distance from pos
+	 */
+	void forEachNear(ColumnPos pos, int distance, Consumer<MineralVein> out)
+	{
+		anyMatchNear(pos, distance, vein -> {
+			out.accept(vein);
+			return false;
+		});
+	}
+
+	/**
+	 * @return whether the predicate is true for any vein checked. All veins with a center at most the given distance
+	 * from pos are checked, others may or may not be.
+	 */
+	boolean anyMatchNear(ColumnPos pos, int distance, Predicate<MineralVein> predicate)
+	{
+		final int minCellX = (pos.x-distance) >> CELL_SHIFT;
+		final int maxCellX = (pos.x+distance) >> CELL_SHIFT;
+		final int minCellZ = (pos.z-distance) >> CELL_SHIFT;
+		final int maxCellZ = (pos.z+distance) >> CELL_SHIFT;
+		for(int cellX = minCellX; cellX <= maxCellX; ++cellX)
+			for(int cellZ = minCellZ; cellZ <= maxCellZ; ++cellZ)
+			{
+				List<MineralVein> inCell = veinsByCell.get(ChunkPos.asLong(cellX, cellZ));
+				if(inCell!=null)
+					for(MineralVein vein : inCell)
+						if(predicate.test(vein))
+							return true;
+			}
+		return false;
+	}
+}
@@ -2,7 +2,7 @@ package blusunrize.immersiveengineering.api.utils;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
-import net.minecraft.world.level.Level;
+import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.HitResult.Type;
@@ -12,15 +12,19 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Consumer;
 
+/**
+ * Legacy tracer returning all blocks near the ray. Prefer {@link VoxelTraversal}, which visits blocks in order, does not
+ * allocate per block and supports stopping early.
+ */
 public class Raytracer
 {
-	public static Set<BlockPos> rayTrace(Vec3 start, Vec3 end, Level world)
+	public static Set<BlockPos> rayTrace(Vec3 start, Vec3 end, BlockGetter world)
 	{
 		return rayTrace(start, end, world, (p) -> {
 		});
 	}
 
-	public static Set<BlockPos> rayTrace(Vec3 start, Vec3 end, Level world, Consumer<BlockPos> out)
+	public static Set<BlockPos> rayTrace(Vec3 start, Vec3 end, BlockGetter world, Consumer<BlockPos> out)
 	{
 		Set<BlockPos> ret = new HashSet<>();
 		Set<BlockPos> checked = new HashSet<>();
@@ -56,7 +60,7 @@ public class Raytracer
 		return ret;
 	}
 
-	private static void ray(double dif, Vec3 mov, Vec3 start, double lengthAdd, Set<BlockPos> ret, Level world, Set<BlockPos> checked, Consumer<BlockPos> out)
+	private static void ray(double dif, Vec3 mov, Vec3 start, double lengthAdd, Set<BlockPos> ret, BlockGetter world, Set<BlockPos> checked, Consumer<BlockPos> out)
 	{
 		final double standardOff = .0625;
 		for(int i = 0; i < dif; i++)
@@ -0,0 +1,134 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.utils;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.BlockPos.MutableBlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.BlockHitResult;
+import net.minecraft.world.phys.Vec3;
+import net.minecraft.world.phys.shapes.VoxelShape;
+
+import javax.annotation.Nullable;
+import java.util.function.Predicate;
+
+/**
+ * Walks the blocks intersected by a line segment in order, one block per step (Amanatides &amp; Woo, "A Fast Voxel
+ * Traversal Algorithm for Ray Tracing"). Unlike {@link Raytracer} this does not allocate per block and allows the
+ * caller to stop as soon as it has found what it is looking for.
+ */
+public final class VoxelTraversal
+{
+	private VoxelTraversal()
+	{
+	}
+
+	/**
+	 * Visits all blocks intersected by the segment from start to end, ordered by distance from start.
+	 *
+	 * @return true if the end of the segment was reached, false if the visitor stopped the traversal
+	 */
+	public static boolean forEachBlock(Vec3 start, Vec3 end, BlockVisitor visitor)
+	{
+		final double dX = end.x-start.x;
+		final double dY = end.y-start.y;
+		final double dZ = end.z-start.z;
+		int x = Mth.floor(start.x);
+		int y = Mth.floor(start.y);
+		int z = Mth.floor(start.z);
+		final int stepX = (int)Math.signum(dX);
+		final int stepY = (int)Math.signum(dY);
+		final int stepZ = (int)Math.signum(dZ);
+		// The segment is parametrized as start+t*(end-start) with t in [0, 1]
+		final double tDeltaX = stepX!=0?1/Math.abs(dX): Double.POSITIVE_INFINITY;
+		final double tDeltaY = stepY!=0?1/Math.abs(dY): Double.POSITIVE_INFINITY;
+		final double tDeltaZ = stepZ!=0?1/Math.abs(dZ): Double.POSITIVE_INFINITY;
+		double tMaxX = initialBoundary(start.x, x, stepX, tDeltaX);
+		double tMaxY = initialBoundary(start.y, y, stepY, tDeltaY);
+		double tMaxZ = initialBoundary(start.z, z, stepZ, tDeltaZ);
+		// Bounding the number of steps by the Manhattan distance guarantees termination even if rounding errors make
+		// the traversal take a slightly different path near edges
+		final int steps = Math.abs(Mth.floor(end.x)-x)+Math.abs(Mth.floor(end.y)-y)+Math.abs(Mth.floor(end.z)-z);
+		MutableBlockPos pos = new MutableBlockPos();
+		double tEnter = 0;
+		for(int i = 0; ; ++i)
+		{
+			final boolean last = i >= steps;
+			final double tExit = last?1: Math.min(Math.min(Math.min(tMaxX, tMaxY), tMaxZ), 1);
+			if(!visitor.visit(pos.set(x, y, z), tEnter, tExit))
+				return false;
+			if(last)
+				return true;
+			tEnter = tExit;
+			if(tMaxX < tMaxY&&tMaxX < tMaxZ)
+			{
+				x += stepX;
+				tMaxX += tDeltaX;
+			}
+			else if(tMaxY < tMaxZ)
+			{
+				y += stepY;
+				tMaxY += tDeltaY;
+			}
+			else
+			{
+				z += stepZ;
+				tMaxZ += tDeltaZ;
+			}
+		}
+	}
+
+	/**
+	 * Finds the first block along the segment whose collision shape is hit by the segment.
+	 *
+	 * @param ignore blocks for which this returns true are skipped, e.g. the block the segment starts in
+	 * @return the hit on the first block, or null if the segment is unobstructed
+	 */
+	@Nullable
+	public static BlockHitResult clipFirst(BlockGetter world, Vec3 start, Vec3 end, Predicate<BlockPos> ignore)
+	{
+		BlockHitResult[] result = {null};
+		forEachBlock(start, end, (pos, tEnter, tExit) -> {
+			if(ignore.test(pos))
+				return true;
+			BlockState state = world.getBlockState(pos);
+			VoxelShape shape = state.getCollisionShape(world, pos);
+			if(shape.isEmpty())
+				return true;
+			result[0] = shape.clip(start, end, pos.immutable());
+			return result[0]==null;
+		});
+		return result[0];
+	}
+
+	private static double initialBoundary(double start, int block, int step, double tDelta)
+	{
+		if(step > 0)
+			return (block+1-start)*tDelta;
+		else if(step < 0)
+			return (start-block)*tDelta;
+		else
+			return Double.POSITIVE_INFINITY;
+	}
+
+	@FunctionalInterface
+	public interface BlockVisitor
+	{
+		/**
+		 * @param pos    the current block. This is reused for all blocks of a traversal, so it needs to be copied if
+		 *               it is stored anywhere
+		 * @param tEnter the fraction of the segment at which it enters the block
+		 * @param tExit  the fraction of the segment at which it leaves the block
+		 * @return true to continue the traversal, false to stop it
+		 */
+		boolean visit(MutableBlockPos pos, double tEnter, double tExit);
+	}
+}
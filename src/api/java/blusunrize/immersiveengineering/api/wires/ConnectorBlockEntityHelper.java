@@ -51,8 +51,7 @@ public class ConnectorBlockEntityHelper
 			else
 				dropHandler = c -> {
 				};
-			for(ConnectionPoint cp : iic.getConnectionPoints())
-				globalNet.removeAllConnectionsAt(cp, dropHandler);
+			globalNet.removeAllConnectionsAt(iic, dropHandler);
 		}
 		if(world.isClientSide&&WireUtils.hasAnyConnections(globalNet, iic))
 			globalNet.onConnectorUnload(iic);
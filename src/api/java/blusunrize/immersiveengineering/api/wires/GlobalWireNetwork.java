@@ -21,7 +21,10 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 import com.mojang.datafixers.util.Pair;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArraySet;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
@@ -64,10 +67,13 @@ public class GlobalWireNetwork implements IWorldTickable
 	private static GlobalWireNetwork lastClientNet;
 
 	private final Map<ConnectionPoint, LocalWireNetwork> localNetsByPos = new HashMap<>();
+	// All keys of localNetsByPos, grouped by chunk (as given by ChunkPos#toLong)
+	private final Long2ObjectMap<Set<ConnectionPoint>> connectionPointsByChunk = new Long2ObjectOpenHashMap<>();
 	private final Set<LocalWireNetwork> localNetSet = new ReferenceOpenHashSet<>();
 	private final WireCollisionData collisionData;
 	private final IICProxyProvider proxyProvider;
 	private final IWireSyncManager syncManager;
+	private final boolean isClientSide;
 
 	private Map<Pair<BlockPos, Level>, IImmersiveConnectable> queuedLoads = new LinkedHashMap<>();
 
@@ -112,6 +118,7 @@ public class GlobalWireNetwork implements IWorldTickable
 		this.proxyProvider = proxyProvider;
 		collisionData = new WireCollisionData(this, isClientSide);
 		this.syncManager = syncManager;
+		this.isClientSide = isClientSide;
 	}
 
 	public void addConnection(Connection conn)
@@ -125,6 +132,8 @@ public class GlobalWireNetwork implements IWorldTickable
 		if(netA!=netB)
 		{
 			joined = netA.merge(netB, () -> new LocalWireNetwork(this));
+			if(!isClientSide)
+				WireNetworkProfiler.countMerge();
 			for(ConnectionPoint p : joined.getConnectionPoints())
 				putLocalNet(p, joined);
 		}
@@ -138,8 +147,14 @@ public class GlobalWireNetwork implements IWorldTickable
 
 	public void removeAllConnectionsAt(IImmersiveConnectable iic, Consumer<Connection> handler)
 	{
+		processQueuedLoads();
+		// Set since internal connections are connected to two points on the same connector
+		Set<Connection> conns = new LinkedHashSet<>();
 		for(ConnectionPoint cp : iic.getConnectionPoints())
-			removeAllConnectionsAt(cp, handler);
+			conns.addAll(getLocalNet(cp).getConnections(cp));
+		conns.forEach(handler);
+		removeConnections(conns);
+		validateNextTick = true;
 	}
 
 	public void removeAllConnectionsAt(ConnectionPoint pos, Consumer<Connection> handler)
@@ -147,39 +162,55 @@ public class GlobalWireNetwork implements IWorldTickable
 		processQueuedLoads();
 		LocalWireNetwork net = getLocalNet(pos);
 		List<Connection> conns = new ArrayList<>(net.getConnections(pos));
-		//TODO batch removal method
-		for(Connection conn : conns)
-		{
-			handler.accept(conn);
-			removeConnection(conn);
-		}
+		conns.forEach(handler);
+		removeConnections(conns);
 		validateNextTick = true;
 	}
 
 	public void removeConnection(Connection c)
+	{
+		removeConnections(Collections.singletonList(c));
+	}
+
+	/**
+	 * Removes all given connections. Each affected local net is only split and notifies its handlers once, so this is
+	 * significantly faster than removing the connections one by one on large nets.
+	 */
+	public void removeConnections(Collection<Connection> toRemove)
 	{
 		processQueuedLoads();
-		collisionData.removeConnection(c);
-		LocalWireNetwork oldNet = getNullableLocalNet(c.getEndA());
-		if(oldNet==null)
+		Map<LocalWireNetwork, List<Connection>> connsByNet = new LinkedHashMap<>();
+		List<Connection> removed = new ArrayList<>(toRemove.size());
+		for(Connection c : toRemove)
 		{
-			Preconditions.checkState(
-					getNullableLocalNet(c.getEndB())==null,
-					"Found net at %s but not at %s while removing connection %s",
-					c.getEndB(),
-					c.getEndA(),
-					c
+			collisionData.removeConnection(c);
+			LocalWireNetwork oldNet = getNullableLocalNet(c.getEndA());
+			if(oldNet==null)
+			{
+				Preconditions.checkState(
+						getNullableLocalNet(c.getEndB())==null,
+						"Found net at %s but not at %s while removing connection %s",
+						c.getEndB(),
+						c.getEndA(),
+						c
+				);
+				continue;
+			}
+			Preconditions.checkNotNull(
+					oldNet.getConnector(c.getEndB()),
+					"Removing connection %s from net %s, but does not have connector for %s",
+					c, oldNet, c.getEndB()
 			);
-			return;
+			connsByNet.computeIfAbsent(oldNet, net -> new ArrayList<>()).add(c);
+			removed.add(c);
 		}
-		Preconditions.checkNotNull(
-				oldNet.getConnector(c.getEndB()),
-				"Removing connection %s from net %s, but does not have connector for %s",
-				c, oldNet, c.getEndB()
-		);
-		oldNet.removeConnection(c);
-		splitNet(oldNet);
-		syncManager.onConnectionRemoved(c);
+		for(Entry<LocalWireNetwork, List<Connection>> netAndConns : connsByNet.entrySet())
+		{
+			netAndConns.getKey().removeConnections(netAndConns.getValue());
+			splitNet(netAndConns.getKey());
+		}
+		if(!removed.isEmpty())
+			syncManager.onConnectionsRemoved(removed);
 	}
 
 	public void removeAndDropConnection(Connection c, BlockPos dropAt, Level world)
@@ -195,6 +226,8 @@ public class GlobalWireNetwork implements IWorldTickable
 	private void splitNet(LocalWireNetwork oldNet)
 	{
 		Collection<LocalWireNetwork> newNets = oldNet.split(this);
+		if(!isClientSide&&!newNets.isEmpty())
+			WireNetworkProfiler.countSplit();
 		for(LocalWireNetwork net : newNets)
 			for(ConnectionPoint p : net.getConnectionPoints())
 				putLocalNet(p, net);
@@ -205,6 +238,7 @@ public class GlobalWireNetwork implements IWorldTickable
 		localNetSet.forEach(LocalWireNetwork::setInvalid);
 		localNetSet.clear();
 		localNetsByPos.clear();
+		connectionPointsByChunk.clear();
 		ListTag locals = nbt.getList("locals", Tag.TAG_COMPOUND);
 		for(Tag b : locals)
 		{
@@ -244,6 +278,7 @@ public class GlobalWireNetwork implements IWorldTickable
 			);
 			newNet.addConnector(pos, proxy, this);
 			localNetSet.add(newNet);
+			addToChunkIndex(pos);
 			return newNet;
 		});
 		Preconditions.checkState(ret.isValid(pos), "%s is not a valid net", ret);
@@ -516,19 +551,31 @@ public class GlobalWireNetwork implements IWorldTickable
 		validating = false;
 	}
 
+	/**
+	 * @return all local nets in this dimension. Do not modify the result!
+	 */
+	public Collection<LocalWireNetwork> getLocalNets()
+	{
+		return Collections.unmodifiableCollection(localNetSet);
+	}
+
 	public WireCollisionData getCollisionData()
 	{
 		return collisionData;
 	}
 
+	public boolean isClientSide()
+	{
+		return isClientSide;
+	}
+
 	public Collection<ConnectionPoint> getAllConnectorsIn(ChunkPos pos)
 	{
-		//TODO better way of finding all connectors in a chunk
-		Collection<ConnectionPoint> ret = new ArrayList<>();
-		for(ConnectionPoint cp : localNetsByPos.keySet())
-			if(pos.equals(new ChunkPos(cp.position())))
-				ret.add(cp);
-		return ret;
+		Set<ConnectionPoint> inChunk = connectionPointsByChunk.get(pos.toLong());
+		if(inChunk==null)
+			return new ArrayList<>();
+		// Copy since callers may modify the network while iterating
+		return new ArrayList<>(inChunk);
 	}
 
 	// Internal use only, for network sanitization
@@ -542,7 +589,7 @@ public class GlobalWireNetwork implements IWorldTickable
 	void removeConnector(BlockPos pos)
 	{
 		Collection<ConnectionPoint> cpsAtInvalid = new ArrayList<>();
-		for(ConnectionPoint cp : localNetsByPos.keySet())
+		for(ConnectionPoint cp : getAllConnectorsIn(new ChunkPos(pos)))
 			if(cp.position().equals(pos))
 				cpsAtInvalid.add(cp);
 		for(ConnectionPoint toRemove : cpsAtInvalid)
@@ -573,11 +620,26 @@ public class GlobalWireNetwork implements IWorldTickable
 		}
 		if(net!=null)
 		{
-			localNetsByPos.put(cp, net);
+			if(localNetsByPos.put(cp, net)==null)
+				addToChunkIndex(cp);
 			localNetSet.add(net);
 		}
-		else
-			localNetsByPos.remove(cp);
+		else if(localNetsByPos.remove(cp)!=null)
+			removeFromChunkIndex(cp);
+	}
+
+	private void addToChunkIndex(ConnectionPoint cp)
+	{
+		final long chunk = ChunkPos.asLong(cp.getX() >> 4, cp.getZ() >> 4);
+		connectionPointsByChunk.computeIfAbsent(chunk, l -> new ObjectOpenHashSet<>()).add(cp);
+	}
+
+	private void removeFromChunkIndex(ConnectionPoint cp)
+	{
+		final long chunk = ChunkPos.asLong(cp.getX() >> 4, cp.getZ() >> 4);
+		Set<ConnectionPoint> inChunk = connectionPointsByChunk.get(chunk);
+		if(inChunk!=null&&inChunk.remove(cp)&&inChunk.isEmpty())
+			connectionPointsByChunk.remove(chunk);
 	}
 
 	public IImmersiveConnectable getExistingConnector(ConnectionPoint cp)
@@ -8,9 +8,17 @@
 
 package blusunrize.immersiveengineering.api.wires;
 
+import java.util.Collection;
+
 public interface IWireSyncManager
 {
 	void onConnectionAdded(Connection c);
 
 	void onConnectionRemoved(Connection c);
+
+	default void onConnectionsRemoved(Collection<Connection> removed)
+	{
+		for(Connection c : removed)
+			onConnectionRemoved(c);
+	}
 }
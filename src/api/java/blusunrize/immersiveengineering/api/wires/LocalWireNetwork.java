@@ -40,6 +40,11 @@ public class LocalWireNetwork implements IWorldTickable
 	private List<Runnable> runNextTick = new ArrayList<>();
 	private boolean isValid = true;
 	private int version = 0;
+	private long lastTickTime = 0;
+	// Only valid if profilerSession matches the current session of the profiler
+	private int profilerSession = -1;
+	private long profiledTime = 0;
+	private int profiledTicks = 0;
 
 	public LocalWireNetwork(CompoundTag subnet, GlobalWireNetwork globalNet)
 	{
@@ -250,26 +255,35 @@ public class LocalWireNetwork implements IWorldTickable
 	}
 
 	void removeConnection(Connection c)
+	{
+		removeConnections(Collections.singletonList(c));
+	}
+
+	void removeConnections(Collection<Connection> toRemove)
 	{
 		++version;
-		for(ConnectionPoint end : new ConnectionPoint[]{c.getEndA(), c.getEndB()})
-		{
-			boolean success = false;
-			Collection<Connection> conns = connections.get(end);
-			if(conns!=null)
-				success = conns.remove(c);
-			if(!success)
-				WireLogger.logger.error("Failed to remove {} from {}", c, c.getEndB());
-		}
-		for(ConnectionPoint end : new ConnectionPoint[]{c.getEndA(), c.getEndB()})
+		for(Connection c : toRemove)
 		{
-			IImmersiveConnectable connector = connectors.get(end.position());
-			if(connector!=null)
-				connector.removeCable(c, end);
+			for(ConnectionPoint end : new ConnectionPoint[]{c.getEndA(), c.getEndB()})
+			{
+				boolean success = false;
+				Collection<Connection> conns = connections.get(end);
+				if(conns!=null)
+					success = conns.remove(c);
+				if(!success)
+					WireLogger.logger.error("Failed to remove {} from {}", c, c.getEndB());
+			}
+			for(ConnectionPoint end : new ConnectionPoint[]{c.getEndA(), c.getEndB()})
+			{
+				IImmersiveConnectable connector = connectors.get(end.position());
+				if(connector!=null)
+					connector.removeCable(c, end);
+			}
 		}
 		for(LocalNetworkHandler h : handlers.values())
-			h.onConnectionRemoved(c);
-		removeHandlersFor(c.type);
+			h.onConnectionsRemoved(toRemove);
+		for(Connection c : toRemove)
+			removeHandlersFor(c.type);
 	}
 
 	void removeConnector(BlockPos p)
@@ -437,13 +451,61 @@ public class LocalWireNetwork implements IWorldTickable
 	@Override
 	public void update(Level w)
 	{
-		for(LocalNetworkHandler handler : handlers.values())
-			if(handler instanceof IWorldTickable)
-				((IWorldTickable)handler).update(w);
+		final long start = System.nanoTime();
+		// The client nets are ticked on the client thread, the profiler only covers the server
+		final boolean profiling = !w.isClientSide&&WireNetworkProfiler.isEnabled();
+		for(Entry<ResourceLocation, LocalNetworkHandler> handler : handlers.entrySet())
+			if(handler.getValue() instanceof IWorldTickable tickable)
+			{
+				if(profiling)
+				{
+					final long handlerStart = System.nanoTime();
+					tickable.update(w);
+					WireNetworkProfiler.recordHandlerTime(handler.getKey(), System.nanoTime()-handlerStart);
+				}
+				else
+					tickable.update(w);
+			}
 		List<Runnable> toRun = runNextTick;
 		runNextTick = new ArrayList<>();
 		for(Runnable r : toRun)
 			r.run();
+		lastTickTime = System.nanoTime()-start;
+		if(profiling)
+		{
+			if(profilerSession!=WireNetworkProfiler.getSession())
+			{
+				profilerSession = WireNetworkProfiler.getSession();
+				profiledTime = 0;
+				profiledTicks = 0;
+			}
+			profiledTime += lastTickTime;
+			++profiledTicks;
+		}
+	}
+
+	/**
+	 * @return the total time in nanoseconds spent ticking this network during the current or last profiling session
+	 */
+	public long getProfiledTime()
+	{
+		return profilerSession==WireNetworkProfiler.getSession()?profiledTime: 0;
+	}
+
+	/**
+	 * @return the number of ticks this network was ticked during the current or last profiling session
+	 */
+	public int getProfiledTicks()
+	{
+		return profilerSession==WireNetworkProfiler.getSession()?profiledTicks: 0;
+	}
+
+	/**
+	 * @return the time in nanoseconds spent ticking this network and its handlers in the last tick
+	 */
+	public long getLastTickTime()
+	{
+		return lastTickTime;
 	}
 
 	@Nullable
@@ -475,8 +537,7 @@ public class LocalWireNetwork implements IWorldTickable
 	void removeCP(ConnectionPoint cp)
 	{
 		++version;
-		for(Connection c : getConnections(cp).toArray(new Connection[0]))
-			removeConnection(c);
+		removeConnections(new ArrayList<>(getConnections(cp)));
 		connections.remove(cp);
 		boolean hasMoreAtSameBlock = true;
 		for(ConnectionPoint cp2 : connections.keySet())
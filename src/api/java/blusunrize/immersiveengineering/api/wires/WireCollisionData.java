@@ -11,6 +11,8 @@ package blusunrize.immersiveengineering.api.wires;
 import blusunrize.immersiveengineering.api.wires.utils.WireUtils;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.SectionPos;
@@ -31,6 +33,13 @@ public class WireCollisionData
 {
 	// Only populated on server
 	private final Map<BlockPos, List<CollisionInfo>> blockToWires = new Object2ObjectOpenHashMap<>();
+	// Exact summary of the keys of blockToWires, one bit per block in each section containing wires. Allows checking
+	// whether a block contains wires without hashing a BlockPos (or creating one in the first place).
+	private final Long2ObjectMap<SectionMask> sectionMasks = new Long2ObjectOpenHashMap<>();
+	// Entities usually touch several blocks in the same section in a row
+	private long lastQueriedSection = Long.MAX_VALUE;
+	@Nullable
+	private SectionMask lastQueriedMask;
 	// Only populated on client
 	private final Map<SectionPos, List<ConnectionSegments>> sectionsToWires = new Object2ObjectOpenHashMap<>();
 	private final GlobalWireNetwork net;
@@ -113,20 +122,75 @@ public class WireCollisionData
 		{
 			existing.removeIf(i -> i.connection==toRemove);
 			if(existing.isEmpty())
+			{
 				blockToWires.remove(pos);
+				long sectionKey = SectionPos.asLong(pos);
+				SectionMask mask = sectionMasks.get(sectionKey);
+				if(mask!=null&&mask.clear(pos.getX(), pos.getY(), pos.getZ()))
+				{
+					sectionMasks.remove(sectionKey);
+					lastQueriedSection = Long.MAX_VALUE;
+					lastQueriedMask = null;
+				}
+			}
 		}
 	}
 
 	private void add(BlockPos pos, CollisionInfo info)
 	{
-		List<CollisionInfo> existing = blockToWires.computeIfAbsent(pos, $ -> new ArrayList<>());
+		List<CollisionInfo> existing = blockToWires.get(pos);
+		if(existing==null)
+		{
+			existing = new ArrayList<>();
+			blockToWires.put(pos, existing);
+			long sectionKey = SectionPos.asLong(pos);
+			SectionMask mask = sectionMasks.get(sectionKey);
+			if(mask==null)
+			{
+				mask = new SectionMask();
+				sectionMasks.put(sectionKey, mask);
+				lastQueriedSection = Long.MAX_VALUE;
+				lastQueriedMask = null;
+			}
+			mask.set(pos.getX(), pos.getY(), pos.getZ());
+		}
 		if(!existing.contains(info))
 			existing.add(info);
 	}
 
+	/**
+	 * Cheap check whether any wire passes through the given block, without any allocation or boxing. Only valid on the
+	 * server, and only to be called from the server thread.
+	 */
+	public boolean hasWiresAt(int x, int y, int z)
+	{
+		if(sectionMasks.isEmpty())
+			return false;
+		long sectionKey = SectionPos.asLong(
+				SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z)
+		);
+		SectionMask mask;
+		if(sectionKey==lastQueriedSection)
+			mask = lastQueriedMask;
+		else
+		{
+			mask = sectionMasks.get(sectionKey);
+			lastQueriedSection = sectionKey;
+			lastQueriedMask = mask;
+		}
+		return mask!=null&&mask.get(x, y, z);
+	}
+
+	public boolean hasWiresAt(BlockPos pos)
+	{
+		return hasWiresAt(pos.getX(), pos.getY(), pos.getZ());
+	}
+
 	@Nonnull
 	public Collection<CollisionInfo> getCollisionInfo(BlockPos pos)
 	{
+		if(!hasWiresAt(pos))
+			return ImmutableList.of();
 		List<CollisionInfo> ret = blockToWires.get(pos);
 		if(ret==null)
 			ret = ImmutableList.of();
@@ -146,6 +210,45 @@ public class WireCollisionData
 		}
 	}
 
+	private static class SectionMask
+	{
+		private final long[] bits = new long[SectionPos.SECTION_SIZE*SectionPos.SECTION_SIZE*SectionPos.SECTION_SIZE/64];
+		private int count = 0;
+
+		private static int index(int x, int y, int z)
+		{
+			return (SectionPos.sectionRelative(y)<<8)|(SectionPos.sectionRelative(z)<<4)|SectionPos.sectionRelative(x);
+		}
+
+		boolean get(int x, int y, int z)
+		{
+			int index = index(x, y, z);
+			return (bits[index >> 6]&(1L<<index))!=0;
+		}
+
+		void set(int x, int y, int z)
+		{
+			int index = index(x, y, z);
+			long old = bits[index >> 6];
+			bits[index >> 6] = old|(1L<<index);
+			if(old!=bits[index >> 6])
+				++count;
+		}
+
+		/**
+		 * @return true if the section is now empty
+		 */
+		boolean clear(int x, int y, int z)
+		{
+			int index = index(x, y, z);
+			long old = bits[index >> 6];
+			bits[index >> 6] = old&~(1L<<index);
+			if(old!=bits[index >> 6])
+				--count;
+			return count==0;
+		}
+	}
+
 	public record CollisionInfo(
 			@Nonnull Vec3 intersectA, @Nonnull Vec3 intersectB, @Nonnull Connection connection, boolean isInBlock
 	)
@@ -0,0 +1,133 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2021
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.wires;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMaps;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Opt-in timing and event counters for the wire network tick. While profiling is disabled every hook is a single
+ * boolean check. Only meant to be used from the server thread.
+ */
+public class WireNetworkProfiler
+{
+	private static boolean enabled = false;
+	// Incremented on every start, local nets reset their timings when they see a new session
+	private static int session = 0;
+	private static long startTime;
+	private static long stopTime;
+	private static final Object2LongMap<ResourceLocation> handlerTime = new Object2LongOpenHashMap<>();
+	private static long dijkstraRuns;
+	private static long pathCacheHits;
+	private static long pathCacheMisses;
+	private static long splits;
+	private static long merges;
+
+	public static boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	public static void start()
+	{
+		enabled = true;
+		++session;
+		startTime = System.nanoTime();
+		handlerTime.clear();
+		dijkstraRuns = pathCacheHits = pathCacheMisses = splits = merges = 0;
+	}
+
+	public static void stop()
+	{
+		if(enabled)
+			stopTime = System.nanoTime();
+		enabled = false;
+	}
+
+	static int getSession()
+	{
+		return session;
+	}
+
+	/**
+	 * @return the time covered by the current or last profiling session, in nanoseconds
+	 */
+	public static long getProfiledTime()
+	{
+		return (enabled?System.nanoTime(): stopTime)-startTime;
+	}
+
+	static void recordHandlerTime(ResourceLocation handler, long nanos)
+	{
+		handlerTime.mergeLong(handler, nanos, Long::sum);
+	}
+
+	public static void countDijkstraRun()
+	{
+		if(enabled)
+			++dijkstraRuns;
+	}
+
+	public static void countPathCacheAccess(boolean hit)
+	{
+		if(!enabled)
+			return;
+		if(hit)
+			++pathCacheHits;
+		else
+			++pathCacheMisses;
+	}
+
+	static void countSplit()
+	{
+		if(enabled)
+			++splits;
+	}
+
+	static void countMerge()
+	{
+		if(enabled)
+			++merges;
+	}
+
+	/**
+	 * @return the total time spent in each type of local handler during the current or last session, in nanoseconds
+	 */
+	public static Object2LongMap<ResourceLocation> getHandlerTimes()
+	{
+		return Object2LongMaps.unmodifiable(handlerTime);
+	}
+
+	public static long getDijkstraRuns()
+	{
+		return dijkstraRuns;
+	}
+
+	public static long getPathCacheHits()
+	{
+		return pathCacheHits;
+	}
+
+	public static long getPathCacheMisses()
+	{
+		return pathCacheMisses;
+	}
+
+	public static long getSplits()
+	{
+		return splits;
+	}
+
+	public static long getMerges()
+	{
+		return merges;
+	}
+}
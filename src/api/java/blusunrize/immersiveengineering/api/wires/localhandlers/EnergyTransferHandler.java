@@ -10,13 +10,15 @@ package blusunrize.immersiveengineering.api.wires.localhandlers;
 
 import blusunrize.immersiveengineering.api.Lib;
 import blusunrize.immersiveengineering.api.wires.*;
-import blusunrize.immersiveengineering.api.wires.utils.BinaryHeap;
-import blusunrize.immersiveengineering.api.wires.utils.BinaryHeap.HeapEntry;
+import blusunrize.immersiveengineering.api.wires.utils.CompactWireGraph;
+import blusunrize.immersiveengineering.api.wires.utils.CompactWireGraph.ShortestPaths;
 import com.google.common.base.Preconditions;
 import com.mojang.datafixers.util.Pair;
 import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
 import it.unimi.dsi.fastutil.objects.Object2DoubleMaps;
 import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.resources.ResourceLocation;
@@ -28,19 +30,25 @@ import net.minecraft.world.phys.Vec3;
 import javax.annotation.Nullable;
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class EnergyTransferHandler extends LocalNetworkHandler implements IWorldTickable
 {
 	public static final ResourceLocation ID = new ResourceLocation(Lib.MODID, "energy_transfer");
 
-	private final Map<ConnectionPoint, Map<ConnectionPoint, Path>> energyPaths = new HashMap<>();
+	private final Map<ConnectionPoint, ShortestPaths> energyPaths = new HashMap<>();
+	@Nullable
+	private CompactWireGraph graph;
+	private int graphVersion;
 	private Object2DoubleOpenHashMap<Connection> transferredNextTick = new Object2DoubleOpenHashMap<>();
-	private Object2DoubleMap<Connection> transferredLastTick = new Object2DoubleOpenHashMap<>();
+	private Object2DoubleOpenHashMap<Connection> transferredLastTick = new Object2DoubleOpenHashMap<>();
 	private final Map<ConnectionPoint, EnergyConnector> sources = new HashMap<>();
 	private final Map<ConnectionPoint, EnergyConnector> sinks = new HashMap<>();
-	private final List<SinkPathsFromSource> transferPaths = new ArrayList<>();
-	private boolean sourceSinkMapInitialized = true;
+	// null if it needs to be recompiled
+	@Nullable
+	private TransferPlan transferPlan;
+	private boolean sourceSinkMapInitialized = false;
+	private int dijkstraRuns = 0;
 
 	public EnergyTransferHandler(LocalWireNetwork net, GlobalWireNetwork global)
 	{
@@ -50,46 +58,96 @@ public class EnergyTransferHandler extends LocalNetworkHandler implements IWorld
 	@Override
 	public LocalNetworkHandler merge(LocalNetworkHandler other)
 	{
-		reset();
+		// The two nets are disjoint until the connection joining them is added, so all cached paths are still
+		// shortest paths. The new connection will invalidate the ones it shortens.
+		if(other instanceof EnergyTransferHandler otherEnergy)
+			energyPaths.putAll(otherEnergy.energyPaths);
+		graph = null;
+		transferredNextTick.clear();
+		transferredLastTick.clear();
+		resetSourcesAndSinks();
 		return this;
 	}
 
 	@Override
 	public void onConnectorLoaded(ConnectionPoint p, IImmersiveConnectable iic)
 	{
-		reset();//TODO slightly more intelligent behavior
+		// Loading only replaces the proxy by the real connector, the graph itself stays the same
+		updateSourceSinkStatus(p, iic);
+		transferPlan = null;
 	}
 
 	@Override
 	public void onConnectorUnloaded(BlockPos p, IImmersiveConnectable iic)
 	{
-		reset();//TODO slightly more intelligent behavior
+		for(ConnectionPoint cp : iic.getConnectionPoints())
+			updateSourceSinkStatus(cp, null);
+		transferPlan = null;
 	}
 
 	@Override
 	public void onConnectorRemoved(BlockPos p, IImmersiveConnectable iic)
 	{
-		reset();
+		for(ConnectionPoint cp : iic.getConnectionPoints())
+		{
+			updateSourceSinkStatus(cp, null);
+			energyPaths.remove(cp);
+		}
+		// Any path through the removed connector also ends at one of its connection points
+		invalidatePathsIf(paths -> {
+			for(ConnectionPoint end : iic.getConnectionPoints())
+				if(paths.isReached(end))
+					return true;
+			return false;
+		});
+		transferredNextTick.keySet().removeIf(c -> c.getEndA().position().equals(p)||c.getEndB().position().equals(p));
+		transferredLastTick.keySet().removeIf(c -> c.getEndA().position().equals(p)||c.getEndB().position().equals(p));
 	}
 
 	@Override
 	public void onConnectionAdded(Connection c)
 	{
-		reset();
+		// New connection points are added to the net without notifying handlers, so check both ends here
+		updateSourceSinkStatus(c.getEndA(), localNet.getConnector(c.getEndA()));
+		updateSourceSinkStatus(c.getEndB(), localNet.getConnector(c.getEndB()));
+		final double loss = getBasicLoss(c);
+		invalidatePathsIf(paths -> {
+			double toA = paths.getDistance(c.getEndA());
+			double toB = paths.getDistance(c.getEndB());
+			return isShortenedBy(toA, loss, toB)||isShortenedBy(toB, loss, toA);
+		});
 	}
 
 	@Override
 	public void onConnectionRemoved(Connection c)
 	{
-		reset();
+		// A connection is part of the shortest path tree iff it is the last connection on some path
+		invalidatePathsIf(paths -> paths.usesConnection(c));
+		transferredNextTick.removeDouble(c);
+		transferredLastTick.removeDouble(c);
+	}
+
+	@Override
+	public void onConnectionsRemoved(Collection<Connection> removed)
+	{
+		Set<Connection> removedSet = new HashSet<>(removed);
+		invalidatePathsIf(paths -> paths.usesAnyConnection(removedSet));
+		for(Connection c : removed)
+		{
+			transferredNextTick.removeDouble(c);
+			transferredLastTick.removeDouble(c);
+		}
 	}
 
 	@Override
 	public void update(Level w)
 	{
 		transferPower();
+		// Swap the maps rather than allocating a new one every tick
+		Object2DoubleOpenHashMap<Connection> oldLastTick = transferredLastTick;
 		transferredLastTick = transferredNextTick;
-		transferredNextTick = new Object2DoubleOpenHashMap<>();
+		transferredNextTick = oldLastTick;
+		transferredNextTick.clear();
 		burnOverloaded(w);
 	}
 
@@ -110,43 +168,125 @@ public class EnergyTransferHandler extends LocalNetworkHandler implements IWorld
 		return Object2DoubleMaps.unmodifiable(transferredLastTick);
 	}
 
-	private void reset()
+	private void resetSourcesAndSinks()
 	{
-		energyPaths.clear();
-		transferredNextTick.clear();
-		transferredLastTick.clear();
 		sinks.clear();
 		sources.clear();
-		transferPaths.clear();
+		transferPlan = null;
 		sourceSinkMapInitialized = false;
 	}
 
+	private void updateSourceSinkStatus(ConnectionPoint cp, @Nullable IImmersiveConnectable iic)
+	{
+		if(!sourceSinkMapInitialized)
+			// Will be computed from scratch on the next access anyway
+			return;
+		boolean changed;
+		if(iic instanceof EnergyConnector energyIIC&&localNet.getConnectionPoints().contains(cp))
+		{
+			changed = updateEntry(sinks, cp, energyIIC, energyIIC.isSink(cp));
+			changed |= updateEntry(sources, cp, energyIIC, energyIIC.isSource(cp));
+		}
+		else
+			changed = sinks.remove(cp)!=null|sources.remove(cp)!=null;
+		if(changed)
+			transferPlan = null;
+	}
+
+	private static boolean updateEntry(
+			Map<ConnectionPoint, EnergyConnector> map, ConnectionPoint cp, EnergyConnector iic, boolean present
+	)
+	{
+		if(present)
+			return map.put(cp, iic)!=iic;
+		else
+			return map.remove(cp)!=null;
+	}
+
+	private void invalidatePathsIf(Predicate<ShortestPaths> shouldInvalidate)
+	{
+		if(energyPaths.values().removeIf(shouldInvalidate))
+			transferPlan = null;
+	}
+
+	private static boolean isShortenedBy(double toStart, double connLoss, double toEnd)
+	{
+		// Paths with loss >= 1 are never expanded, unreached points have infinite loss
+		return toStart < 1&&toStart+connLoss < toEnd;
+	}
+
 	public Map<ConnectionPoint, EnergyConnector> getSources()
 	{
 		updateSourcesAndSinks();
 		return sources;
 	}
 
+	/**
+	 * @return the number of single-source shortest path computations this handler has run so far. Mostly useful to
+	 * check that topology changes only cause the affected paths to be recomputed.
+	 */
+	public int getDijkstraRuns()
+	{
+		return dijkstraRuns;
+	}
+
 	/**
 	 * @return shortest (w.r.t. base loss) path from source to sink. null if there is no path with base loss <1
 	 */
 	@Nullable
 	public Path getPath(ConnectionPoint source, ConnectionPoint sink)
 	{
-		return getPathsFromSource(source).get(sink);
+		ShortestPaths paths = getShortestPaths(source);
+		Connection[] conns = paths.getConnectionsTo(sink);
+		if(conns==null)
+			return null;
+		return new Path(conns, source, sink, paths.getDistance(sink), conns.length > 0&&sinks.containsKey(sink));
 	}
 
+	/**
+	 * @return the shortest paths to all points reachable from the given source. Prefer
+	 * {@link EnergyTransferHandler#getPath} if only a few paths are needed, since this has to construct all of them.
+	 */
 	public Map<ConnectionPoint, Path> getPathsFromSource(ConnectionPoint source)
 	{
-		Map<ConnectionPoint, Path> mutableResult = energyPaths.get(source);
-		if(mutableResult==null)
+		ShortestPaths paths = getShortestPaths(source);
+		CompactWireGraph pathGraph = paths.getGraph();
+		Map<ConnectionPoint, Path> result = new HashMap<>();
+		for(int id : paths.getReachedPoints())
 		{
-			mutableResult = new HashMap<>();
-			Map<ConnectionPoint, Path> finalMutableResult = mutableResult;
-			runDijkstraWithSource(source, p -> finalMutableResult.put(p.end, p));
-			energyPaths.put(source, mutableResult);
+			ConnectionPoint end = pathGraph.getPoint(id);
+			result.put(end, getPath(source, end));
 		}
-		return Collections.unmodifiableMap(mutableResult);
+		return Collections.unmodifiableMap(result);
+	}
+
+	private ShortestPaths getShortestPaths(ConnectionPoint source)
+	{
+		ShortestPaths result = energyPaths.get(source);
+		// Client networks also find paths, but only the server is profiled
+		final boolean profiling = globalNet!=null&&!globalNet.isClientSide();
+		if(profiling)
+			WireNetworkProfiler.countPathCacheAccess(result!=null);
+		if(result==null)
+		{
+			++dijkstraRuns;
+			if(profiling)
+				WireNetworkProfiler.countDijkstraRun();
+			//Loss of 1 means no energy will be transferred, so the paths are irrelevant
+			result = getGraph().shortestPathsFrom(source, 1);
+			energyPaths.put(source, result);
+		}
+		return result;
+	}
+
+	private CompactWireGraph getGraph()
+	{
+		if(graph==null||graphVersion!=localNet.getVersion())
+		{
+			graph = new CompactWireGraph(localNet, EnergyTransferHandler::getBasicLoss);
+			graphVersion = localNet.getVersion();
+		}
+		return graph;
 	}
 
 	private void updateSourcesAndSinks()
@@ -154,6 +294,7 @@ public class EnergyTransferHandler extends LocalNetworkHandler implements IWorld
 		if(sourceSinkMapInitialized)
 			return;
 		sourceSinkMapInitialized = true;
+		transferPlan = null;
 		for(ConnectionPoint cp : localNet.getConnectionPoints())
 		{
 			IImmersiveConnectable iic = localNet.getConnector(cp);
@@ -165,116 +306,38 @@ public class EnergyTransferHandler extends LocalNetworkHandler implements IWorld
 					sources.put(cp, energyIIC);
 			}
 		}
-		for(Entry<ConnectionPoint, EnergyConnector> source : sources.entrySet())
-		{
-			Map<ConnectionPoint, Path> paths = getPathsFromSource(source.getKey());
-			List<SinkPath> sinkPaths = new ArrayList<>();
-			for(Entry<ConnectionPoint, EnergyConnector> sink : sinks.entrySet())
-			{
-				Path pathTo = paths.get(sink.getKey());
-				if(pathTo!=null)
-					sinkPaths.add(new SinkPath(sink.getKey(), sink.getValue(), pathTo));
-			}
-			transferPaths.add(new SinkPathsFromSource(source.getKey(), source.getValue(), sinkPaths));
-		}
 	}
 
-	private void runDijkstraWithSource(ConnectionPoint source, Consumer<Path> output)
+	private TransferPlan getTransferPlan()
 	{
-		Map<ConnectionPoint, Path> shortestKnown = new HashMap<>();
-		BinaryHeap<ConnectionPoint> heap = new BinaryHeap<>(
-				Comparator.comparingDouble(end -> shortestKnown.get(end).loss));
-		Map<ConnectionPoint, HeapEntry<ConnectionPoint>> entryMap = new HashMap<>();
-		shortestKnown.put(source, new Path(source));
-		entryMap.put(source, heap.insert(source));
-		while(!heap.empty())
+		updateSourcesAndSinks();
+		if(transferPlan==null)
 		{
-			ConnectionPoint endPoint = heap.extractMin();
-			entryMap.remove(endPoint);
-			Path shortest = shortestKnown.get(endPoint);
-			output.accept(shortest);
-			//Loss of 1 means no energy will be transferred, so the paths are irrelevant
-			if(shortest.loss >= 1)
-				break;
-			for(Connection next : localNet.getConnections(endPoint))
+			// Only sources whose paths were invalidated will actually run Dijkstra here
+			List<SinkPathsFromSource> transferPaths = new ArrayList<>(sources.size());
+			for(Entry<ConnectionPoint, EnergyConnector> source : sources.entrySet())
 			{
-				Path alternative = shortest.append(next, sinks.containsKey(next.getOtherEnd(shortest.end)));
-				if(!shortestKnown.containsKey(alternative.end))
+				List<SinkPath> sinkPaths = new ArrayList<>();
+				for(Entry<ConnectionPoint, EnergyConnector> sink : sinks.entrySet())
 				{
-					shortestKnown.put(alternative.end, alternative);
-					entryMap.put(alternative.end, heap.insert(alternative.end));
-				}
-				else
-				{
-					Path oldPath = shortestKnown.get(alternative.end);
-					if(alternative.loss < oldPath.loss)
-					{
-						shortestKnown.put(alternative.end, alternative);
-						heap.decreaseKey(entryMap.get(alternative.end));
-					}
+					// Only build paths that are actually used for transfer
+					Path pathTo = getPath(source.getKey(), sink.getKey());
+					if(pathTo!=null)
+						sinkPaths.add(new SinkPath(sink.getValue(), pathTo));
 				}
+				transferPaths.add(new SinkPathsFromSource(source.getKey(), source.getValue(), sinkPaths));
 			}
+			transferPlan = new TransferPlan(transferPaths, localNet);
 		}
+		return transferPlan;
 	}
 
 	private void transferPower()
 	{
-		updateSourcesAndSinks();
-		for(SinkPathsFromSource sourceData : transferPaths)
-		{
-			ConnectionPoint sourceCp = sourceData.sourceCP();
-			EnergyConnector source = sourceData.sourceConnector();
-			int available = source.getAvailableEnergy();
-			if(available <= 0)
-				continue;
-			double maxSum = 0;
-			record OutputData(double amount, Path path, EnergyConnector output)
-			{
-			}
-			List<OutputData> maxOut = new ArrayList<>(sourceData.paths().size());
-			for(SinkPath sinkEntry : sourceData.paths())
-			{
-				EnergyConnector sink = sinkEntry.sinkConnector();
-				int requested = sink.getRequestedEnergy();
-				if(requested <= 0)
-					continue;
-				double requiredAtSource = Math.min(requested/(1-sinkEntry.pathTo().loss), available);
-				maxOut.add(new OutputData(requiredAtSource, sinkEntry.pathTo(), sink));
-				maxSum += requiredAtSource;
-			}
-			if(maxSum==0)
-				continue;
-			double allowedFactor = Math.min(1, available/maxSum);
-			for(OutputData entry : maxOut)
-			{
-				Path path = entry.path();
-				double atSource = allowedFactor*entry.amount();
-				double availableFactor = 1;
-				ConnectionPoint currentPoint = sourceCp;
-				for(Connection c : path.conns)
-				{
-					currentPoint = c.getOtherEnd(currentPoint);
-					//TODO use Blu's loss formula
-					availableFactor -= getBasicLoss(c);
-					double availableAtPoint = atSource*availableFactor;
-					transferredNextTick.addTo(c, availableAtPoint);
-					if(!currentPoint.equals(path.end))
-					{
-						IImmersiveConnectable iic = localNet.getConnector(currentPoint);
-						if(iic instanceof EnergyConnector)
-							((EnergyConnector)iic).onEnergyPassedThrough(availableAtPoint);
-					}
-				}
-				entry.output.insertEnergy(ceilIfClose(atSource*availableFactor));
-			}
-			if(allowedFactor < 1)
-				source.extractEnergy(available);
-			else
-				source.extractEnergy(Mth.ceil(maxSum));
-		}
+		getTransferPlan().transferPower(transferredNextTick);
 	}
 
-	private int ceilIfClose(double in)
+	private static int ceilIfClose(double in)
 	{
 		return (int)(in+0.01);
 	}
@@ -294,7 +357,7 @@ public class EnergyTransferHandler extends LocalNetworkHandler implements IWorld
 			((IEnergyWire)c.getFirst().type).burn(c.getFirst(), c.getSecond(), globalNet, world);
 	}
 
-	private static double getBasicLoss(Connection c)
+	public static double getBasicLoss(Connection c)
 	{
 		if(c.isInternal())
 			return 0;
@@ -304,6 +367,151 @@ public class EnergyTransferHandler extends LocalNetworkHandler implements IWorld
 			return Double.POSITIVE_INFINITY;
 	}
 
+	/**
+	 * All paths used for transferring power, compiled into flat arrays. Between topology changes only the requested
+	 * and available amounts of energy change, so the per-tick transfer does not need to allocate or hash anything
+	 * except for the final update of the transfer map.
+	 */
+	private static class TransferPlan
+	{
+		// The paths starting at source i are sourcePathStart[i]...sourcePathStart[i+1]-1
+		private final EnergyConnector[] sources;
+		private final int[] sourcePathStart;
+		// The hops of path i are pathHopStart[i]...pathHopStart[i+1]-1
+		private final EnergyConnector[] pathSinks;
+		private final double[] pathLoss;
+		private final double[] pathEndFactor;
+		private final int[] pathHopStart;
+		// Fraction of the energy at the source that is still left after the hop, the connection used for the hop and
+		// the connector passed through after it (null if it is not an energy connector or the end of the path)
+		private final double[] hopFactor;
+		private final int[] hopConnection;
+		private final EnergyConnector[] hopPassedThrough;
+		private final Connection[] connections;
+		// Scratch space for the transfer calculations
+		private final double[] transferredByConnection;
+		private final int[] requestedByPath;
+		private final double[] amountAtSourceByPath;
+
+		private TransferPlan(List<SinkPathsFromSource> transferPaths, LocalWireNetwork net)
+		{
+			int numPaths = 0;
+			int numHops = 0;
+			for(SinkPathsFromSource source : transferPaths)
+			{
+				numPaths += source.paths().size();
+				for(SinkPath path : source.paths())
+					numHops += path.pathTo().conns.length;
+			}
+			sources = new EnergyConnector[transferPaths.size()];
+			sourcePathStart = new int[sources.length+1];
+			pathSinks = new EnergyConnector[numPaths];
+			pathLoss = new double[numPaths];
+			pathEndFactor = new double[numPaths];
+			pathHopStart = new int[numPaths+1];
+			hopFactor = new double[numHops];
+			hopConnection = new int[numHops];
+			hopPassedThrough = new EnergyConnector[numHops];
+			requestedByPath = new int[numPaths];
+			amountAtSourceByPath = new double[numPaths];
+			Object2IntMap<Connection> connectionIds = new Object2IntOpenHashMap<>();
+			connectionIds.defaultReturnValue(-1);
+			List<Connection> connectionList = new ArrayList<>();
+			int path = 0;
+			int hop = 0;
+			for(int source = 0; source < sources.length; ++source)
+			{
+				SinkPathsFromSource sourceData = transferPaths.get(source);
+				sources[source] = sourceData.sourceConnector();
+				sourcePathStart[source] = path;
+				for(SinkPath sinkPath : sourceData.paths())
+				{
+					Path pathTo = sinkPath.pathTo();
+					pathSinks[path] = sinkPath.sinkConnector();
+					pathLoss[path] = pathTo.loss;
+					pathHopStart[path] = hop;
+					double availableFactor = 1;
+					ConnectionPoint currentPoint = sourceData.sourceCP();
+					for(Connection c : pathTo.conns)
+					{
+						currentPoint = c.getOtherEnd(currentPoint);
+						//TODO use Blu's loss formula
+						availableFactor -= getBasicLoss(c);
+						hopFactor[hop] = availableFactor;
+						int connectionId = connectionIds.getInt(c);
+						if(connectionId < 0)
+						{
+							connectionId = connectionList.size();
+							connectionIds.put(c, connectionId);
+							connectionList.add(c);
+						}
+						hopConnection[hop] = connectionId;
+						if(!currentPoint.equals(pathTo.end)&&net.getConnector(currentPoint) instanceof EnergyConnector passed)
+							hopPassedThrough[hop] = passed;
+						++hop;
+					}
+					pathEndFactor[path] = availableFactor;
+					++path;
+				}
+			}
+			sourcePathStart[sources.length] = path;
+			pathHopStart[numPaths] = hop;
+			connections = connectionList.toArray(new Connection[0]);
+			transferredByConnection = new double[connections.length];
+		}
+
+		private void transferPower(Object2DoubleOpenHashMap<Connection> transferred)
+		{
+			for(int source = 0; source < sources.length; ++source)
+			{
+				final EnergyConnector sourceConnector = sources[source];
+				final int available = sourceConnector.getAvailableEnergy();
+				if(available <= 0)
+					continue;
+				final int firstPath = sourcePathStart[source];
+				final int endPath = sourcePathStart[source+1];
+				double maxSum = 0;
+				for(int path = firstPath; path < endPath; ++path)
+				{
+					final int requested = pathSinks[path].getRequestedEnergy();
+					requestedByPath[path] = requested;
+					if(requested <= 0)
+						continue;
+					final double requiredAtSource = Math.min(requested/(1-pathLoss[path]), available);
+					amountAtSourceByPath[path] = requiredAtSource;
+					maxSum += requiredAtSource;
+				}
+				if(maxSum==0)
+					continue;
+				final double allowedFactor = Math.min(1, available/maxSum);
+				for(int path = firstPath; path < endPath; ++path)
+				{
+					if(requestedByPath[path] <= 0)
+						continue;
+					final double atSource = allowedFactor*amountAtSourceByPath[path];
+					for(int hop = pathHopStart[path]; hop < pathHopStart[path+1]; ++hop)
+					{
+						final double availableAtPoint = atSource*hopFactor[hop];
+						transferredByConnection[hopConnection[hop]] += availableAtPoint;
+						if(hopPassedThrough[hop]!=null)
+							hopPassedThrough[hop].onEnergyPassedThrough(availableAtPoint);
+					}
+					pathSinks[path].insertEnergy(ceilIfClose(atSource*pathEndFactor[path]));
+				}
+				if(allowedFactor < 1)
+					sourceConnector.extractEnergy(available);
+				else
+					sourceConnector.extractEnergy(Mth.ceil(maxSum));
+			}
+			for(int i = 0; i < connections.length; ++i)
+				if(transferredByConnection[i]!=0)
+				{
+					transferred.addTo(connections[i], transferredByConnection[i]);
+					transferredByConnection[i] = 0;
+				}
+		}
+	}
+
 	public static class Path
 	{
 		public final Connection[] conns;
@@ -312,7 +520,12 @@ public class EnergyTransferHandler extends LocalNetworkHandler implements IWorld
 		public final double loss;
 		public final boolean isPathToSink;
 
-		private Path(Connection[] conns, ConnectionPoint start, ConnectionPoint end, double loss, boolean isPathToSink)
+		public Path(ConnectionPoint point)
+		{
+			this(new Connection[0], point, point, 0, false);
+		}
+
+		public Path(Connection[] conns, ConnectionPoint start, ConnectionPoint end, double loss, boolean isPathToSink)
 		{
 			this.conns = conns;
 			this.start = start;
@@ -321,11 +534,6 @@ public class EnergyTransferHandler extends LocalNetworkHandler implements IWorld
 			this.isPathToSink = isPathToSink;
 		}
 
-		public Path(ConnectionPoint point)
-		{
-			this(new Connection[0], point, point, 0, false);
-		}
-
 		@Override
 		public boolean equals(Object o)
 		{
@@ -410,7 +618,7 @@ public class EnergyTransferHandler extends LocalNetworkHandler implements IWorld
 		}
 	}
 
-	private record SinkPath(ConnectionPoint sinkCP, EnergyConnector sinkConnector, Path pathTo)
+	private record SinkPath(EnergyConnector sinkConnector, Path pathTo)
 	{
 	}
 
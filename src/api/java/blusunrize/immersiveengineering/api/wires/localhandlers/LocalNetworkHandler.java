@@ -12,6 +12,7 @@ import blusunrize.immersiveengineering.api.wires.*;
 import net.minecraft.core.BlockPos;
 import net.minecraft.resources.ResourceLocation;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -61,4 +62,14 @@ public abstract class LocalNetworkHandler
 	public abstract void onConnectionAdded(Connection c);
 
 	public abstract void onConnectionRemoved(Connection c);
+
+	/**
+	 * Called when several connections are removed at once. Override if this can be handled more efficiently than by
+	 * processing each connection on its own.
+	 */
+	public void onConnectionsRemoved(Collection<Connection> removed)
+	{
+		for(Connection c : removed)
+			onConnectionRemoved(c);
+	}
 }
@@ -30,7 +30,6 @@ import net.minecraft.world.phys.Vec3;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.BiFunction;
 
@@ -96,15 +95,12 @@ public class WireDamageHandler extends LocalNetworkHandler implements ICollision
 	private List<SourceData> getAvailableEnergy(EnergyTransferHandler energyHandler, ConnectionPoint target)
 	{
 		List<SourceData> ret = new ArrayList<>();
-		Map<ConnectionPoint, Path> paths = null;
 		for(Entry<ConnectionPoint, EnergyConnector> c : energyHandler.getSources().entrySet())
 		{
 			final int energy = c.getValue().getAvailableEnergy();
 			if(energy <= 0)
 				continue;
-			if(paths==null)
-				paths = energyHandler.getPathsFromSource(target);
-			final Path path = paths.get(c.getKey());
+			final Path path = energyHandler.getPath(target, c.getKey());
 			if(path!=null)
 				ret.add(new SourceData(energy, path, c.getValue()));
 		}
@@ -0,0 +1,260 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2021
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.wires.utils;
+
+import blusunrize.immersiveengineering.api.wires.Connection;
+import blusunrize.immersiveengineering.api.wires.ConnectionPoint;
+import blusunrize.immersiveengineering.api.wires.LocalWireNetwork;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable snapshot of the graph structure of a {@link LocalWireNetwork}. Connection points are numbered 0...size-1,
+ * and the (directed) edges leaving each point are stored in compressed sparse row format, along with their
+ * precomputed weights.
+ */
+public class CompactWireGraph
+{
+	private final Object2IntMap<ConnectionPoint> ids;
+	private final ConnectionPoint[] points;
+	// Edges leaving point i are edgeStart[i]...edgeStart[i+1]-1
+	private final int[] edgeStart;
+	private final int[] edgeTarget;
+	private final double[] edgeWeight;
+	private final Connection[] edgeConnection;
+
+	public CompactWireGraph(LocalWireNetwork net, ToDoubleFunction<Connection> weight)
+	{
+		Collection<ConnectionPoint> allPoints = net.getConnectionPoints();
+		this.points = allPoints.toArray(new ConnectionPoint[0]);
+		this.ids = new Object2IntOpenHashMap<>(points.length);
+		this.ids.defaultReturnValue(-1);
+		for(int i = 0; i < points.length; ++i)
+			ids.put(points[i], i);
+		this.edgeStart = new int[points.length+1];
+		int numEdges = 0;
+		for(int i = 0; i < points.length; ++i)
+		{
+			edgeStart[i] = numEdges;
+			numEdges += net.getConnections(points[i]).size();
+		}
+		edgeStart[points.length] = numEdges;
+		this.edgeTarget = new int[numEdges];
+		this.edgeWeight = new double[numEdges];
+		this.edgeConnection = new Connection[numEdges];
+		int edge = 0;
+		for(ConnectionPoint point : points)
+			for(Connection c : net.getConnections(point))
+			{
+				edgeTarget[edge] = ids.getInt(c.getOtherEnd(point));
+				edgeWeight[edge] = weight.applyAsDouble(c);
+				edgeConnection[edge] = c;
+				++edge;
+			}
+	}
+
+	public int size()
+	{
+		return points.length;
+	}
+
+	/**
+	 * @return the ID of the given point, or -1 if it is not part of this graph
+	 */
+	public int getId(ConnectionPoint point)
+	{
+		return ids.getInt(point);
+	}
+
+	public ConnectionPoint getPoint(int id)
+	{
+		return points[id];
+	}
+
+	public Connection getConnection(int edge)
+	{
+		return edgeConnection[edge];
+	}
+
+	/**
+	 * Runs Dijkstra from the given source. Points are only expanded if their distance is less than maxDistance, the
+	 * first point at or above that distance is still included in the result.
+	 */
+	public ShortestPaths shortestPathsFrom(ConnectionPoint source, double maxDistance)
+	{
+		final int n = points.length;
+		final double[] distance = new double[n];
+		final int[] predecessor = new int[n];
+		final int[] predecessorEdge = new int[n];
+		final int[] settledOrder = new int[n];
+		int numSettled = 0;
+		Arrays.fill(distance, Double.POSITIVE_INFINITY);
+		Arrays.fill(predecessorEdge, -1);
+		final int sourceId = getId(source);
+		if(sourceId >= 0)
+		{
+			final boolean[] settled = new boolean[n];
+			final IndexedDoubleHeap heap = new IndexedDoubleHeap(n);
+			heap.insert(sourceId, 0);
+			while(!heap.isEmpty())
+			{
+				final double currentDistance = heap.peekMinKey();
+				final int current = heap.extractMin();
+				settled[current] = true;
+				distance[current] = currentDistance;
+				settledOrder[numSettled++] = current;
+				if(currentDistance >= maxDistance)
+					break;
+				for(int edge = edgeStart[current]; edge < edgeStart[current+1]; ++edge)
+				{
+					final int target = edgeTarget[edge];
+					if(settled[target])
+						continue;
+					final double alternative = currentDistance+edgeWeight[edge];
+					if(!heap.contains(target))
+					{
+						heap.insert(target, alternative);
+						predecessor[target] = current;
+						predecessorEdge[target] = edge;
+					}
+					else if(alternative < heap.getKey(target))
+					{
+						heap.decreaseKey(target, alternative);
+						predecessor[target] = current;
+						predecessorEdge[target] = edge;
+					}
+				}
+			}
+			// Points that were still in the heap are not part of the result
+			for(int i = 0; i < n; ++i)
+				if(!settled[i])
+					predecessorEdge[i] = -1;
+		}
+		return new ShortestPaths(
+				this, sourceId, distance, predecessor, predecessorEdge, Arrays.copyOf(settledOrder, numSettled)
+		);
+	}
+
+	/**
+	 * Shortest path tree from a single source, as computed by {@link CompactWireGraph#shortestPathsFrom}
+	 */
+	public static class ShortestPaths
+	{
+		private final CompactWireGraph graph;
+		private final int source;
+		private final double[] distance;
+		private final int[] predecessor;
+		private final int[] predecessorEdge;
+		private final int[] settledOrder;
+
+		private ShortestPaths(
+				CompactWireGraph graph, int source, double[] distance,
+				int[] predecessor, int[] predecessorEdge, int[] settledOrder
+		)
+		{
+			this.graph = graph;
+			this.source = source;
+			this.distance = distance;
+			this.predecessor = predecessor;
+			this.predecessorEdge = predecessorEdge;
+			this.settledOrder = settledOrder;
+		}
+
+		public CompactWireGraph getGraph()
+		{
+			return graph;
+		}
+
+		public boolean isReached(ConnectionPoint point)
+		{
+			final int id = graph.getId(point);
+			return id >= 0&&distance[id]!=Double.POSITIVE_INFINITY;
+		}
+
+		/**
+		 * @return the length of the shortest path to the given point, or infinity if it was not reached
+		 */
+		public double getDistance(ConnectionPoint point)
+		{
+			final int id = graph.getId(point);
+			return id >= 0?distance[id]: Double.POSITIVE_INFINITY;
+		}
+
+		/**
+		 * @return the points reached by the search, in order of increasing distance
+		 */
+		public int[] getReachedPoints()
+		{
+			return settledOrder;
+		}
+
+		public double getDistance(int id)
+		{
+			return distance[id];
+		}
+
+		/**
+		 * @return the connections on the shortest path to the given point, in order starting at the source. null
+		 * if the point was not reached.
+		 */
+		@Nullable
+		public Connection[] getConnectionsTo(ConnectionPoint point)
+		{
+			final int id = graph.getId(point);
+			if(id < 0||distance[id]==Double.POSITIVE_INFINITY)
+				return null;
+			int length = 0;
+			for(int current = id; current!=source; current = predecessor[current])
+				++length;
+			Connection[] result = new Connection[length];
+			int current = id;
+			for(int i = length-1; i >= 0; --i)
+			{
+				result[i] = graph.getConnection(predecessorEdge[current]);
+				current = predecessor[current];
+			}
+			return result;
+		}
+
+		/**
+		 * @return true if the connection is the last connection on the shortest path to some point, i.e. if it is
+		 * part of the shortest path tree
+		 */
+		public boolean usesConnection(Connection c)
+		{
+			for(int id : settledOrder)
+			{
+				final int edge = predecessorEdge[id];
+				if(edge >= 0&&graph.getConnection(edge).equals(c))
+					return true;
+			}
+			return false;
+		}
+
+		/**
+		 * @return true if any of the given connections is part of the shortest path tree
+		 */
+		public boolean usesAnyConnection(Set<Connection> conns)
+		{
+			for(int id : settledOrder)
+			{
+				final int edge = predecessorEdge[id];
+				if(edge >= 0&&conns.contains(graph.getConnection(edge)))
+					return true;
+			}
+			return false;
+		}
+	}
+}
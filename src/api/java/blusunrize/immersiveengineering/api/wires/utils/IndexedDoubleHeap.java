@@ -0,0 +1,127 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2021
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.wires.utils;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over the integers 0...capacity-1 with primitive double keys. Unlike {@link BinaryHeap} this does not
+ * allocate anything after construction, which makes it suitable for Dijkstra on large graphs.
+ */
+public class IndexedDoubleHeap
+{
+	private final int[] heap;
+	// Position of each element in heap, or -1 if it is not in the heap
+	private final int[] positions;
+	private final double[] keys;
+	private int size = 0;
+
+	public IndexedDoubleHeap(int capacity)
+	{
+		this.heap = new int[capacity];
+		this.positions = new int[capacity];
+		this.keys = new double[capacity];
+		Arrays.fill(positions, -1);
+	}
+
+	public boolean contains(int element)
+	{
+		return positions[element] >= 0;
+	}
+
+	public boolean isEmpty()
+	{
+		return size==0;
+	}
+
+	public double getKey(int element)
+	{
+		return keys[element];
+	}
+
+	public void insert(int element, double key)
+	{
+		Preconditions.checkArgument(!contains(element), "%s is already in the heap", element);
+		keys[element] = key;
+		heap[size] = element;
+		positions[element] = size;
+		++size;
+		siftUp(size-1);
+	}
+
+	public void decreaseKey(int element, double newKey)
+	{
+		Preconditions.checkArgument(contains(element), "%s is not in the heap", element);
+		Preconditions.checkArgument(newKey <= keys[element]);
+		keys[element] = newKey;
+		siftUp(positions[element]);
+	}
+
+	public double peekMinKey()
+	{
+		return keys[heap[0]];
+	}
+
+	public int extractMin()
+	{
+		final int min = heap[0];
+		--size;
+		if(size > 0)
+		{
+			move(heap[size], 0);
+			siftDown(0);
+		}
+		positions[min] = -1;
+		return min;
+	}
+
+	private void siftUp(int index)
+	{
+		final int element = heap[index];
+		final double key = keys[element];
+		while(index > 0)
+		{
+			final int parentIndex = (index-1)/2;
+			final int parent = heap[parentIndex];
+			if(keys[parent] <= key)
+				break;
+			move(parent, index);
+			index = parentIndex;
+		}
+		move(element, index);
+	}
+
+	private void siftDown(int index)
+	{
+		final int element = heap[index];
+		final double key = keys[element];
+		while(true)
+		{
+			int childIndex = 2*index+1;
+			if(childIndex >= size)
+				break;
+			if(childIndex+1 < size&&keys[heap[childIndex+1]] < keys[heap[childIndex]])
+				++childIndex;
+			final int child = heap[childIndex];
+			if(keys[child] >= key)
+				break;
+			move(child, index);
+			index = childIndex;
+		}
+		move(element, index);
+	}
+
+	private void move(int element, int index)
+	{
+		heap[index] = element;
+		positions[element] = index;
+	}
+}
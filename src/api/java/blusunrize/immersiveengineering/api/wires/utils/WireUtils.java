@@ -8,10 +8,13 @@
 
 package blusunrize.immersiveengineering.api.wires.utils;
 
-import blusunrize.immersiveengineering.api.utils.Raytracer;
+import blusunrize.immersiveengineering.api.utils.VoxelTraversal;
 import blusunrize.immersiveengineering.api.wires.*;
+import blusunrize.immersiveengineering.api.wires.Connection.CatenaryData;
 import blusunrize.immersiveengineering.api.wires.WireCollisionData.CollisionInfo;
+import it.unimi.dsi.fastutil.doubles.DoubleIterator;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.BlockPos.MutableBlockPos;
 import net.minecraft.core.SectionPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.DoubleTag;
@@ -35,9 +38,13 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class WireUtils
 {
+	private static final double BLOCK_DIAGONAL = Math.sqrt(3);
+	private static final double GRAZE_EPSILON = 1e-5;
+
 	public static Connection getConnectionMovedThrough(Level world, LivingEntity e)
 	{
 		Vec3 start = e.getEyePosition(0);
@@ -51,8 +58,14 @@ public class WireUtils
 		WireCollisionData collisionData = global.getCollisionData();
 		AtomicReference<Connection> ret = new AtomicReference<>();
 		MutableDouble minDistSq = new MutableDouble(Double.POSITIVE_INFINITY);
-		Raytracer.rayTrace(start, end, world, (pos) ->
+		final double length = start.distanceTo(end);
+		VoxelTraversal.forEachBlock(start, end, (pos, tEnter, tExit) ->
 		{
+			// All points in this and any later block are at least this far from the start, since every point in a
+			// block is within sqrt(3) of the point where the ray enters it
+			double lowerBound = tEnter*length-BLOCK_DIAGONAL;
+			if(lowerBound > 0&&lowerBound*lowerBound > minDistSq.doubleValue())
+				return false;
 			Collection<CollisionInfo> infoAtPos = collisionData.getCollisionInfo(pos);
 			for(CollisionInfo wireInfo : infoAtPos)
 			{
@@ -72,6 +85,7 @@ public class WireUtils
 					}
 				}
 			}
+			return true;
 		});
 		return ret.get();
 	}
@@ -80,7 +94,12 @@ public class WireUtils
 	{
 		VoxelShape shape = state.getCollisionShape(worldIn, pos);
 		shape = Shapes.joinUnoptimized(shape, Shapes.block(), BooleanOp.AND);
-		for(AABB aabb : shape.toAabbs())
+		return intersectsAny(shape.toAabbs(), a, b);
+	}
+
+	static boolean intersectsAny(Iterable<AABB> boxes, Vec3 a, Vec3 b)
+	{
+		for(AABB aabb : boxes)
 		{
 			aabb = aabb.inflate(1e-5);
 			if(aabb.contains(a)||aabb.contains(b)||aabb.clip(a, b).isPresent())
@@ -92,18 +111,89 @@ public class WireUtils
 	public static Set<BlockPos> findObstructingBlocks(Level world, Connection conn, Set<BlockPos> ignore)
 	{
 		Set<BlockPos> obstructions = new HashSet<>();
-		WireUtils.raytraceAlongCatenary(conn, (p) -> {
-			if(!ignore.contains(p.block()))
-			{
-				BlockState state = world.getBlockState(p.block());
-				if(WireUtils.preventsConnection(world, p.block(), state, p.entersAt(), p.leavesAt()))
-					obstructions.add(p.block());
-			}
-		}, (p) -> {
+		forEachObstruction(world, conn, ignore, pos -> {
+			obstructions.add(pos.immutable());
+			return true;
 		});
 		return obstructions;
 	}
 
+	/**
+	 * Equivalent to checking whether {@link #findObstructingBlocks} returns a non-empty set, but stops at the first
+	 * obstruction
+	 */
+	public static boolean isObstructed(Level world, Connection conn, Set<BlockPos> ignore)
+	{
+		return !forEachObstruction(world, conn, ignore, pos -> false);
+	}
+
+	/**
+	 * Checks the blocks along the straight pieces of the catenary between the points where it crosses block
+	 * boundaries. Like the segment search of {@link CatenaryTracer}, every block touching the ends of a piece is checked
+	 * against the whole piece. Blocks the piece only grazes along an edge or corner are not.
+	 *
+	 * @param out called for each obstructing block with a reused position, returns false to stop the trace
+	 * @return false if the trace was stopped by out
+	 */
+	private static boolean forEachObstruction(
+			Level world, Connection conn, Set<BlockPos> ignore, Predicate<MutableBlockPos> out
+	)
+	{
+		return forEachObstruction(
+				conn, ignore, (pos, a, b) -> preventsConnection(world, pos, world.getBlockState(pos), a, b), out
+		);
+	}
+
+	static boolean forEachObstruction(
+			Connection conn, Set<BlockPos> ignore, ObstructionCheck check, Predicate<MutableBlockPos> out
+	)
+	{
+		final BlockPos offset = conn.getEndA().position();
+		CatenaryData catenary = conn.getCatenaryData();
+		CatenaryTracer ct = new CatenaryTracer(catenary, offset);
+		ct.calculateIntegerIntersections();
+		DoubleIterator it = ct.integerIntersections.iterator();
+		Vec3 lastRelative = catenary.getPoint(it.nextDouble());
+		Set<BlockPos> candidates = new HashSet<>();
+		MutableBlockPos mutable = new MutableBlockPos();
+		while(it.hasNext())
+		{
+			final Vec3 nextRelative = catenary.getPoint(it.nextDouble());
+			final Vec3 start = lastRelative.add(offset.getX(), offset.getY(), offset.getZ());
+			final Vec3 end = nextRelative.add(offset.getX(), offset.getY(), offset.getZ());
+			candidates.clear();
+			ct.forEachCloseCoordinate(lastRelative, GRAZE_EPSILON, pos -> candidates.add(pos.offset(offset)));
+			ct.forEachCloseCoordinate(nextRelative, GRAZE_EPSILON, pos -> candidates.add(pos.offset(offset)));
+			final double length = start.distanceTo(end);
+			VoxelTraversal.forEachBlock(start, end, (pos, tEnter, tExit) -> {
+				// Skip zero-length visits where the piece passes exactly through an edge or corner
+				if((tExit-tEnter)*length >= GRAZE_EPSILON)
+					candidates.add(pos.immutable());
+				return true;
+			});
+			for(BlockPos pos : candidates)
+			{
+				if(ignore.contains(pos))
+					continue;
+				Vec3 blockStart = start.subtract(pos.getX(), pos.getY(), pos.getZ());
+				Vec3 blockEnd = end.subtract(pos.getX(), pos.getY(), pos.getZ());
+				if(check.preventsConnection(pos, blockStart, blockEnd)&&!out.test(mutable.set(pos)))
+					return false;
+			}
+			lastRelative = nextRelative;
+		}
+		return true;
+	}
+
+	interface ObstructionCheck
+	{
+		/**
+		 * @param a the start of the wire piece, relative to pos
+		 * @param b the end of the wire piece, relative to pos
+		 */
+		boolean preventsConnection(BlockPos pos, Vec3 a, Vec3 b);
+	}
+
 	public static WireType getWireTypeFromNBT(CompoundTag tag, String key)
 	{
 		return WireType.getValue(tag.getString(key));
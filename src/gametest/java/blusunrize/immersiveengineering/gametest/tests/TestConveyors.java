@@ -0,0 +1,234 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.gametest.tests;
+
+import blusunrize.immersiveengineering.api.Lib;
+import blusunrize.immersiveengineering.api.tool.conveyor.ConveyorHandler;
+import blusunrize.immersiveengineering.common.blocks.metal.ConveyorBeltBlockEntity;
+import blusunrize.immersiveengineering.common.blocks.metal.ConveyorBlock;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.BasicConveyor;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.ConveyorBase;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.DropConveyor;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.SplitConveyor;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.VirtualConveyorItems.VirtualItem;
+import blusunrize.immersiveengineering.common.config.IEServerConfig;
+import blusunrize.immersiveengineering.common.util.IELogger;
+import blusunrize.immersiveengineering.gametest.GameTestUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.AfterBatch;
+import net.minecraft.gametest.framework.BeforeBatch;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.items.CapabilityItemHandler;
+
+import java.util.Arrays;
+import java.util.List;
+
+@GameTestHolder(Lib.MODID)
+public class TestConveyors
+{
+	// 22x3x11 blocks of air
+	private static final String EMPTY = "empty";
+	private static final int ROWS = 10;
+	private static final int ROW_LENGTH = 20;
+	private static final BlockPos FIRST_BELT = new BlockPos(1, 1, 0);
+	private static final BlockPos CHEST = new BlockPos(0, 1, ROWS-1);
+	// Enough for the first items to reach the end of the line, so every belt is busy while the tick times are recorded
+	private static final int MEASURE_AT = 2400;
+	// Tests in this batch run with virtual transport enabled
+	private static final String VIRTUAL_BATCH = "virtual_conveyors";
+	private static boolean virtualTransportBefore;
+
+	/**
+	 * Runs a line of 200 basic conveyors with as many items as it can take and logs the average tick time of the
+	 * server for the last 100 ticks, which can be compared between builds. Only checks that the items arrive at the end.
+	 */
+	@GameTest(template = EMPTY, timeoutTicks = MEASURE_AT+1)
+	public static void fullyLoadedLine(GameTestHelper helper)
+	{
+		buildLine(helper);
+		helper.onEachTick(() -> helper.getBlockEntity(FIRST_BELT)
+				.getCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY)
+				.ifPresent(handler -> handler.insertItem(0, new ItemStack(Items.COBBLESTONE), false))
+		);
+		helper.runAtTickTime(MEASURE_AT, () -> {
+			GameTestUtils.assertContainerContainsSome(CHEST, Items.COBBLESTONE, helper);
+			double averageTickNanos = Arrays.stream(helper.getLevel().getServer().tickTimes).average().orElse(0);
+			IELogger.info("Average tick time with "+ROWS*ROW_LENGTH+" loaded conveyors: "+averageTickNanos/1e6+" ms");
+			helper.succeed();
+		});
+	}
+
+	@BeforeBatch(batch = VIRTUAL_BATCH)
+	public static void enableVirtualTransport(ServerLevel level)
+	{
+		virtualTransportBefore = IEServerConfig.MACHINES.conveyor_virtualTransport.get();
+		IEServerConfig.MACHINES.conveyor_virtualTransport.set(true);
+	}
+
+	// Runs once all tests of the batch are done, whether they passed, failed or timed out
+	@AfterBatch(batch = VIRTUAL_BATCH)
+	public static void restoreVirtualTransport(ServerLevel level)
+	{
+		IEServerConfig.MACHINES.conveyor_virtualTransport.set(virtualTransportBefore);
+	}
+
+	/**
+	 * Checks the life of items on conveyors using virtual transport: an item entity is absorbed by the first belt,
+	 * passed on as data and inserted into the chest at the end. An item released from a belt becomes an entity and is
+	 * not absorbed again.
+	 */
+	@GameTest(template = EMPTY, batch = VIRTUAL_BATCH, timeoutTicks = 200)
+	public static void virtualTransport(GameTestHelper helper)
+	{
+		BlockState belt = ConveyorHandler.getBlock(BasicConveyor.TYPE).defaultBlockState()
+				.setValue(ConveyorBlock.FACING, Direction.EAST);
+		BlockPos[] belts = new BlockPos[3];
+		for(int i = 0; i < belts.length; ++i)
+		{
+			belts[i] = FIRST_BELT.east(i);
+			helper.setBlock(belts[i].below(), Blocks.SMOOTH_STONE);
+			helper.setBlock(belts[i], belt);
+		}
+		BlockPos chest = FIRST_BELT.east(belts.length);
+		helper.setBlock(chest, Blocks.CHEST);
+		helper.spawnItem(Items.COBBLESTONE, FIRST_BELT.getX()+.25f, FIRST_BELT.getY()+.2f, FIRST_BELT.getZ()+.5f);
+		helper.startSequence()
+				.thenWaitUntil(() -> {
+					helper.assertTrue(!getVirtualItems(helper, belts[0]).isEmpty(), "Item was not absorbed");
+					helper.assertItemEntityNotPresent(Items.COBBLESTONE, FIRST_BELT, 2);
+				})
+				.thenWaitUntil(() -> helper.assertTrue(
+						!getVirtualItems(helper, belts[1]).isEmpty(), "Item was not passed to the next belt"
+				))
+				.thenWaitUntil(() -> GameTestUtils.assertContainerContainsSome(chest, Items.COBBLESTONE, helper))
+				.thenExecute(() -> {
+					for(BlockPos pos : belts)
+						helper.assertTrue(getVirtualItems(helper, pos).isEmpty(), "Item is still on a belt");
+					helper.assertItemEntityNotPresent(Items.COBBLESTONE, belts[1], 3);
+					ConveyorBase middle = getConveyor(helper, belts[1]);
+					helper.assertTrue(middle.insertVirtual(new ItemStack(Items.IRON_INGOT), false), "Could not insert");
+					middle.releaseVirtualItems();
+					helper.assertTrue(middle.getVirtualItems().isEmpty(), "Item was not released");
+					helper.assertItemEntityPresent(Items.IRON_INGOT, belts[1], 1);
+				})
+				.thenExecuteAfter(5, () -> {
+					for(BlockPos pos : belts)
+						helper.assertTrue(getVirtualItems(helper, pos).isEmpty(), "Released item was absorbed again");
+				})
+				.thenWaitUntil(() -> GameTestUtils.assertContainerContainsSome(chest, Items.IRON_INGOT, helper))
+				.thenSucceed();
+	}
+
+	/**
+	 * Two drop conveyors above each other and a chest below them, with virtual transport. Items inserted into the upper
+	 * conveyor and items dropped onto the lower one start at the centre of the belt, where they have to be dropped.
+	 */
+	@GameTest(template = EMPTY, batch = VIRTUAL_BATCH, timeoutTicks = 200)
+	public static void virtualDropChain(GameTestHelper helper)
+	{
+		BlockState dropper = ConveyorHandler.getBlock(DropConveyor.TYPE).defaultBlockState()
+				.setValue(ConveyorBlock.FACING, Direction.EAST);
+		BlockPos chest = new BlockPos(1, 0, 1);
+		BlockPos lower = chest.above();
+		BlockPos upper = lower.above();
+		helper.setBlock(chest, Blocks.CHEST);
+		helper.setBlock(lower, dropper);
+		helper.setBlock(upper, dropper);
+		helper.startSequence()
+				.thenExecute(() -> {
+					ConveyorBase upperConveyor = getConveyor(helper, upper);
+					helper.assertTrue(upperConveyor.insertVirtual(new ItemStack(Items.COBBLESTONE), false), "Could not insert");
+				})
+				.thenWaitUntil(() -> GameTestUtils.assertContainerContainsSome(chest, Items.COBBLESTONE, helper))
+				.thenExecute(() -> {
+					helper.assertTrue(getVirtualItems(helper, upper).isEmpty(), "Item is still on the upper conveyor");
+					helper.assertTrue(getVirtualItems(helper, lower).isEmpty(), "Item is still on the lower conveyor");
+					helper.assertItemEntityNotPresent(Items.COBBLESTONE, lower, 3);
+				})
+				.thenSucceed();
+	}
+
+	/**
+	 * A splitting conveyor with virtual transport and a chest on either side, which should each get one of two items
+	 */
+	@GameTest(template = EMPTY, batch = VIRTUAL_BATCH, timeoutTicks = 200)
+	public static void virtualSplit(GameTestHelper helper)
+	{
+		BlockPos splitter = new BlockPos(1, 1, 1);
+		helper.setBlock(splitter.below(), Blocks.SMOOTH_STONE);
+		helper.setBlock(splitter, ConveyorHandler.getBlock(SplitConveyor.TYPE).defaultBlockState()
+				.setValue(ConveyorBlock.FACING, Direction.EAST));
+		BlockPos leftChest = splitter.north();
+		BlockPos rightChest = splitter.south();
+		helper.setBlock(leftChest, Blocks.CHEST);
+		helper.setBlock(rightChest, Blocks.CHEST);
+		helper.startSequence()
+				.thenExecute(() -> helper.assertTrue(
+						getConveyor(helper, splitter).insertVirtual(new ItemStack(Items.COBBLESTONE), false),
+						"Could not insert"
+				))
+				// Wait for the first item to make space at the centre
+				.thenExecuteAfter(5, () -> helper.assertTrue(
+						getConveyor(helper, splitter).insertVirtual(new ItemStack(Items.COBBLESTONE), false),
+						"Could not insert"
+				))
+				.thenWaitUntil(() -> {
+					GameTestUtils.assertContainerContainsSome(leftChest, Items.COBBLESTONE, helper);
+					GameTestUtils.assertContainerContainsSome(rightChest, Items.COBBLESTONE, helper);
+				})
+				.thenExecute(() -> {
+					helper.assertTrue(getVirtualItems(helper, splitter).isEmpty(), "Item is still on the conveyor");
+					helper.assertItemEntityNotPresent(Items.COBBLESTONE, splitter, 3);
+				})
+				.thenSucceed();
+	}
+
+	private static ConveyorBase getConveyor(GameTestHelper helper, BlockPos pos)
+	{
+		ConveyorBeltBlockEntity<?> belt = (ConveyorBeltBlockEntity<?>)helper.getBlockEntity(pos);
+		return (ConveyorBase)belt.getConveyorInstance();
+	}
+
+	private static List<VirtualItem> getVirtualItems(GameTestHelper helper, BlockPos pos)
+	{
+		return getConveyor(helper, pos).getVirtualItems().getItems();
+	}
+
+	/**
+	 * Lays out the belts in rows going back and forth, ending at a chest
+	 */
+	private static void buildLine(GameTestHelper helper)
+	{
+		BlockState belt = ConveyorHandler.getBlock(BasicConveyor.TYPE).defaultBlockState();
+		for(int row = 0; row < ROWS; ++row)
+		{
+			boolean east = row%2==0;
+			for(int i = 0; i < ROW_LENGTH; ++i)
+			{
+				BlockPos pos = new BlockPos(east?FIRST_BELT.getX()+i: FIRST_BELT.getX()+ROW_LENGTH-1-i, 1, row);
+				Direction facing;
+				if(i < ROW_LENGTH-1||row==ROWS-1)
+					facing = east?Direction.EAST: Direction.WEST;
+				else
+					facing = Direction.SOUTH;
+				helper.setBlock(pos.below(), Blocks.SMOOTH_STONE);
+				helper.setBlock(pos, belt.setValue(ConveyorBlock.FACING, facing));
+			}
+		}
+		helper.setBlock(CHEST, Blocks.CHEST);
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.gametest.tests;
+
+import blusunrize.immersiveengineering.api.Lib;
+import blusunrize.immersiveengineering.common.util.IELogger;
+import blusunrize.immersiveengineering.common.util.SectionEntityCache;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.decoration.ArmorStand;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import net.minecraftforge.gametest.GameTestHolder;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+@GameTestHolder(Lib.MODID)
+public class TestSectionEntityCache
+{
+	// 22x3x11 blocks of air
+	private static final String EMPTY = "empty";
+	private static final int ENTITIES = 60;
+	private static final int MEASURED_TICKS = 200;
+	// The range of a turret
+	private static final double RANGE = 8;
+
+	/**
+	 * Compares the cache against a direct query for a single block entity per tick, i.e. with a cold cache in every
+	 * query. Checks that both return the same entities and logs the average time of each, which can be compared
+	 * between builds.
+	 */
+	@GameTest(template = EMPTY, timeoutTicks = MEASURED_TICKS+2)
+	public static void singleQueryPerTick(GameTestHelper helper)
+	{
+		Random random = new Random(0);
+		for(int i = 0; i < ENTITIES; ++i)
+		{
+			ArmorStand stand = helper.spawn(EntityType.ARMOR_STAND, random.nextInt(22)+.5f, 1, random.nextInt(11)+.5f);
+			stand.setNoGravity(true);
+		}
+		BlockPos center = helper.absolutePos(new BlockPos(11, 1, 5));
+		AABB box = new AABB(center).inflate(RANGE, 1, RANGE);
+		Level level = helper.getLevel();
+		long[] times = new long[2];
+		int[] tick = {0};
+		helper.onEachTick(() -> {
+			if(tick[0] >= MEASURED_TICKS)
+				return;
+			// Alternate the order so neither query consistently runs with warmer CPU caches
+			boolean cachedFirst = tick[0]%2==0;
+			List<LivingEntity> first = timeQuery(level, box, cachedFirst, times);
+			List<LivingEntity> second = timeQuery(level, box, !cachedFirst, times);
+			if(!new HashSet<>(first).equals(new HashSet<>(second)))
+				helper.fail("Cached query returned "+(cachedFirst?first: second)+", direct query "+(cachedFirst?second: first));
+			++tick[0];
+		});
+		helper.runAtTickTime(MEASURED_TICKS+1, () -> {
+			IELogger.info("Average entity query time for one block entity per tick: direct "+times[0]/MEASURED_TICKS
+					+" ns, cached "+times[1]/MEASURED_TICKS+" ns");
+			helper.succeed();
+		});
+	}
+
+	private static List<LivingEntity> timeQuery(Level level, AABB box, boolean cached, long[] times)
+	{
+		long start = System.nanoTime();
+		List<LivingEntity> result = cached?
+				SectionEntityCache.getEntitiesOfClass(level, LivingEntity.class, box):
+				level.getEntitiesOfClass(LivingEntity.class, box);
+		times[cached?1: 0] += System.nanoTime()-start;
+		return result;
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.client.render.tile;
+
+import blusunrize.immersiveengineering.client.ClientUtils;
+import blusunrize.immersiveengineering.common.blocks.metal.ConveyorBeltBlockEntity;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.ConveyorBase;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.VirtualConveyorItems;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.VirtualConveyorItems.VirtualItem;
+import com.mojang.blaze3d.vertex.PoseStack;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.block.model.ItemTransforms.TransformType;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.List;
+
+/**
+ * Renders the items on conveyors using virtual transport, which are not item entities
+ */
+public class VirtualConveyorItemRenderer extends IEBlockEntityRenderer<ConveyorBeltBlockEntity<?>>
+{
+	@Override
+	public void render(ConveyorBeltBlockEntity<?> te, float partialTicks, PoseStack matrixStack, MultiBufferSource bufferIn, int combinedLightIn, int combinedOverlayIn)
+	{
+		if(!(te.getConveyorInstance() instanceof ConveyorBase conveyor))
+			return;
+		VirtualConveyorItems virtualItems = conveyor.getVirtualItems();
+		if(virtualItems.isEmpty())
+			return;
+		List<VirtualItem> items = virtualItems.getItems();
+		float[] progress = virtualItems.getPredictedProgress(te.getLevelNonnull().getGameTime()+partialTicks);
+		BlockPos pos = te.getBlockPos();
+		for(int i = 0; i < items.size(); ++i)
+		{
+			VirtualItem item = items.get(i);
+			Vec3 itemPos = conveyor.getVirtualItemPosition(progress[i], item.getExit());
+			matrixStack.pushPose();
+			matrixStack.translate(itemPos.x-pos.getX(), itemPos.y-pos.getY()+.125, itemPos.z-pos.getZ());
+			rotateForFacingNoCentering(matrixStack, conveyor.getFacing());
+			ClientUtils.mc().getItemRenderer().renderStatic(
+					item.getStack(), TransformType.GROUND, combinedLightIn, combinedOverlayIn, matrixStack, bufferIn, i
+			);
+			matrixStack.popPose();
+		}
+	}
+}
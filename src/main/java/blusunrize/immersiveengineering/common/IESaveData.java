@@ -11,6 +11,8 @@ package blusunrize.immersiveengineering.common;
 import blusunrize.immersiveengineering.api.excavator.ExcavatorHandler;
 import blusunrize.immersiveengineering.api.excavator.MineralVein;
 import blusunrize.immersiveengineering.api.shader.ShaderRegistry;
+import blusunrize.immersiveengineering.common.world.IEWorldGen;
+import blusunrize.immersiveengineering.common.world.RetrogenQueue;
 import net.minecraft.core.Registry;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
@@ -22,6 +24,7 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.level.saveddata.SavedData;
 
 import javax.annotation.Nonnull;
+import java.util.Map.Entry;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -72,6 +75,19 @@ public class IESaveData extends SavedData
 					ShaderRegistry.receivedShaders.put(player, new ResourceLocation(s));
 			}
 		}
+
+		ListTag retrogenList = nbt.getList("retrogenChunks", Tag.TAG_COMPOUND);
+		synchronized(IEWorldGen.retrogenChunks)
+		{
+			for(int i = 0; i < retrogenList.size(); i++)
+			{
+				CompoundTag dimTag = retrogenList.getCompound(i);
+				ResourceLocation rl = new ResourceLocation(dimTag.getString("dimension"));
+				ResourceKey<Level> dimensionType = ResourceKey.create(Registry.DIMENSION_REGISTRY, rl);
+				IEWorldGen.retrogenChunks.computeIfAbsent(dimensionType, d -> new RetrogenQueue())
+						.load(dimTag.getLongArray("chunks"));
+			}
+		}
 	}
 
 	@Nonnull
@@ -109,6 +125,20 @@ public class IESaveData extends SavedData
 		}
 		nbt.put("receivedShaderList", receivedShaderList);
 
+		ListTag retrogenList = new ListTag();
+		synchronized(IEWorldGen.retrogenChunks)
+		{
+			for(Entry<ResourceKey<Level>, RetrogenQueue> entry : IEWorldGen.retrogenChunks.entrySet())
+				if(entry.getValue().size() > 0)
+				{
+					CompoundTag dimTag = new CompoundTag();
+					dimTag.putString("dimension", entry.getKey().location().toString());
+					dimTag.putLongArray("chunks", entry.getValue().save());
+					retrogenList.add(dimTag);
+				}
+		}
+		nbt.put("retrogenChunks", retrogenList);
+
 		return nbt;
 	}
 
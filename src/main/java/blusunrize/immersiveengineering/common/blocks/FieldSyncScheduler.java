@@ -0,0 +1,57 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.blocks;
+
+import blusunrize.immersiveengineering.api.Lib;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent.Phase;
+import net.minecraftforge.event.TickEvent.WorldTickEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber.Bus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the block entities whose synced fields may have changed during a tick and sends the changes at the end of
+ * the tick, so each block entity sends at most one field sync packet per tick no matter how often it is marked.
+ */
+@EventBusSubscriber(modid = Lib.MODID, bus = Bus.FORGE)
+public class FieldSyncScheduler
+{
+	private static final Map<Level, Set<IEBaseBlockEntity>> PENDING = new HashMap<>();
+
+	static void schedule(IEBaseBlockEntity blockEntity)
+	{
+		PENDING.computeIfAbsent(blockEntity.getLevelNonnull(), $ -> new ReferenceLinkedOpenHashSet<>()).add(blockEntity);
+	}
+
+	@SubscribeEvent
+	public static void onWorldTick(WorldTickEvent ev)
+	{
+		if(ev.phase!=Phase.END||ev.world.isClientSide)
+			return;
+		Set<IEBaseBlockEntity> pending = PENDING.remove(ev.world);
+		if(pending!=null)
+			for(IEBaseBlockEntity blockEntity : pending)
+				if(!blockEntity.isRemoved())
+					blockEntity.sendFieldUpdates();
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnload(WorldEvent.Unload ev)
+	{
+		if(ev.getWorld() instanceof Level level)
+			PENDING.remove(level);
+	}
+}
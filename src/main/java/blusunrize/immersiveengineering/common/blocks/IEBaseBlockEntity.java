@@ -8,6 +8,7 @@
 
 package blusunrize.immersiveengineering.common.blocks;
 
+import blusunrize.immersiveengineering.ImmersiveEngineering;
 import blusunrize.immersiveengineering.api.energy.WrappingEnergyStorage;
 import blusunrize.immersiveengineering.api.utils.DirectionUtils;
 import blusunrize.immersiveengineering.api.utils.SafeChunkUtils;
@@ -15,8 +16,12 @@ import blusunrize.immersiveengineering.common.blocks.IEBlockInterfaces.Blockstat
 import blusunrize.immersiveengineering.common.blocks.IEBlockInterfaces.IGeneralMultiblock;
 import blusunrize.immersiveengineering.common.blocks.IEBlockInterfaces.IRedstoneOutput;
 import blusunrize.immersiveengineering.common.fluids.ArrayFluidHandler;
+import blusunrize.immersiveengineering.common.gui.sync.GenericContainerData;
+import blusunrize.immersiveengineering.common.gui.sync.GenericDataSerializers.DataPair;
+import blusunrize.immersiveengineering.common.network.MessageBlockEntityFieldSync;
 import blusunrize.immersiveengineering.common.util.ResettableCapability;
 import com.google.common.base.Preconditions;
+import com.mojang.datafixers.util.Pair;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
@@ -34,6 +39,7 @@ import net.minecraft.world.ticks.ScheduledTick;
 import net.minecraftforge.energy.IEnergyStorage;
 import net.minecraftforge.fluids.IFluidTank;
 import net.minecraftforge.fluids.capability.IFluidHandler;
+import net.minecraftforge.network.PacketDistributor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -53,6 +59,7 @@ public abstract class IEBaseBlockEntity extends BlockEntity implements Blockstat
 	private BlockState overrideBlockState = null;
 
 	private final EnumMap<Direction, Integer> redstoneBySide = new EnumMap<>(Direction.class);
+	private final List<GenericContainerData<?>> syncedFields = new ArrayList<>();
 
 	public IEBaseBlockEntity(BlockEntityType<?> type, BlockPos pos, BlockState state)
 	{
@@ -108,6 +115,42 @@ public abstract class IEBaseBlockEntity extends BlockEntity implements Blockstat
 		return nbt;
 	}
 
+	/**
+	 * Registers a field to be kept in sync with the client by {@link #markFieldsForSync}. Fields are identified by the
+	 * order they are added in, so this must be called in the same order on both sides, usually in the constructor.
+	 * Synced fields should still be included in the description NBT, since that is what new watchers receive.
+	 */
+	protected final void addSyncedField(GenericContainerData<?> field)
+	{
+		syncedFields.add(field);
+	}
+
+	/**
+	 * Sends the synced fields that changed to all watching players at the end of the tick. Much cheaper than
+	 * {@link #markContainingBlockForUpdate} for state that changes often, since neither the full description NBT nor a
+	 * block update is sent.
+	 */
+	public final void markFieldsForSync()
+	{
+		if(level!=null&&!level.isClientSide&&!syncedFields.isEmpty())
+			FieldSyncScheduler.schedule(this);
+	}
+
+	void sendFieldUpdates()
+	{
+		List<Pair<Integer, DataPair<?>>> toSync = GenericContainerData.collectUpdates(syncedFields);
+		if(!toSync.isEmpty())
+			ImmersiveEngineering.packetHandler.send(
+					PacketDistributor.TRACKING_CHUNK.with(() -> getLevelNonnull().getChunkAt(worldPosition)),
+					new MessageBlockEntityFieldSync(worldPosition, toSync)
+			);
+	}
+
+	public void receiveFieldSync(List<Pair<Integer, DataPair<?>>> synced)
+	{
+		GenericContainerData.processSyncs(syncedFields, synced);
+	}
+
 	public void receiveMessageFromClient(CompoundTag message)
 	{
 	}
@@ -179,11 +222,17 @@ public abstract class IEBaseBlockEntity extends BlockEntity implements Blockstat
 
 	private ResettableCapability<IFluidHandler> registerFluidHandler(IFluidTank[] tanks, boolean allowDrain, boolean allowFill)
 	{
-		return registerCapability(new ArrayFluidHandler(
-				// TODO the global forced update is a hack and should be replaced by updates on the machines that render
-				//  the fluid in world and screen sync for those that do not
-				tanks, allowDrain, allowFill, () -> markContainingBlockForUpdate(null)
-		));
+		return registerCapability(new ArrayFluidHandler(tanks, allowDrain, allowFill, this::onFluidHandlerTransfer));
+	}
+
+	/**
+	 * Called after fluid was transferred through one of the handlers created by the registerFluid* methods
+	 */
+	protected void onFluidHandlerTransfer()
+	{
+		// TODO the global forced update is a hack and should be replaced by synced fields on the machines that render
+		//  the fluid in world and screen sync for those that do not
+		markContainingBlockForUpdate(null);
 	}
 
 	protected final ResettableCapability<IFluidHandler> registerFluidHandler(IFluidTank... tanks)
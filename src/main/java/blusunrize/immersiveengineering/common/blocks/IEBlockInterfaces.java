@@ -71,6 +71,15 @@ public class IEBlockInterfaces
 	public interface ISpawnInterdiction
 	{
 		double getInterdictionRangeSquared();
+
+		/**
+		 * @return an upper bound for getInterdictionRangeSquared, used to decide which chunks the interdictor is indexed
+		 * in. Must not change while the interdictor is registered.
+		 */
+		default double getMaxInterdictionRangeSquared()
+		{
+			return 1024;
+		}
 	}
 
 	public interface IComparatorOverride
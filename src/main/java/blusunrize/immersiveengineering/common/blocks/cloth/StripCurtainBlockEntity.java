@@ -16,6 +16,7 @@ import blusunrize.immersiveengineering.common.blocks.ticking.IEServerTickableBE;
 import blusunrize.immersiveengineering.common.register.IEBlockEntities;
 import blusunrize.immersiveengineering.common.util.ChatUtils;
 import blusunrize.immersiveengineering.common.util.ItemNBTHelper;
+import blusunrize.immersiveengineering.common.util.SectionEntityCache;
 import com.google.common.collect.ImmutableList;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -64,7 +65,7 @@ public class StripCurtainBlockEntity extends IEBaseBlockEntity implements IEServ
 	{
 		if(level.getGameTime()%4==((getBlockPos().getX()^getBlockPos().getZ())&3))
 		{
-			List<Entity> entities = level.getEntitiesOfClass(Entity.class, getEntityCollectionBox());
+			List<Entity> entities = SectionEntityCache.getEntitiesOfClass(level, Entity.class, getEntityCollectionBox());
 			if(!isCeilingAttached()&&!entities.isEmpty()&&redstoneSignal==0)
 			{
 				redstoneSignal = 15;
@@ -17,8 +17,12 @@ import blusunrize.immersiveengineering.common.blocks.multiblocks.IETemplateMulti
 import blusunrize.immersiveengineering.common.blocks.multiblocks.process.MultiblockProcess;
 import blusunrize.immersiveengineering.common.blocks.multiblocks.process.MultiblockProcessInMachine;
 import blusunrize.immersiveengineering.common.blocks.multiblocks.process.MultiblockProcessInWorld;
+import blusunrize.immersiveengineering.common.config.IEServerConfig;
+import blusunrize.immersiveengineering.common.gui.sync.GenericContainerData;
+import blusunrize.immersiveengineering.common.gui.sync.GenericDataSerializers;
 import blusunrize.immersiveengineering.common.util.EnergyHelper;
 import blusunrize.immersiveengineering.common.util.MultiblockCapability;
+import blusunrize.immersiveengineering.common.util.RecipeLookupMemo;
 import blusunrize.immersiveengineering.common.util.Utils;
 import blusunrize.immersiveengineering.common.util.inventory.IIEInventory;
 import blusunrize.immersiveengineering.common.util.orientation.RelativeBlockFace;
@@ -44,10 +48,7 @@ import org.apache.commons.lang3.mutable.MutableInt;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 public abstract class PoweredMultiblockBlockEntity<T extends PoweredMultiblockBlockEntity<T, R>, R extends MultiblockRecipe>
 		extends MultiblockPartBlockEntity<T> implements IIEInventory, IProcessBE, IComparatorOverride
@@ -65,6 +66,10 @@ public abstract class PoweredMultiblockBlockEntity<T extends PoweredMultiblockBl
 		this.energyCap = MultiblockCapability.make(
 				this, be -> be.energyCap, PoweredMultiblockBlockEntity::master, registerEnergyInput(this.energyStorage)
 		);
+		addSyncedField(GenericContainerData.bool(() -> renderAsActiveClient, active -> renderAsActiveClient = active));
+		addSyncedField(new GenericContainerData<>(
+				GenericDataSerializers.INT_ARRAY, this::getSyncedProcessTicks, this::setSyncedProcessTicks
+		));
 	}
 
 	//	=================================
@@ -192,6 +197,9 @@ public abstract class PoweredMultiblockBlockEntity<T extends PoweredMultiblockBl
 	public final List<MultiblockProcess<R>> processQueue = new ArrayList<>();
 	public int tickedProcesses = 0;
 	private boolean renderAsActiveClient = false;
+	// Progress that has not been sent to the client yet, see syncProcesses
+	private boolean progressSyncPending = false;
+	private long lastProgressSync = 0;
 
 	private void syncRenderActive()
 	{
@@ -199,21 +207,58 @@ public abstract class PoweredMultiblockBlockEntity<T extends PoweredMultiblockBl
 		if(renderAsActiveClient==renderActive)
 			return;
 		renderAsActiveClient = renderActive;
-		updateMasterBlock(null, true);
+		markFieldsForSync();
+	}
+
+	/**
+	 * Process progress changes every tick while the machine is running, so it is synced separately from the process
+	 * queue. Changes to the queue itself cause a full update.
+	 */
+	private int[] getSyncedProcessTicks()
+	{
+		if(!shouldSyncProcessQueue())
+			return new int[0];
+		int[] ticks = new int[processQueue.size()];
+		for(int i = 0; i < ticks.length; ++i)
+			ticks[i] = processQueue.get(i).processTick;
+		return ticks;
+	}
+
+	private void setSyncedProcessTicks(int[] ticks)
+	{
+		// The queue is out of date and a full update is on its way
+		if(ticks.length!=processQueue.size())
+			return;
+		for(int i = 0; i < ticks.length; ++i)
+			processQueue.get(i).processTick = ticks[i];
 	}
 
 	@Override
 	public void tickServer()
 	{
+		if(!trackedForDiagnostics)
+		{
+			TICKED_MASTERS.add(this);
+			trackedForDiagnostics = true;
+		}
 		energyStorage.updateAverage();
 		syncRenderActive();
+		// Anything changing the machine during the rest of this tick wakes it up again
+		if(processQueue.isEmpty()&&canSleep())
+			sleeping = true;
 		if(isRSDisabled())
+		{
+			// Progress from before the machine was disabled may not have been sent yet
+			syncProcesses(false);
 			return;
+		}
 
 		int max = getMaxProcessPerTick();
 		int i = 0;
 		Iterator<MultiblockProcess<R>> processIterator = processQueue.iterator();
 		tickedProcesses = 0;
+		boolean needsSave = false;
+		boolean queueChanged = false;
 		while(processIterator.hasNext()&&i++ < max)
 		{
 			MultiblockProcess<R> process = processIterator.next();
@@ -221,25 +266,148 @@ public abstract class PoweredMultiblockBlockEntity<T extends PoweredMultiblockBl
 			{
 				process.doProcessTick(this);
 				tickedProcesses++;
-				updateMasterBlock(null, true);
+				needsSave = true;
+				progressSyncPending = true;
 			}
 			if(process.clearProcess)
+			{
 				processIterator.remove();
+				queueChanged = true;
+			}
 		}
+		if(needsSave||queueChanged)
+			markChunkDirty();
+		syncProcesses(queueChanged);
 		updateComparators(this, getRedstonePos(), cachedComparatorValue, getComparatorValueOnMaster());
 	}
 
+	/**
+	 * Sends the changes of the processes ticked in this tick to the client, at most once per tick. Progress is sent
+	 * through the synced fields and only after the configured minimum interval, changes to the queue cause a full
+	 * update which includes the progress.
+	 */
+	private void syncProcesses(boolean queueChanged)
+	{
+		long gameTime = getLevelNonnull().getGameTime();
+		if(queueChanged)
+		{
+			markContainingBlockForUpdate(null);
+			progressSyncPending = false;
+			lastProgressSync = gameTime;
+		}
+		else if(progressSyncPending&&gameTime-lastProgressSync >= IEServerConfig.MACHINES.multiblock_progressSyncInterval.get())
+		{
+			markFieldsForSync();
+			progressSyncPending = false;
+			lastProgressSync = gameTime;
+		}
+	}
+
 	protected boolean shouldSyncProcessQueue()
 	{
 		return true;
 	}
 
+	//	=================================
+	//		SLEEPING
+	//	=================================
+	// Masters that ticked on the server at least once, for /ie multiblocks sleeping
+	private static final Set<PoweredMultiblockBlockEntity<?, ?>> TICKED_MASTERS = Collections.newSetFromMap(new WeakHashMap<>());
+	private boolean trackedForDiagnostics = false;
+	private boolean sleeping = false;
+
+	/**
+	 * Idle machines stop ticking until they are woken up by inserted items, fluids or energy, by a change of the
+	 * inventory or by a neighbour update of any part (which includes redstone changes). Machines that do more than
+	 * work through their process queue while idle, e.g. outputting buffered items or fluids, must not sleep while they
+	 * have anything left to do.
+	 *
+	 * @return true if this machine has nothing to do while its process queue is empty
+	 */
+	protected boolean canSleep()
+	{
+		return false;
+	}
+
+	public final void wakeUp()
+	{
+		sleeping = false;
+	}
+
+	public final boolean isSleeping()
+	{
+		return sleeping;
+	}
+
+	@Override
+	public boolean canTickAny()
+	{
+		return super.canTickAny()&&!sleeping;
+	}
+
+	@Override
+	public void setChanged()
+	{
+		super.setChanged();
+		wakeUp();
+	}
+
+	@Override
+	protected void onFluidHandlerTransfer()
+	{
+		super.onFluidHandlerTransfer();
+		wakeUp();
+	}
+
+	@Override
+	protected void onNeighborBlockChange(BlockPos otherPos)
+	{
+		super.onNeighborBlockChange(otherPos);
+		T master = master();
+		if(master!=null)
+			master.wakeUp();
+	}
+
+	public record SleepCounts(int sleeping, int awake)
+	{
+		public SleepCounts add(SleepCounts other)
+		{
+			return new SleepCounts(sleeping+other.sleeping, awake+other.awake);
+		}
+	}
+
+	/**
+	 * @return the number of sleeping and awake masters of each type of machine, including all dimensions
+	 */
+	public static Map<ResourceLocation, SleepCounts> getSleepCounts()
+	{
+		Map<ResourceLocation, SleepCounts> counts = new TreeMap<>();
+		for(PoweredMultiblockBlockEntity<?, ?> master : TICKED_MASTERS)
+			if(!master.isRemoved()&&!master.isDummy())
+				counts.merge(
+						master.multiblockInstance.getUniqueName(),
+						master.sleeping?new SleepCounts(1, 0): new SleepCounts(0, 1),
+						SleepCounts::add
+				);
+		return counts;
+	}
+
 	@Nullable
 	public abstract IFluidTank[] getInternalTanks();
 
 	@Nullable
 	public abstract R findRecipeForInsertion(ItemStack inserting);
 
+	/**
+	 * @return an object describing all state of this machine (other than the inserted stack) that the result of
+	 * findRecipeForInsertion depends on. Cached results are discarded when this changes (according to equals).
+	 */
+	@Nullable
+	public Object getInsertionRecipeContext()
+	{
+		return null;
+	}
+
 	@Nullable
 	public abstract int[] getOutputSlots();
 
@@ -317,7 +485,10 @@ public abstract class PoweredMultiblockBlockEntity<T extends PoweredMultiblockBl
 				return false;
 
 			if(!simulate)
+			{
 				processQueue.add(process);
+				wakeUp();
+			}
 			markContainingBlockForUpdate(null);
 			markChunkDirty();
 			return true;
@@ -386,6 +557,7 @@ public abstract class PoweredMultiblockBlockEntity<T extends PoweredMultiblockBl
 		protected T multiblock;
 		float transformationPoint = .5f;
 		boolean doProcessStacking = false;
+		private final RecipeLookupMemo<R> recipeMemo = new RecipeLookupMemo<>();
 
 		public MultiblockInventoryHandler_DirectProcessing(T multiblock)
 		{
@@ -422,7 +594,9 @@ public abstract class PoweredMultiblockBlockEntity<T extends PoweredMultiblockBl
 		public ItemStack insertItem(int slot, @Nonnull ItemStack stack, boolean simulate)
 		{
 			stack = stack.copy();
-			R recipe = this.multiblock.findRecipeForInsertion(stack);
+			R recipe = recipeMemo.find(
+					stack, multiblock.getInsertionRecipeContext(), this.multiblock::findRecipeForInsertion
+			);
 			if(recipe==null)
 				return stack;
 			ItemStack displayStack = recipe.getDisplayStack(stack);
@@ -267,6 +267,12 @@ public class BottlingMachineBlockEntity extends PoweredMultiblockBlockEntity<Bot
 		return 2;
 	}
 
+	@Override
+	protected boolean canSleep()
+	{
+		return true;
+	}
+
 	@Override
 	public int getProcessQueueMaxLength()
 	{
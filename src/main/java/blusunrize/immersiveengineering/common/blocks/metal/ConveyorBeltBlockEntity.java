@@ -16,7 +16,10 @@ import blusunrize.immersiveengineering.api.tool.conveyor.IConveyorType;
 import blusunrize.immersiveengineering.common.blocks.IEBaseBlockEntity;
 import blusunrize.immersiveengineering.common.blocks.IEBlockInterfaces.*;
 import blusunrize.immersiveengineering.common.blocks.PlacementLimitation;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.ConveyorBase;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.VirtualConveyorItems;
 import blusunrize.immersiveengineering.common.blocks.ticking.IEServerTickableBE;
+import blusunrize.immersiveengineering.common.gui.sync.GenericContainerData;
 import blusunrize.immersiveengineering.common.register.IEBlockEntities;
 import blusunrize.immersiveengineering.common.register.IEBlocks.MetalDevices;
 import blusunrize.immersiveengineering.common.util.ResettableCapability;
@@ -72,6 +75,14 @@ public class ConveyorBeltBlockEntity<T extends IConveyorBelt> extends IEBaseBloc
 	{
 		super(Preconditions.checkNotNull(ConveyorHandler.getBEType(type), "Not BE type for "+type), pos, state);
 		conveyorBeltSubtype = ConveyorHandler.getConveyor(type, this);
+		if(conveyorBeltSubtype instanceof ConveyorBase base&&base.supportsVirtualTransport())
+		{
+			VirtualConveyorItems items = base.getVirtualItems();
+			addSyncedField(new GenericContainerData<>(
+					VirtualConveyorItems.SERIALIZER, items::getItems, items::setFromSync
+			));
+			addSyncedField(GenericContainerData.bool(items::isMoving, items::setMoving));
+		}
 	}
 
 	@Override
@@ -123,6 +134,30 @@ public class ConveyorBeltBlockEntity<T extends IConveyorBelt> extends IEBaseBloc
 		return PlacementLimitation.HORIZONTAL_QUADRANT;
 	}
 
+	@Override
+	public void onLoad()
+	{
+		super.onLoad();
+		if(level!=null&&!level.isClientSide)
+			ConveyorBase.onConveyorLoaded(level, worldPosition);
+	}
+
+	@Override
+	protected void onNeighborBlockChange(BlockPos otherPos)
+	{
+		super.onNeighborBlockChange(otherPos);
+		if(this.conveyorBeltSubtype instanceof ConveyorBase base)
+			base.onNeighbourChanged();
+	}
+
+	@Override
+	public void setRemovedIE()
+	{
+		super.setRemovedIE();
+		if(this.conveyorBeltSubtype instanceof ConveyorBase base)
+			base.releaseVirtualItems();
+	}
+
 	@Override
 	public boolean canHammerRotate(Direction side, Vec3 hit, LivingEntity entity)
 	{
@@ -261,6 +296,8 @@ public class ConveyorBeltBlockEntity<T extends IConveyorBelt> extends IEBaseBloc
 		{
 			if(conveyor.getConveyorInstance().isBlocked())
 				return stack;
+			if(conveyor.conveyorBeltSubtype instanceof ConveyorBase base&&base.usesVirtualTransport())
+				return base.insertVirtual(stack, simulate)?ItemStack.EMPTY: stack;
 			if(!simulate)
 			{
 				ItemEntity entity = new ItemEntity(conveyor.getLevelNonnull(), conveyor.getBlockPos().getX()+.5, conveyor.getBlockPos().getY()+.1875, conveyor.getBlockPos().getZ()+.5, stack.copy());
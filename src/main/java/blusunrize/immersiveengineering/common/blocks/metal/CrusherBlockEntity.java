@@ -379,6 +379,12 @@ public class CrusherBlockEntity extends PoweredMultiblockBlockEntity<CrusherBloc
 		return 1;
 	}
 
+	@Override
+	protected boolean canSleep()
+	{
+		return true;
+	}
+
 	@Override
 	public int getProcessQueueMaxLength()
 	{
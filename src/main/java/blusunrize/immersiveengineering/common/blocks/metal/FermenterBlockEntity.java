@@ -270,6 +270,13 @@ public class FermenterBlockEntity extends PoweredMultiblockBlockEntity<Fermenter
 		return 8;
 	}
 
+	@Override
+	protected boolean canSleep()
+	{
+		// Buffered outputs are pushed out in every tick
+		return tanks[0].getFluidAmount()==0&&inventory.get(8).isEmpty();
+	}
+
 	@Override
 	public int getProcessQueueMaxLength()
 	{
@@ -10,6 +10,7 @@ package blusunrize.immersiveengineering.common.blocks.metal;
 
 import blusunrize.immersiveengineering.api.IEProperties;
 import blusunrize.immersiveengineering.api.Lib;
+import blusunrize.immersiveengineering.api.utils.VoxelTraversal;
 import blusunrize.immersiveengineering.api.wires.ConnectionPoint;
 import blusunrize.immersiveengineering.api.wires.WireType;
 import blusunrize.immersiveengineering.api.wires.localhandlers.EnergyTransferHandler.EnergyConnector;
@@ -27,9 +28,14 @@ import blusunrize.immersiveengineering.common.util.Utils;
 import blusunrize.immersiveengineering.common.util.chickenbones.Matrix4;
 import blusunrize.immersiveengineering.common.util.compat.computers.generic.ComputerControlState;
 import blusunrize.immersiveengineering.common.util.compat.computers.generic.ComputerControllable;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.Direction.Axis;
+import net.minecraft.core.SectionPos;
 import net.minecraft.core.Vec3i;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.TranslatableComponent;
@@ -47,10 +53,9 @@ import net.minecraft.world.phys.shapes.VoxelShape;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 public class FloodlightBlockEntity extends ImmersiveConnectableBlockEntity implements IEServerTickableBE,
@@ -64,15 +69,22 @@ public class FloodlightBlockEntity extends ImmersiveConnectableBlockEntity imple
 	public Direction facing = Direction.NORTH;
 	public float rotY = 0;
 	public float rotX = 0;
-	public List<BlockPos> fakeLights = new ArrayList<>();
-	public List<BlockPos> lightsToBePlaced = new ArrayList<>();
-	public List<BlockPos> lightsToBeRemoved = new ArrayList<>();
+	private final LongSet fakeLights = new LongOpenHashSet();
+	private final LongSet lightsToBePlaced = new LongOpenHashSet();
+	private final LongSet lightsToBeRemoved = new LongOpenHashSet();
+	// Blocks whose changes may affect the placed lights, and the sections containing them
+	private LongSet coneBlocks = new LongOpenHashSet();
+	private LongSet coneSections = new LongOpenHashSet();
+	private boolean coneChanged = false;
 	final int timeBetweenSwitches = 20;
 	int switchCooldown = 0;
 	private boolean shouldUpdate = true;
 	public final ComputerControlState computerControl = new ComputerControlState();
 	public int turnCooldown = 0;
 
+	private static final int RANGE = 32;
+	private static final Map<RayFanKey, Vec3[]> RAY_FANS = new ConcurrentHashMap<>();
+
 	public FloodlightBlockEntity(BlockPos pos, BlockState state)
 	{
 		super(IEBlockEntities.FLOODLIGHT.get(), pos, state);
@@ -87,7 +99,6 @@ public class FloodlightBlockEntity extends ImmersiveConnectableBlockEntity imple
 		boolean enabled;
 		if(shouldUpdate)
 		{
-			lightsToBePlaced.clear();
 			updateFakeLights(true, activeBeforeTick);
 			setChanged();
 			this.markContainingBlockForUpdate(null);
@@ -112,64 +123,154 @@ public class FloodlightBlockEntity extends ImmersiveConnectableBlockEntity imple
 
 		switchCooldown--;
 		boolean activeAfterTick = getIsActive();
-		if(activeAfterTick!=activeBeforeTick||level.getGameTime()%512==((getBlockPos().getX()^getBlockPos().getZ())&511))
+		if(activeAfterTick!=activeBeforeTick)
 		{
 			this.markContainingBlockForUpdate(null);
 			updateFakeLights(true, activeAfterTick);
 			checkLight();
 		}
-		if(!activeAfterTick)
+		else if(coneChanged&&activeAfterTick)
+			updateFakeLights(true, true);
+		if((!lightsToBePlaced.isEmpty()||!lightsToBeRemoved.isEmpty())&&level.getGameTime()%8==((getBlockPos().getX()^getBlockPos().getZ())&7))
+			FloodlightConeIndex.runWithoutNotifications(this::placeAndRemoveLights);
+	}
+
+	private void placeAndRemoveLights()
+	{
+		LongIterator it = lightsToBePlaced.iterator();
+		int timeout = 0;
+		while(it.hasNext()&&timeout++ < Math.max(16, 32-lightsToBeRemoved.size()))
 		{
-			if(!lightsToBePlaced.isEmpty())
-				lightsToBePlaced.clear();
+			BlockPos cc = BlockPos.of(it.nextLong());
+			level.setBlock(cc, Misc.FAKE_LIGHT.defaultBlockState(), 2);
+			BlockEntity te = level.getBlockEntity(cc);
+			if(te instanceof FakeLightBlockEntity)
+				((FakeLightBlockEntity)te).floodlightCoords = getBlockPos();
+			fakeLights.add(cc.asLong());
+			it.remove();
 		}
-		if((!lightsToBePlaced.isEmpty()||!lightsToBeRemoved.isEmpty())&&level.getGameTime()%8==((getBlockPos().getX()^getBlockPos().getZ())&7))
+		it = lightsToBeRemoved.iterator();
+		while(it.hasNext()&&timeout++ < 32)
 		{
-			Iterator<BlockPos> it = lightsToBePlaced.iterator();
-			int timeout = 0;
-			while(it.hasNext()&&timeout++ < Math.max(16, 32-lightsToBeRemoved.size()))
-			{
-				BlockPos cc = it.next();
-				//				world.setBlockState(cc, Blocks.glass.getDefaultState(), 2);
-				level.setBlock(cc, Misc.FAKE_LIGHT.defaultBlockState(), 2);
-				BlockEntity te = level.getBlockEntity(cc);
-				if(te instanceof FakeLightBlockEntity)
-					((FakeLightBlockEntity)te).floodlightCoords = getBlockPos();
-				fakeLights.add(cc);
+			BlockPos cc = BlockPos.of(it.nextLong());
+			if(Utils.getExistingTileEntity(level, cc) instanceof FakeLightBlockEntity)
+				level.removeBlock(cc, false);
+			it.remove();
+		}
+	}
+
+	/**
+	 * Called when a block in one of the sections the light cone passes through changes
+	 */
+	void onBlockUpdateNearCone(BlockPos pos)
+	{
+		if(coneBlocks.contains(pos.asLong()))
+			coneChanged = true;
+	}
+
+	public void updateFakeLights(boolean deleteOld, boolean genNew)
+	{
+		coneChanged = false;
+		LongIterator it = this.fakeLights.iterator();
+		while(it.hasNext())
+			if(!(level.getBlockEntity(BlockPos.of(it.nextLong())) instanceof FakeLightBlockEntity))
 				it.remove();
+		LongSet newLights = new LongOpenHashSet();
+		LongSet newConeBlocks = new LongOpenHashSet();
+		if(genNew)
+		{
+			Vec3[] rays = RAY_FANS.computeIfAbsent(new RayFanKey(getFacing(), facing, rotX, rotY), RayFanKey::computeRays);
+			for(int ray = 0; ray < rays.length; ray++)
+			{
+				int offset = ray==0?0: ray < 4?3: 1;
+				placeLightAlongVector(rays[ray], offset, newLights, newConeBlocks);
 			}
-			it = lightsToBeRemoved.iterator();
-			while(it.hasNext()&&timeout++ < 32)
+		}
+		// Diff the new lights against the existing ones, reusing lights that were about to be removed
+		lightsToBePlaced.clear();
+		it = newLights.iterator();
+		while(it.hasNext())
+		{
+			long light = it.nextLong();
+			if(lightsToBeRemoved.remove(light))
+				fakeLights.add(light);
+			else if(!fakeLights.contains(light))
+				lightsToBePlaced.add(light);
+		}
+		if(deleteOld)
+		{
+			it = fakeLights.iterator();
+			while(it.hasNext())
 			{
-				BlockPos cc = it.next();
-				if(Utils.getExistingTileEntity(level, cc) instanceof FakeLightBlockEntity)
-					level.removeBlock(cc, false);
-				it.remove();
+				long light = it.nextLong();
+				if(!newLights.contains(light))
+				{
+					lightsToBeRemoved.add(light);
+					it.remove();
+				}
 			}
 		}
+		LongSet newConeSections = new LongOpenHashSet();
+		it = newConeBlocks.iterator();
+		while(it.hasNext())
+			newConeSections.add(SectionPos.blockToSection(it.nextLong()));
+		FloodlightConeIndex.setCone(this, coneSections, newConeSections);
+		coneBlocks = newConeBlocks;
+		coneSections = newConeSections;
 	}
 
-
-	public void updateFakeLights(boolean deleteOld, boolean genNew)
+	private void placeLightAlongVector(Vec3 vec, int offset, LongSet lights, LongSet cone)
 	{
-		Iterator<BlockPos> it = this.fakeLights.iterator();
-		ArrayList<BlockPos> tempRemove = new ArrayList<BlockPos>();
-		while(it.hasNext())
+		final BlockPos ownPos = getBlockPos();
+		Vec3 light = Vec3.atCenterOf(ownPos).add(0, 0.25, 0);
+		BlockPos[] hit = {null};
+		Vec3 start = vec.add(light);
+		Vec3 end = light.add(vec.x*RANGE, vec.y*RANGE, vec.z*RANGE);
+		VoxelTraversal.forEachBlock(start, end, (pos, tEnter, tExit) -> {
+			if(pos.equals(ownPos))
+				return true;
+			cone.add(pos.asLong());
+			BlockState state = level.getBlockState(pos);
+			VoxelShape shape = state.getCollisionShape(level, pos);
+			if(!shape.isEmpty()&&shape.clip(start, end, pos)!=null)
+			{
+				hit[0] = pos.immutable();
+				return false;
+			}
+			return true;
+		});
+		double maxDistance = hit[0]!=null?Vec3.atCenterOf(hit[0]).add(0, 0.25, 0).distanceToSqr(light): RANGE*RANGE;
+		for(int i = 1+offset; i <= RANGE; i++)
 		{
-			BlockPos cc = it.next();
-			BlockEntity te = level.getBlockEntity(cc);
-			if(te instanceof FakeLightBlockEntity)
+			BlockPos target = ownPos.offset(Math.round(vec.x*i), Math.round(vec.y*i), Math.round(vec.z*i));
+			double dist = (vec.x*i*vec.x*i)+(vec.y*i*vec.y*i)+(vec.z*i*vec.z*i);
+			if(dist > maxDistance)
+				break;
+			if(getLevelNonnull().isOutsideBuildHeight(worldPosition))
+				continue;
+			//&&world.getBlockLightValue(xx,yy,zz)<12 using this makes it not work in daylight .-.
+
+			if(!target.equals(ownPos))
 			{
-				if(deleteOld)
-					tempRemove.add(cc);
+				cone.add(target.asLong());
+				if(level.isEmptyBlock(target))
+				{
+					lights.add(target.asLong());
+					i += 2;
+				}
 			}
-			else
-				it.remove();
 		}
-		if(genNew)
+	}
+
+	/**
+	 * The directions of the rays traced by a floodlight only depend on its orientation, so they are computed once per
+	 * orientation rather than every time the lights are updated
+	 */
+	private record RayFanKey(Direction blockFacing, Direction facing, float rotX, float rotY)
+	{
+		private Vec3[] computeRays()
 		{
 			float angle = (float)(facing==Direction.NORTH?180: facing==Direction.EAST?90: facing==Direction.WEST?-90: 0);
-			float yRotation = rotY;
 			double angleX = Math.toRadians(rotX);
 
 			Vec3[] rays = {
@@ -178,20 +279,20 @@ public class FloodlightBlockEntity extends ImmersiveConnectableBlockEntity imple
 					/*Intermediate*/new Vec3(0, 0, 1), new Vec3(0, 0, 1), new Vec3(0, 0, 1), new Vec3(0, 0, 1),
 					/*Diagonal*/new Vec3(0, 0, 1), new Vec3(0, 0, 1), new Vec3(0, 0, 1), new Vec3(0, 0, 1)};
 			Matrix4 mat = new Matrix4();
-			if(getFacing()==Direction.DOWN)
+			if(blockFacing==Direction.DOWN)
 				mat.scale(1, -1, 1);
-			else if(getFacing()!=Direction.UP)
+			else if(blockFacing!=Direction.UP)
 			{
 				angle = facing==Direction.DOWN?180: facing==Direction.NORTH?-90: facing==Direction.SOUTH?90: angle;
-				if(getFacing().getAxis()==Axis.X)
+				if(blockFacing.getAxis()==Axis.X)
 				{
 					mat.rotate(Math.PI/2, -1, 0, 0);
-					mat.rotate(Math.PI/2, 0, 0, -getFacing().getAxisDirection().getStep());
+					mat.rotate(Math.PI/2, 0, 0, -blockFacing.getAxisDirection().getStep());
 				}
 				else
 				{
 					mat.rotate(Math.PI/2, -1, 0, 0);
-					if(getFacing()==Direction.SOUTH)//I dunno why south is giving me so much trouble, but this works, so who cares
+					if(blockFacing==Direction.SOUTH)//I dunno why south is giving me so much trouble, but this works, so who cares
 					{
 						mat.rotate(Math.PI, 0, 0, 1);
 						if(facing.getAxis()==Axis.X)
@@ -200,7 +301,7 @@ public class FloodlightBlockEntity extends ImmersiveConnectableBlockEntity imple
 				}
 			}
 
-			double angleY = Math.toRadians(angle+yRotation);
+			double angleY = Math.toRadians(angle+rotY);
 			mat.rotate(angleY, 0, 1, 0);
 			mat.rotate(-angleX, 1, 0, 0);
 			rays[0] = mat.apply(rays[0]);
@@ -231,43 +332,10 @@ public class FloodlightBlockEntity extends ImmersiveConnectableBlockEntity imple
 			rays[11] = mat.apply(rays[11]);
 			mat.rotate(Math.PI/8, 0, 1, 0);
 			rays[12] = mat.apply(rays[12]);
-			for(int ray = 0; ray < rays.length; ray++)
-			{
-				int offset = ray==0?0: ray < 4?3: 1;
-				placeLightAlongVector(rays[ray], offset, tempRemove);
-			}
-		}
-		this.lightsToBeRemoved.addAll(tempRemove);
-	}
-
-	public void placeLightAlongVector(Vec3 vec, int offset, ArrayList<BlockPos> checklist)
-	{
-		Vec3 light = Vec3.atCenterOf(getBlockPos()).add(0, 0.25, 0);
-		int range = 32;
-		HashSet<BlockPos> ignore = new HashSet<BlockPos>();
-		ignore.add(getBlockPos());
-		BlockPos hit = Utils.rayTraceForFirst(vec.add(light), light.add(vec.x*range, vec.y*range, vec.z*range), level, ignore);
-		double maxDistance = hit!=null?Vec3.atCenterOf(hit).add(0, 0.25, 0).distanceToSqr(light): range*range;
-		for(int i = 1+offset; i <= range; i++)
-		{
-			BlockPos target = getBlockPos().offset(Math.round(vec.x*i), Math.round(vec.y*i), Math.round(vec.z*i));
-			double dist = (vec.x*i*vec.x*i)+(vec.y*i*vec.y*i)+(vec.z*i*vec.z*i);
-			if(dist > maxDistance)
-				break;
-			if(getLevelNonnull().isOutsideBuildHeight(worldPosition))
-				continue;
-			//&&world.getBlockLightValue(xx,yy,zz)<12 using this makes it not work in daylight .-.
-
-			if(!target.equals(getBlockPos())&&level.isEmptyBlock(target))
-			{
-				if(!checklist.remove(target))
-					lightsToBePlaced.add(target);
-				i += 2;
-			}
+			return rays;
 		}
 	}
 
-
 	@Override
 	public double getInterdictionRangeSquared()
 	{
@@ -278,6 +346,7 @@ public class FloodlightBlockEntity extends ImmersiveConnectableBlockEntity imple
 	public void setRemovedIE()
 	{
 		SpawnInterdictionHandler.removeFromInterdictionTiles(this);
+		removeCone();
 		super.setRemovedIE();
 	}
 
@@ -285,9 +354,20 @@ public class FloodlightBlockEntity extends ImmersiveConnectableBlockEntity imple
 	public void onChunkUnloaded()
 	{
 		SpawnInterdictionHandler.removeFromInterdictionTiles(this);
+		removeCone();
 		super.onChunkUnloaded();
 	}
 
+	private void removeCone()
+	{
+		if(level!=null&&!level.isClientSide&&!coneSections.isEmpty())
+		{
+			FloodlightConeIndex.setCone(this, coneSections, LongSets.EMPTY_SET);
+			coneSections = new LongOpenHashSet();
+			coneBlocks = new LongOpenHashSet();
+		}
+	}
+
 	@Override
 	public void onLoad()
 	{
@@ -309,7 +389,7 @@ public class FloodlightBlockEntity extends ImmersiveConnectableBlockEntity imple
 		for(int i = 0; i < lightAmount; i++)
 		{
 			int[] icc = nbt.getIntArray("fakeLight_"+i);
-			fakeLights.add(new BlockPos(icc[0], icc[1], icc[2]));
+			fakeLights.add(BlockPos.asLong(icc[0], icc[1], icc[2]));
 		}
 		if(level!=null&&level.isClientSide)
 			this.markContainingBlockForUpdate(null);
@@ -334,12 +414,18 @@ public class FloodlightBlockEntity extends ImmersiveConnectableBlockEntity imple
 		nbt.putInt("facing", facing.ordinal());
 		nbt.putFloat("rotY", rotY);
 		nbt.putFloat("rotX", rotX);
-		nbt.putInt("lightAmount", fakeLights.size());
-		for(int i = 0; i < fakeLights.size(); i++)
+		// Lights that are still waiting to be removed are saved as well, so they are removed after reloading
+		int i = 0;
+		for(LongSet lights : List.of(fakeLights, lightsToBeRemoved))
 		{
-			BlockPos cc = fakeLights.get(i);
-			nbt.putIntArray("fakeLight_"+i, new int[]{cc.getX(), cc.getY(), cc.getZ()});
+			LongIterator it = lights.iterator();
+			while(it.hasNext())
+			{
+				long cc = it.nextLong();
+				nbt.putIntArray("fakeLight_"+i++, new int[]{BlockPos.getX(cc), BlockPos.getY(cc), BlockPos.getZ(cc)});
+			}
 		}
+		nbt.putInt("lightAmount", i);
 		if(descPacket&&computerControl.isAttached())
 			nbt.putBoolean("computerOn", computerControl.isEnabled());
 	}
@@ -0,0 +1,105 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.blocks.metal;
+
+import blusunrize.immersiveengineering.api.Lib;
+import it.unimi.dsi.fastutil.longs.*;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.world.BlockEvent.NeighborNotifyEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber.Bus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks which chunk sections the light cones of active floodlights pass through, so that block updates can trigger a
+ * re-trace of exactly the floodlights whose cone they are in. Only accessed from the server thread.
+ */
+@EventBusSubscriber(modid = Lib.MODID, bus = Bus.FORGE)
+public class FloodlightConeIndex
+{
+	private static final Map<ResourceKey<Level>, Long2ObjectMap<List<FloodlightBlockEntity>>> LIGHTS_BY_SECTION = new HashMap<>();
+	// Set while floodlights place or remove their fake lights. Those are air without collision, so they never affect
+	// any cone
+	private static boolean updatingFakeLights = false;
+
+	static void setCone(FloodlightBlockEntity light, LongSet oldSections, LongSet newSections)
+	{
+		Long2ObjectMap<List<FloodlightBlockEntity>> bySection = LIGHTS_BY_SECTION.computeIfAbsent(
+				light.getLevelNonnull().dimension(), $ -> new Long2ObjectOpenHashMap<>()
+		);
+		LongIterator it = oldSections.iterator();
+		while(it.hasNext())
+		{
+			long section = it.nextLong();
+			if(newSections.contains(section))
+				continue;
+			List<FloodlightBlockEntity> inSection = bySection.get(section);
+			if(inSection!=null)
+			{
+				inSection.remove(light);
+				if(inSection.isEmpty())
+					bySection.remove(section);
+			}
+		}
+		it = newSections.iterator();
+		while(it.hasNext())
+		{
+			long section = it.nextLong();
+			if(!oldSections.contains(section))
+				bySection.computeIfAbsent(section, $ -> new ArrayList<>()).add(light);
+		}
+	}
+
+	static void runWithoutNotifications(Runnable updateLights)
+	{
+		updatingFakeLights = true;
+		try
+		{
+			updateLights.run();
+		} finally
+		{
+			updatingFakeLights = false;
+		}
+	}
+
+	@SubscribeEvent
+	public static void onBlockUpdate(NeighborNotifyEvent ev)
+	{
+		if(updatingFakeLights||ev.getWorld().isClientSide()||!(ev.getWorld() instanceof Level level))
+			return;
+		Long2ObjectMap<List<FloodlightBlockEntity>> bySection = LIGHTS_BY_SECTION.get(level.dimension());
+		if(bySection==null)
+			return;
+		BlockPos pos = ev.getPos();
+		List<FloodlightBlockEntity> inSection = bySection.get(SectionPos.asLong(
+				SectionPos.blockToSectionCoord(pos.getX()),
+				SectionPos.blockToSectionCoord(pos.getY()),
+				SectionPos.blockToSectionCoord(pos.getZ())
+		));
+		if(inSection!=null)
+			for(FloodlightBlockEntity light : inSection)
+				light.onBlockUpdateNearCone(pos);
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnload(WorldEvent.Unload ev)
+	{
+		if(!ev.getWorld().isClientSide()&&ev.getWorld() instanceof Level level)
+			LIGHTS_BY_SECTION.remove(level.dimension());
+	}
+}
@@ -25,7 +25,6 @@ import blusunrize.immersiveengineering.common.register.IEBlocks.WoodenDecoration
 import blusunrize.immersiveengineering.common.register.IEItems.Tools;
 import blusunrize.immersiveengineering.common.util.ResettableCapability;
 import blusunrize.immersiveengineering.common.util.Utils;
-import blusunrize.immersiveengineering.common.util.WorldMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import it.unimi.dsi.fastutil.HashCommon;
@@ -36,7 +35,6 @@ import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.Tag;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.util.Mth;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
@@ -69,14 +67,12 @@ import net.minecraftforge.registries.ForgeRegistries;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 @EventBusSubscriber(modid = Lib.MODID, bus = Bus.FORGE)
 public class FluidPipeBlockEntity extends IEBaseBlockEntity implements IFluidPipe, IColouredBE, IPlayerInteraction,
 		IHammerInteraction, IPlacementInteraction, ISelectionBounds, ICollisionBounds, IAdditionalDrops
 {
-	static WorldMap<BlockPos, Set<DirectionalFluidOutput>> indirectConnections = new WorldMap<>();
 	public static ArrayList<Predicate<Block>> validPipeCovers = new ArrayList<>();
 	public static ArrayList<Predicate<Block>> climbablePipeCovers = new ArrayList<>();
 
@@ -112,45 +108,7 @@ public class FluidPipeBlockEntity extends IEBaseBlockEntity implements IFluidPip
 	{
 		if(world.isClientSide)
 			return ImmutableSet.of();
-		Set<DirectionalFluidOutput> cachedResult = indirectConnections.get(world, node);
-		if(cachedResult!=null)
-			return cachedResult;
-
-		ArrayList<BlockPos> openList = new ArrayList<>();
-		ArrayList<BlockPos> closedList = new ArrayList<>();
-		Set<DirectionalFluidOutput> fluidHandlers = Collections.newSetFromMap(new ConcurrentHashMap<>());
-		openList.add(node);
-		while(!openList.isEmpty()&&closedList.size() < 1024)
-		{
-			BlockPos next = openList.get(0);
-			BlockEntity pipeTile = Utils.getExistingTileEntity(world, next);
-			if(!closedList.contains(next)&&(pipeTile instanceof FluidPipeBlockEntity))
-			{
-				closedList.add(next);
-				for(Direction fd : DirectionUtils.VALUES)
-					if(((FluidPipeBlockEntity)pipeTile).hasOutputConnection(fd))
-					{
-						BlockPos nextPos = next.relative(fd);
-						BlockEntity adjacentTile = Utils.getExistingTileEntity(world, nextPos);
-						if(adjacentTile!=null)
-							if(adjacentTile instanceof FluidPipeBlockEntity)
-								openList.add(nextPos);
-							else
-							{
-								LazyOptional<IFluidHandler> handlerOptional = adjacentTile.getCapability(
-										CapabilityFluidHandler.FLUID_HANDLER_CAPABILITY, fd.getOpposite());
-								handlerOptional.ifPresent(handler ->
-								{
-									if(handler.getTanks() > 0)
-										fluidHandlers.add(new DirectionalFluidOutput(handler, fd, adjacentTile));
-								});
-							}
-					}
-			}
-			openList.remove(0);
-		}
-		indirectConnections.put(world, node, fluidHandlers);
-		return fluidHandlers;
+		return FluidPipeNetwork.getOutputs(world, node);
 	}
 
 	@Override
@@ -159,6 +117,8 @@ public class FluidPipeBlockEntity extends IEBaseBlockEntity implements IFluidPip
 		super.onLoad();
 		if(level!=null&&!level.isClientSide)
 			EventHandler.SERVER_TASKS.add(() -> {
+				if(!isRemoved())
+					FluidPipeNetwork.onPipeAdded(level, this);
 				boolean changed = false;
 				for(Direction f : DirectionUtils.VALUES)
 					changed |= updateConnectionByte(f);
@@ -175,7 +135,7 @@ public class FluidPipeBlockEntity extends IEBaseBlockEntity implements IFluidPip
 	{
 		super.setRemovedIE();
 		if(level!=null&&!level.isClientSide)
-			indirectConnections.clearDimension(level);
+			FluidPipeNetwork.onTopologyChanged(level, worldPosition);
 	}
 
 	@Override
@@ -183,7 +143,7 @@ public class FluidPipeBlockEntity extends IEBaseBlockEntity implements IFluidPip
 	{
 		super.onChunkUnloaded();
 		if(level!=null&&!level.isClientSide)
-			indirectConnections.clearDimension(level);
+			FluidPipeNetwork.onTopologyChanged(level, worldPosition);
 	}
 
 	@Override
@@ -323,11 +283,11 @@ public class FluidPipeBlockEntity extends IEBaseBlockEntity implements IFluidPip
 			world.updateNeighborsAtExceptFromFacing(worldPosition, getBlockState().getBlock(), dir);
 			markContainingBlockForUpdate(null);
 			if(!world.isClientSide)
-				indirectConnections.clearDimension(world);
+				FluidPipeNetwork.onOutputsChanged(world, worldPosition);
 		}
 	}
 
-	static class PipeFluidHandler implements IFluidHandler
+	static class PipeFluidHandler implements IFluidHandler, PipeFillDistributor.OutputContext
 	{
 		private static final Random CURRENT_TICK_RANDOM = new Random();
 
@@ -370,58 +330,37 @@ public class FluidPipeBlockEntity extends IEBaseBlockEntity implements IFluidPip
 		{
 			if(resource==null)
 				return 0;
-			int canAccept = resource.getAmount();
-			if(canAccept <= 0)
+			if(resource.getAmount() <= 0||pipe.level==null||pipe.level.isClientSide)
 				return 0;
-			Set<DirectionalFluidOutput> outputList = getConnectedFluidHandlers(pipe.getBlockPos(), pipe.level);
-
-			if(outputList.size() < 1)
+			FluidPipeNetwork network = FluidPipeNetwork.getNetwork(pipe.level, pipe.getBlockPos());
+			if(network==null)
+				return 0;
+			DirectionalFluidOutput[] outputs = network.getOutputArray(pipe.level);
+			if(outputs.length < 1)
 				//NO OUTPUTS!
 				return 0;
-			BlockPos ccFrom = new BlockPos(pipe.getBlockPos().relative(facing));
-			int sum = 0;
-			HashMap<DirectionalFluidOutput, Integer> sorting = new HashMap<>();
-			for(DirectionalFluidOutput output : outputList)
-			{
-				BlockPos cc = output.containingTile.getBlockPos();
-				if(!cc.equals(ccFrom)&&pipe.level.hasChunkAt(cc)&&!pipe.equals(output.containingTile))
-				{
-					int limit = getTransferableAmount(resource, output.containingTile);
-					int tileSpecificAcceptedFluid = Math.min(limit, canAccept);
-					int temp = output.output.fill(Utils.copyFluidStackWithAmount(resource, tileSpecificAcceptedFluid, output.stripPressure()), FluidAction.SIMULATE);
-					if(temp > 0)
-					{
-						sorting.put(output, temp);
-						sum += temp;
-					}
-				}
-			}
-			if(sum > 0)
-			{
-				int f = 0;
-				for(DirectionalFluidOutput output : sorting.keySet())
-				{
-					int amount = sorting.get(output);
-					if(sum > resource.getAmount())
-					{
-						int limit = getTransferableAmount(resource, output.containingTile);
-						int tileSpecificAcceptedFluid = Math.min(limit, canAccept);
-						float prio = amount/(float)sum;
-						amount = (int)Math.ceil(Mth.clamp(amount, 1,
-								Math.min(resource.getAmount()*prio, tileSpecificAcceptedFluid)));
-						amount = Math.min(amount, canAccept);
-					}
-					int r = output.output.fill(Utils.copyFluidStackWithAmount(resource, amount, output.stripPressure()), doFill);
-					if(r > IFluidPipe.AMOUNT_UNPRESSURIZED)
-						pipe.canOutputPressurized(output.containingTile, true);
-					f += r;
-					canAccept -= r;
-					if(canAccept <= 0)
-						break;
-				}
-				return f;
-			}
-			return 0;
+			return network.getFillDistributor().fill(outputs, resource, doFill, this);
+		}
+
+		@Override
+		public int getTransferLimit(DirectionalFluidOutput output, FluidStack resource)
+		{
+			BlockPos cc = output.containingTile().getBlockPos();
+			BlockPos pipePos = pipe.getBlockPos();
+			// Don't send fluid back to where it came from
+			boolean isSource = cc.getX()==pipePos.getX()+facing.getStepX()
+					&&cc.getY()==pipePos.getY()+facing.getStepY()
+					&&cc.getZ()==pipePos.getZ()+facing.getStepZ();
+			if(isSource||!pipe.level.hasChunkAt(cc)||pipe.equals(output.containingTile()))
+				return -1;
+			return getTransferableAmount(resource, output.containingTile());
+		}
+
+		@Override
+		public void onTransferred(DirectionalFluidOutput output, int amount)
+		{
+			if(amount > IFluidPipe.AMOUNT_UNPRESSURIZED)
+				pipe.canOutputPressurized(output.containingTile(), true);
 		}
 
 		private int getTransferableAmount(FluidStack resource, BlockEntity target)
@@ -558,6 +497,8 @@ public class FluidPipeBlockEntity extends IEBaseBlockEntity implements IFluidPip
 		else
 			invalidateHandler(side);
 		setChanged();
+		if(!level.isClientSide)
+			FluidPipeNetwork.onTopologyChanged(level, worldPosition);
 		if(firstPipe)
 		{
 			BlockEntity neighborTile = level.getBlockEntity(getBlockPos().relative(side));
@@ -751,7 +692,6 @@ public class FluidPipeBlockEntity extends IEBaseBlockEntity implements IFluidPip
 		{
 			toggleSide(fd);
 			this.markContainingBlockForUpdate(null);
-			FluidPipeBlockEntity.indirectConnections.clearDimension(level);
 			return true;
 		}
 		return false;
@@ -782,7 +722,7 @@ public class FluidPipeBlockEntity extends IEBaseBlockEntity implements IFluidPip
 	public static void onWorldUnload(WorldEvent.Unload ev)
 	{
 		if(!ev.getWorld().isClientSide()&&ev.getWorld() instanceof Level level)
-			indirectConnections.clearDimension(level);
+			FluidPipeNetwork.clearDimension(level);
 	}
 
 	@Nullable
@@ -0,0 +1,227 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.blocks.metal;
+
+import blusunrize.immersiveengineering.api.utils.DirectionUtils;
+import blusunrize.immersiveengineering.common.blocks.metal.FluidPipeBlockEntity.DirectionalFluidOutput;
+import blusunrize.immersiveengineering.common.util.Utils;
+import blusunrize.immersiveengineering.common.util.WorldMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.common.util.NonNullConsumer;
+import net.minecraftforge.fluids.capability.CapabilityFluidHandler;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * A connected component of fluid pipes, along with the (lazily computed) set of fluid handlers connected to any of its
+ * pipes. Networks are discovered lazily by a flood fill from the first pipe that is queried and then shared by all
+ * pipes in the component. Pipes loading next to existing networks join (and merge) them, the smaller network being
+ * merged into the larger one. Changes that may split a network (pipes being removed or unloaded, sides being
+ * disconnected) dissolve only the affected network, which is then rediscovered on the next query.
+ */
+class FluidPipeNetwork
+{
+	private static final WorldMap<BlockPos, FluidPipeNetwork> NETWORK_BY_PIPE = new WorldMap<>();
+
+	private final Set<BlockPos> pipes = new HashSet<>();
+	@Nullable
+	private Set<DirectionalFluidOutput> outputs;
+	@Nullable
+	private DirectionalFluidOutput[] outputArray;
+	private final PipeFillDistributor fillDistributor = new PipeFillDistributor();
+	// Chunk unloads and replaced block entities invalidate output handlers without a neighbor update. This is a single
+	// object per network, so rebuilding the outputs does not add more listeners to handlers that are still valid.
+	private final NonNullConsumer<LazyOptional<IFluidHandler>> onOutputInvalidated = $ -> outputs = null;
+
+	private FluidPipeNetwork()
+	{
+	}
+
+	public static Set<DirectionalFluidOutput> getOutputs(Level level, BlockPos pipe)
+	{
+		FluidPipeNetwork network = getNetwork(level, pipe);
+		if(network==null)
+			return Set.of();
+		network.updateOutputs(level);
+		return network.outputs;
+	}
+
+	@Nullable
+	public static FluidPipeNetwork getNetwork(Level level, BlockPos pipe)
+	{
+		FluidPipeNetwork network = NETWORK_BY_PIPE.get(level, pipe);
+		if(network==null)
+			network = discover(level, pipe);
+		return network;
+	}
+
+	public DirectionalFluidOutput[] getOutputArray(Level level)
+	{
+		updateOutputs(level);
+		return outputArray;
+	}
+
+	public PipeFillDistributor getFillDistributor()
+	{
+		return fillDistributor;
+	}
+
+	/**
+	 * Called when a pipe is loaded or placed. Joins the networks of all connected neighbors if they are known.
+	 */
+	public static void onPipeAdded(Level level, FluidPipeBlockEntity pipe)
+	{
+		BlockPos pos = pipe.getBlockPos();
+		List<FluidPipeNetwork> neighborNets = new ArrayList<>();
+		boolean allNeighborsKnown = true;
+		for(Direction side : DirectionUtils.VALUES)
+			if(pipe.hasOutputConnection(side))
+			{
+				BlockPos neighborPos = pos.relative(side);
+				if(!(Utils.getExistingTileEntity(level, neighborPos) instanceof FluidPipeBlockEntity))
+					continue;
+				FluidPipeNetwork neighborNet = NETWORK_BY_PIPE.get(level, neighborPos);
+				if(neighborNet==null)
+					allNeighborsKnown = false;
+				else if(!neighborNets.contains(neighborNet))
+					neighborNets.add(neighborNet);
+			}
+		if(neighborNets.isEmpty())
+			// Not connected to any known network, will be discovered when needed
+			return;
+		if(!allNeighborsKnown)
+		{
+			// Some connected pipes are part of a component that has not been discovered yet, so merging the known
+			// networks would result in an incomplete network
+			for(FluidPipeNetwork net : neighborNets)
+				net.dissolve(level);
+			return;
+		}
+		FluidPipeNetwork largest = neighborNets.get(0);
+		for(FluidPipeNetwork net : neighborNets)
+			if(net.pipes.size() > largest.pipes.size())
+				largest = net;
+		for(FluidPipeNetwork net : neighborNets)
+			if(net!=largest)
+				largest.absorb(level, net);
+		largest.pipes.add(pos);
+		NETWORK_BY_PIPE.put(level, pos, largest);
+		largest.outputs = null;
+	}
+
+	/**
+	 * Called when a pipe is removed, unloaded or when one of its sides is (dis)connected, i.e. whenever the network it
+	 * belongs to may be split up or merged with another network
+	 */
+	public static void onTopologyChanged(Level level, BlockPos pipe)
+	{
+		FluidPipeNetwork network = NETWORK_BY_PIPE.get(level, pipe);
+		if(network!=null)
+			network.dissolve(level);
+	}
+
+	/**
+	 * Called when the non-pipe neighbors of a pipe change, i.e. when the connected outputs may have changed
+	 */
+	public static void onOutputsChanged(Level level, BlockPos pipe)
+	{
+		FluidPipeNetwork network = NETWORK_BY_PIPE.get(level, pipe);
+		if(network!=null)
+			network.outputs = null;
+	}
+
+	public static void clearDimension(Level level)
+	{
+		NETWORK_BY_PIPE.clearDimension(level);
+	}
+
+	@Nullable
+	private static FluidPipeNetwork discover(Level level, BlockPos start)
+	{
+		if(!(Utils.getExistingTileEntity(level, start) instanceof FluidPipeBlockEntity))
+			return null;
+		FluidPipeNetwork network = new FluidPipeNetwork();
+		Deque<BlockPos> open = new ArrayDeque<>();
+		open.add(start);
+		network.pipes.add(start);
+		while(!open.isEmpty())
+		{
+			BlockPos next = open.poll();
+			// Only pipes are ever added to the open list
+			FluidPipeBlockEntity pipe = (FluidPipeBlockEntity)Utils.getExistingTileEntity(level, next);
+			FluidPipeNetwork oldNet = NETWORK_BY_PIPE.get(level, next);
+			if(oldNet!=null)
+				// Should not happen, but make sure there are no stale partial networks around
+				oldNet.dissolve(level);
+			NETWORK_BY_PIPE.put(level, next, network);
+			for(Direction side : DirectionUtils.VALUES)
+				if(pipe.hasOutputConnection(side))
+				{
+					BlockPos neighborPos = next.relative(side);
+					if(Utils.getExistingTileEntity(level, neighborPos) instanceof FluidPipeBlockEntity&&network.pipes.add(neighborPos))
+						open.add(neighborPos);
+				}
+		}
+		return network;
+	}
+
+	private void updateOutputs(Level level)
+	{
+		if(outputs!=null)
+			return;
+		Set<DirectionalFluidOutput> result = new LinkedHashSet<>();
+		for(BlockPos pos : pipes)
+		{
+			if(!(Utils.getExistingTileEntity(level, pos) instanceof FluidPipeBlockEntity pipe))
+				continue;
+			for(Direction side : DirectionUtils.VALUES)
+				if(pipe.hasOutputConnection(side))
+				{
+					BlockEntity adjacent = Utils.getExistingTileEntity(level, pos.relative(side));
+					if(adjacent==null||adjacent instanceof FluidPipeBlockEntity)
+						continue;
+					LazyOptional<IFluidHandler> cap = adjacent.getCapability(
+							CapabilityFluidHandler.FLUID_HANDLER_CAPABILITY, side.getOpposite()
+					);
+					cap.ifPresent(handler -> {
+						if(handler.getTanks() > 0)
+							result.add(new DirectionalFluidOutput(handler, side, adjacent));
+					});
+					if(cap.isPresent())
+						cap.addListener(onOutputInvalidated);
+				}
+		}
+		outputs = Collections.unmodifiableSet(result);
+		outputArray = result.toArray(new DirectionalFluidOutput[0]);
+	}
+
+	private void absorb(Level level, FluidPipeNetwork other)
+	{
+		for(BlockPos pos : other.pipes)
+			NETWORK_BY_PIPE.put(level, pos, this);
+		pipes.addAll(other.pipes);
+		other.pipes.clear();
+		outputs = null;
+	}
+
+	private void dissolve(Level level)
+	{
+		for(BlockPos pos : pipes)
+			if(NETWORK_BY_PIPE.get(level, pos)==this)
+				NETWORK_BY_PIPE.remove(level, pos);
+		pipes.clear();
+		outputs = null;
+	}
+}
@@ -280,6 +280,12 @@ public class MetalPressBlockEntity extends PoweredMultiblockBlockEntity<MetalPre
 		return 3;
 	}
 
+	@Override
+	protected boolean canSleep()
+	{
+		return true;
+	}
+
 	@Override
 	public int getProcessQueueMaxLength()
 	{
@@ -364,6 +370,12 @@ public class MetalPressBlockEntity extends PoweredMultiblockBlockEntity<MetalPre
 		return MetalPressRecipe.findRecipe(mold, inserting, level);
 	}
 
+	@Override
+	public Object getInsertionRecipeContext()
+	{
+		return mold.getItem();
+	}
+
 	@Override
 	protected MetalPressRecipe getRecipeForId(Level level, ResourceLocation id)
 	{
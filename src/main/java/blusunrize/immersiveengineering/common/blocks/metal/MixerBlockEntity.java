@@ -21,6 +21,7 @@ import blusunrize.immersiveengineering.common.blocks.multiblocks.IEMultiblocks;
 import blusunrize.immersiveengineering.common.blocks.multiblocks.process.MultiblockProcess;
 import blusunrize.immersiveengineering.common.blocks.multiblocks.process.MultiblockProcessInMachine;
 import blusunrize.immersiveengineering.common.blocks.ticking.IEClientTickableBE;
+import blusunrize.immersiveengineering.common.gui.sync.GenericContainerData;
 import blusunrize.immersiveengineering.common.register.IEContainerTypes;
 import blusunrize.immersiveengineering.common.register.IEContainerTypes.BEContainer;
 import blusunrize.immersiveengineering.common.register.IEParticles;
@@ -76,6 +77,8 @@ public class MixerBlockEntity extends PoweredMultiblockBlockEntity<MixerBlockEnt
 	public MixerBlockEntity(BlockEntityType<MixerBlockEntity> type, BlockPos pos, BlockState state)
 	{
 		super(IEMultiblocks.MIXER, 16000, true, type, pos, state);
+		// Processes move fluid through the tank every few ticks, which is rendered
+		addSyncedField(GenericContainerData.fluids(tank));
 	}
 
 	@Override
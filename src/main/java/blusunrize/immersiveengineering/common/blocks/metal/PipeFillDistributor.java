@@ -0,0 +1,148 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.blocks.metal;
+
+import blusunrize.immersiveengineering.common.blocks.metal.FluidPipeBlockEntity.DirectionalFluidOutput;
+import blusunrize.immersiveengineering.common.util.Utils;
+import net.minecraft.util.Mth;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.capability.IFluidHandler.FluidAction;
+
+/**
+ * Distributes fluid inserted into a pipe network across its outputs, proportionally to the amount each output can
+ * accept. The scratch arrays are reused across calls, and the order in which outputs are served rotates on every
+ * executed fill, so no output is consistently the one to be cut short.
+ * Simulated fills reuse one stack per fluid and pressure state, since handlers must not keep the stack they are asked to
+ * simulate. Executed fills pass every output its own copy, as handlers commonly store the stack they are given.
+ * One instance is shared by all pipes of a network.
+ */
+public class PipeFillDistributor
+{
+	private int rotation = 0;
+	private boolean inUse = false;
+	// Per accepting output, in the order they were simulated
+	private int[] acceptingOutputs = new int[0];
+	private int[] acceptedAmounts = new int[0];
+	private int[] transferLimits = new int[0];
+	// Copies of the last inserted fluid, with and without the pressure tag, and the reused stacks built from them
+	private FluidStack template = FluidStack.EMPTY;
+	private FluidStack templateNoPressure = FluidStack.EMPTY;
+	private FluidStack scratch = FluidStack.EMPTY;
+	private FluidStack scratchNoPressure = FluidStack.EMPTY;
+
+	public int fill(DirectionalFluidOutput[] outputs, FluidStack resource, FluidAction action, OutputContext context)
+	{
+		if(inUse)
+			// Some output inserted back into the same network, don't overwrite the state of the outer call
+			return new PipeFillDistributor().fill(outputs, resource, action, context);
+		inUse = true;
+		try
+		{
+			return fillInternal(outputs, resource, action, context);
+		} finally
+		{
+			inUse = false;
+		}
+	}
+
+	private int fillInternal(DirectionalFluidOutput[] outputs, FluidStack resource, FluidAction action, OutputContext context)
+	{
+		final int numOutputs = outputs.length;
+		if(numOutputs==0)
+			return 0;
+		int canAccept = resource.getAmount();
+		if(acceptingOutputs.length < numOutputs)
+		{
+			acceptingOutputs = new int[numOutputs];
+			acceptedAmounts = new int[numOutputs];
+			transferLimits = new int[numOutputs];
+		}
+		final int start = rotation%numOutputs;
+		int numAccepting = 0;
+		int sum = 0;
+		for(int offset = 0; offset < numOutputs; ++offset)
+		{
+			int index = start+offset;
+			if(index >= numOutputs)
+				index -= numOutputs;
+			DirectionalFluidOutput output = outputs[index];
+			int limit = context.getTransferLimit(output, resource);
+			if(limit < 0)
+				continue;
+			int tileSpecificAcceptedFluid = Math.min(limit, canAccept);
+			int accepted = output.output().fill(
+					stackForOutput(resource, tileSpecificAcceptedFluid, output, FluidAction.SIMULATE), FluidAction.SIMULATE
+			);
+			if(accepted > 0)
+			{
+				acceptingOutputs[numAccepting] = index;
+				acceptedAmounts[numAccepting] = accepted;
+				transferLimits[numAccepting] = limit;
+				++numAccepting;
+				sum += accepted;
+			}
+		}
+		if(sum <= 0)
+			return 0;
+		int filled = 0;
+		for(int i = 0; i < numAccepting; ++i)
+		{
+			DirectionalFluidOutput output = outputs[acceptingOutputs[i]];
+			int amount = acceptedAmounts[i];
+			if(sum > resource.getAmount())
+			{
+				int tileSpecificAcceptedFluid = Math.min(transferLimits[i], canAccept);
+				float prio = amount/(float)sum;
+				amount = (int)Math.ceil(Mth.clamp(amount, 1,
+						Math.min(resource.getAmount()*prio, tileSpecificAcceptedFluid)));
+				amount = Math.min(amount, canAccept);
+			}
+			int transferred = output.output().fill(stackForOutput(resource, amount, output, action), action);
+			context.onTransferred(output, transferred);
+			filled += transferred;
+			canAccept -= transferred;
+			if(canAccept <= 0)
+				break;
+		}
+		if(action.execute())
+			rotation = start+1;
+		return filled;
+	}
+
+	private FluidStack stackForOutput(FluidStack resource, int amount, DirectionalFluidOutput output, FluidAction action)
+	{
+		if(action.execute())
+			return Utils.copyFluidStackWithAmount(resource, amount, output.stripPressure());
+		if(!template.isFluidEqual(resource))
+		{
+			template = Utils.copyFluidStackWithAmount(resource, 1, false);
+			templateNoPressure = Utils.copyFluidStackWithAmount(resource, 1, true);
+			scratch = template.copy();
+			scratchNoPressure = templateNoPressure.copy();
+		}
+		FluidStack expected = output.stripPressure()?templateNoPressure: template;
+		FluidStack result = output.stripPressure()?scratchNoPressure: scratch;
+		// Only misbehaving handlers change the tag during a simulation, but this keeps them from affecting other outputs
+		if(!result.isFluidEqual(expected))
+			result.setTag(expected.hasTag()?expected.getTag().copy(): null);
+		result.setAmount(amount);
+		return result;
+	}
+
+	public interface OutputContext
+	{
+		/**
+		 * @return the maximum amount of the resource that may be sent to the output, or a negative value if the output
+		 * should be skipped entirely
+		 */
+		int getTransferLimit(DirectionalFluidOutput output, FluidStack resource);
+
+		void onTransferred(DirectionalFluidOutput output, int amount);
+	}
+}
@@ -20,6 +20,7 @@ import blusunrize.immersiveengineering.common.blocks.PlacementLimitation;
 import blusunrize.immersiveengineering.common.blocks.generic.ImmersiveConnectableBlockEntity;
 import blusunrize.immersiveengineering.common.register.IEBlockEntities;
 import blusunrize.immersiveengineering.common.util.IEDamageSources;
+import blusunrize.immersiveengineering.common.util.SectionEntityCache;
 import com.google.common.collect.ImmutableList;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -254,7 +255,7 @@ public class RazorWireBlockEntity extends ImmersiveConnectableBlockEntity implem
 				connectN = false;
 		}
 		AABB aabb = new AABB(getBlockPos().offset(getFacing().getAxis()==Axis.Z?-widthN: 0, 0, getFacing().getAxis()==Axis.X?-widthN: 0), getBlockPos().offset(getFacing().getAxis()==Axis.Z?1+widthP: 1, 1, getFacing().getAxis()==Axis.X?1+widthP: 1));
-		List<LivingEntity> entities = level.getEntitiesOfClass(LivingEntity.class, aabb);
+		List<LivingEntity> entities = SectionEntityCache.getEntitiesOfClass(level, LivingEntity.class, aabb);
 		for(LivingEntity ent : entities)
 			ent.hurt(IEDamageSources.razorShock, 2);
 	}
@@ -17,6 +17,7 @@ import blusunrize.immersiveengineering.common.blocks.IEBlockInterfaces.IComparat
 import blusunrize.immersiveengineering.common.blocks.IEBlockInterfaces.IPlayerInteraction;
 import blusunrize.immersiveengineering.common.blocks.generic.MultiblockPartBlockEntity;
 import blusunrize.immersiveengineering.common.blocks.multiblocks.IEMultiblocks;
+import blusunrize.immersiveengineering.common.gui.sync.GenericContainerData;
 import blusunrize.immersiveengineering.common.util.LayeredComparatorOutput;
 import blusunrize.immersiveengineering.common.util.MultiblockCapability;
 import blusunrize.immersiveengineering.common.util.Utils;
@@ -77,6 +78,7 @@ public class SheetmetalTankBlockEntity extends MultiblockPartBlockEntity<Sheetme
 		// Tanks should not output by default
 		this.redstoneControlInverted = true;
 		fluidNeighbors.remove(Direction.UP);
+		addSyncedField(GenericContainerData.fluid(tank));
 	}
 
 	@Override
@@ -114,7 +116,8 @@ public class SheetmetalTankBlockEntity extends MultiblockPartBlockEntity<Sheetme
 						{
 							int drained = output.fill(Utils.copyFluidStackWithAmount(out, Math.min(out.getAmount(), accepted), false), FluidAction.EXECUTE);
 							this.tank.drain(drained, FluidAction.EXECUTE);
-							this.markContainingBlockForUpdate(null);
+							markChunkDirty();
+							markFieldsForSync();
 						}
 					}
 				}
@@ -144,6 +147,13 @@ public class SheetmetalTankBlockEntity extends MultiblockPartBlockEntity<Sheetme
 		nbt.put("tank", tankTag);
 	}
 
+	@Override
+	protected void onFluidHandlerTransfer()
+	{
+		markChunkDirty();
+		markFieldsForSync();
+	}
+
 	@Override
 	public VoxelShape getBlockBounds(@Nullable CollisionContext ctx)
 	{
@@ -183,7 +193,8 @@ public class SheetmetalTankBlockEntity extends MultiblockPartBlockEntity<Sheetme
 		{
 			if(FluidUtils.interactWithFluidHandler(player, hand, master.tank))
 			{
-				this.updateMasterBlock(null, true);
+				this.updateMasterBlock(null, false);
+				master.markFieldsForSync();
 				return true;
 			}
 		}
@@ -310,6 +310,13 @@ public class SqueezerBlockEntity extends PoweredMultiblockBlockEntity<SqueezerBl
 		return 8;
 	}
 
+	@Override
+	protected boolean canSleep()
+	{
+		// Buffered outputs are pushed out in every tick
+		return tanks[0].getFluidAmount()==0&&inventory.get(8).isEmpty();
+	}
+
 	@Override
 	public int getProcessQueueMaxLength()
 	{
@@ -107,7 +107,7 @@ public class TeslaCoilBlockEntity extends IEBaseBlockEntity implements IEServerT
 				radius /= 2;
 			AABB aabbSmall = new AABB(getBlockPos().getX()+.5-radius, getBlockPos().getY()+.5-radius, getBlockPos().getZ()+.5-radius, getBlockPos().getX()+.5+radius, getBlockPos().getY()+.5+radius, getBlockPos().getZ()+.5+radius);
 			AABB aabb = aabbSmall.inflate(radius/2);
-			List<Entity> targetsAll = level.getEntitiesOfClass(Entity.class, aabb);
+			List<Entity> targetsAll = SectionEntityCache.getEntitiesOfClass(level, Entity.class, aabb);
 			List<Entity> targets = targetsAll.stream().filter((e) -> (e instanceof LivingEntity&&aabbSmall.intersects(e.getBoundingBox()))).collect(Collectors.toList());
 			LivingEntity target = null;
 			if(!targets.isEmpty())
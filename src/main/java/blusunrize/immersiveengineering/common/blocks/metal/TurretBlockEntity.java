@@ -21,6 +21,7 @@ import blusunrize.immersiveengineering.common.config.IEServerConfig;
 import blusunrize.immersiveengineering.common.util.ChatUtils;
 import blusunrize.immersiveengineering.common.util.EnergyHelper;
 import blusunrize.immersiveengineering.common.util.MultiblockCapability;
+import blusunrize.immersiveengineering.common.util.SectionEntityCache;
 import blusunrize.immersiveengineering.common.util.Utils;
 import blusunrize.immersiveengineering.common.util.inventory.IIEInventory;
 import com.google.common.collect.ImmutableList;
@@ -107,7 +108,7 @@ public abstract class TurretBlockEntity<T extends TurretBlockEntity<T>> extends
 		if(targetId!=null)
 		{
 			AABB validBox = Shapes.block().bounds().move(worldPosition).inflate(range);
-			List<LivingEntity> entities = level.getEntitiesOfClass(LivingEntity.class, validBox);
+			List<LivingEntity> entities = SectionEntityCache.getEntitiesOfClass(level, LivingEntity.class, validBox);
 			for(LivingEntity entity : entities)
 				if(entity.getUUID().equals(targetId)&&isValidTarget(entity, true))
 				{
@@ -201,7 +202,7 @@ public abstract class TurretBlockEntity<T extends TurretBlockEntity<T>> extends
 			return false;
 		//Don't shoot non-targeted entities between the turret and the target
 		AABB potentialCollateralArea = entity.getBoundingBox().minmax(new AABB(worldPosition.above()));
-		List<LivingEntity> potentialCollateral = level.getEntitiesOfClass(LivingEntity.class, potentialCollateralArea);
+		List<LivingEntity> potentialCollateral = SectionEntityCache.getEntitiesOfClass(level, LivingEntity.class, potentialCollateralArea);
 		for(LivingEntity coll : potentialCollateral)
 		{
 			AABB entityBB = coll.getBoundingBox().inflate(.125f/2+.4);//Add the range of a revolver bullet in all directions
@@ -231,7 +232,7 @@ public abstract class TurretBlockEntity<T extends TurretBlockEntity<T>> extends
 	private LivingEntity getTarget()
 	{
 		double range = getRange();
-		List<LivingEntity> list = level.getEntitiesOfClass(LivingEntity.class, new AABB(getBlockPos().getX()-range, getBlockPos().getY(), getBlockPos().getZ()-range, getBlockPos().getX()+range, getBlockPos().getY()+3, getBlockPos().getZ()+range));
+		List<LivingEntity> list = SectionEntityCache.getEntitiesOfClass(level, LivingEntity.class, new AABB(getBlockPos().getX()-range, getBlockPos().getY(), getBlockPos().getZ()-range, getBlockPos().getX()+range, getBlockPos().getY()+3, getBlockPos().getZ()+range));
 		if(list.isEmpty())
 			return null;
 		for(LivingEntity entity : list)
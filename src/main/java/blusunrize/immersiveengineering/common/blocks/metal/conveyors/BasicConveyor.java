@@ -32,4 +32,10 @@ public class BasicConveyor extends ConveyorBase
 	{
 		return TYPE;
 	}
+
+	@Override
+	public boolean supportsVirtualTransport()
+	{
+		return true;
+	}
 }
@@ -10,17 +10,29 @@ package blusunrize.immersiveengineering.common.blocks.metal.conveyors;
 
 import blusunrize.immersiveengineering.api.IETags;
 import blusunrize.immersiveengineering.api.tool.conveyor.ConveyorHandler.ConveyorDirection;
+import blusunrize.immersiveengineering.api.tool.conveyor.ConveyorHandler.IConveyorBlockEntity;
 import blusunrize.immersiveengineering.api.tool.conveyor.IConveyorBelt;
+import blusunrize.immersiveengineering.api.utils.CapabilityUtils;
+import blusunrize.immersiveengineering.api.utils.DirectionUtils;
 import blusunrize.immersiveengineering.api.utils.EntityCollisionTracker;
+import blusunrize.immersiveengineering.api.utils.ItemUtils;
+import blusunrize.immersiveengineering.api.utils.SafeChunkUtils;
 import blusunrize.immersiveengineering.api.utils.shapes.CachedVoxelShapes;
+import blusunrize.immersiveengineering.common.blocks.IEBaseBlockEntity;
 import blusunrize.immersiveengineering.common.blocks.IEBlockInterfaces.IDirectionalBE;
 import blusunrize.immersiveengineering.common.blocks.metal.ConveyorBeltBlockEntity;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.VirtualConveyorItems.VirtualItem;
+import blusunrize.immersiveengineering.common.config.IEServerConfig;
 import blusunrize.immersiveengineering.common.register.IEBlocks.WoodenDecoration;
 import com.google.common.collect.ImmutableList;
+import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.core.Direction.Axis;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.Tag;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ChunkHolder.FullChunkStatus;
+import net.minecraft.util.Mth;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.item.ItemEntity;
@@ -28,12 +40,18 @@ import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.DyeColor;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.GameRules;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
 import net.minecraft.world.phys.shapes.VoxelShape;
 import net.minecraftforge.common.Tags;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
 import net.minecraftforge.registries.ForgeRegistries;
 
 import javax.annotation.Nonnull;
@@ -58,6 +76,8 @@ public abstract class ConveyorBase implements IConveyorBelt
 	DyeColor dyeColour = null;
 	private final BlockEntity tile;
 	protected final EntityCollisionTracker collisionTracker = new EntityCollisionTracker(10);
+	protected final VirtualConveyorItems virtualItems = new VirtualConveyorItems();
+	private final ConveyorNeighbourCache neighbours = new ConveyorNeighbourCache(this);
 
 	public ConveyorBase(BlockEntity tile)
 	{
@@ -100,6 +120,8 @@ public abstract class ConveyorBase implements IConveyorBelt
 	@Override
 	public void onEntityCollision(@Nonnull Entity entity)
 	{
+		if(entity instanceof ItemEntity item&&tryAbsorbItem(item))
+			return;
 		collisionTracker.onEntityCollided(entity);
 		IConveyorBelt.super.onEntityCollision(entity);
 		if(isCovered()&&entity instanceof ItemEntity)
@@ -109,9 +131,103 @@ public abstract class ConveyorBase implements IConveyorBelt
 	@Override
 	public boolean isBlocked()
 	{
+		if(!virtualItems.hasSpaceAt(0))
+			return true;
 		return collisionTracker.getCollidedInRange(getBlockEntity().getLevel().getGameTime()) > 2;
 	}
 
+	/* ============ NEIGHBOURS ============ */
+
+	/**
+	 * @return false if the downstream neighbours depend on more than the facing and direction of the conveyor, in which
+	 * case they are looked up again on every access
+	 */
+	protected boolean hasFixedOutput()
+	{
+		return true;
+	}
+
+	private boolean useNeighbourCache()
+	{
+		Level level = tile.getLevel();
+		return hasFixedOutput()&&level!=null&&!level.isClientSide;
+	}
+
+	/**
+	 * Computes the positions returned by {@link #getNextConveyorCandidates}, which are cached by facing and direction
+	 */
+	protected List<BlockPos> computeNextConveyorCandidates()
+	{
+		return IConveyorBelt.super.getNextConveyorCandidates();
+	}
+
+	@Override
+	public List<BlockPos> getNextConveyorCandidates()
+	{
+		return neighbours.getCandidates();
+	}
+
+	@Override
+	public boolean isOutputBlocked()
+	{
+		if(!useNeighbourCache())
+			return IConveyorBelt.super.isOutputBlocked();
+		return neighbours.isOutputBlocked();
+	}
+
+	@Nullable
+	@Override
+	public IConveyorBelt getOutputConveyor()
+	{
+		if(!useNeighbourCache())
+			return IConveyorBelt.super.getOutputConveyor();
+		return neighbours.getOutputConveyor();
+	}
+
+	@Override
+	public void handleInsertion(ItemEntity entity, ConveyorDirection conDir, double distX, double distZ)
+	{
+		if(!useNeighbourCache())
+		{
+			IConveyorBelt.super.handleInsertion(entity, conDir, distX, distZ);
+			return;
+		}
+		boolean contact = getFacing().getAxis()==Axis.Z?distZ < .7: distX < .7;
+		BlockPos invPos = neighbours.getOutputInventory();
+		if(contact&&!neighbours.hasConveyorAt(invPos))
+			ItemUtils.tryInsertEntity(tile.getLevel(), invPos, getFacing().getOpposite(), entity);
+	}
+
+	/**
+	 * Called on the server when a block next to this conveyor changed
+	 */
+	public void onNeighbourChanged()
+	{
+		neighbours.invalidate();
+	}
+
+	/**
+	 * Called on the server when a conveyor is placed or loaded, so conveyors that may output into it stop using their
+	 * cached neighbours. This includes conveyors diagonally above or below, which do not receive neighbour updates.
+	 */
+	public static void onConveyorLoaded(Level level, BlockPos pos)
+	{
+		for(Direction side : DirectionUtils.BY_HORIZONTAL_INDEX)
+		{
+			BlockPos behind = pos.relative(side);
+			for(int yOffset = -1; yOffset <= 1; ++yOffset)
+				invalidateNeighboursAt(level, behind.above(yOffset));
+		}
+		invalidateNeighboursAt(level, pos.below());
+	}
+
+	private static void invalidateNeighboursAt(Level level, BlockPos pos)
+	{
+		if(SafeChunkUtils.getSafeBE(level, pos) instanceof IConveyorBlockEntity<?> conveyorBE
+				&&conveyorBE.getConveyorInstance() instanceof ConveyorBase base)
+			base.neighbours.invalidate();
+	}
+
 	@Override
 	public void onItemDeployed(ItemEntity entity)
 	{
@@ -123,7 +239,269 @@ public abstract class ConveyorBase implements IConveyorBelt
 	@Override
 	public boolean playerInteraction(Player player, InteractionHand hand, ItemStack heldItem, float hitX, float hitY, float hitZ, Direction side)
 	{
-		return handleCoverInteraction(player, hand, heldItem);
+		if(handleCoverInteraction(player, hand, heldItem))
+			return true;
+		if(heldItem.isEmpty()&&!virtualItems.isEmpty())
+		{
+			releaseVirtualItems();
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void tickServer()
+	{
+		if(virtualItems.isEmpty())
+			return;
+		if(usesVirtualTransport())
+			tickVirtualItems();
+		else
+			releaseVirtualItems();
+	}
+
+	/* ============ VIRTUAL TRANSPORT ============ */
+
+	private static final String RELEASED_KEY = "immersiveengineering:conveyorReleased";
+
+	/**
+	 * @return true if items on this type of conveyor can be moved as data, see {@link VirtualConveyorItems}
+	 */
+	public boolean supportsVirtualTransport()
+	{
+		return false;
+	}
+
+	/**
+	 * Server side only, the client just renders whatever it was sent
+	 */
+	public final boolean usesVirtualTransport()
+	{
+		return supportsVirtualTransport()&&IEServerConfig.MACHINES.conveyor_virtualTransport.get();
+	}
+
+	public VirtualConveyorItems getVirtualItems()
+	{
+		return virtualItems;
+	}
+
+	/**
+	 * @return the world position of an item at the given progress along this conveyor
+	 */
+	public Vec3 getVirtualItemPosition(float progress, @Nullable Direction exit)
+	{
+		BlockPos pos = tile.getBlockPos();
+		Direction facing = getFacing();
+		double offset = progress-.5;
+		double height = .125;
+		if(getConveyorDirection()==ConveyorDirection.UP)
+			height += progress;
+		else if(getConveyorDirection()==ConveyorDirection.DOWN)
+			height += 1-progress;
+		return new Vec3(
+				pos.getX()+.5+facing.getStepX()*offset, pos.getY()+height, pos.getZ()+.5+facing.getStepZ()*offset
+		);
+	}
+
+	/**
+	 * Inserts a stack in the middle of the belt, where inserted item entities used to be spawned
+	 *
+	 * @return false if there is no space for it
+	 */
+	public boolean insertVirtual(ItemStack stack, boolean simulate)
+	{
+		if(!virtualItems.hasSpaceAt(.5f))
+			return false;
+		if(!simulate)
+			acceptVirtual(new VirtualItem(stack.copy(), .5f), .5f);
+		return true;
+	}
+
+	/**
+	 * Called for every item entering this conveyor, before it is added to the belt
+	 */
+	protected void onVirtualItemEntered(VirtualItem item)
+	{
+	}
+
+	/**
+	 * Called after an item moved along the belt. Items are never moved past the end of the belt.
+	 *
+	 * @return true if the item left this conveyor
+	 */
+	protected boolean tryOutputVirtual(VirtualItem item, float oldProgress)
+	{
+		if(item.progress < 1)
+			return false;
+		return outputVirtual(item, getFacing(), getOutputInventory(), getNextConveyorCandidates());
+	}
+
+	/**
+	 * Passes an item at the end of the belt on to the next conveyor or into an inventory, or drops it as an entity if
+	 * there is neither
+	 *
+	 * @return true if the item left this conveyor
+	 */
+	protected final boolean outputVirtual(
+			VirtualItem item, Direction outputSide, BlockPos outputPos, List<BlockPos> conveyorCandidates
+	)
+	{
+		Level level = tile.getLevel();
+		for(BlockPos candidate : conveyorCandidates)
+		{
+			LevelChunk chunk = SafeChunkUtils.getSafeChunk(level, candidate);
+			// Do not pass items into non-ticking chunks, see IConveyorBelt#isOutputBlocked
+			if(chunk==null||!chunk.getFullStatus().isOrAfter(FullChunkStatus.ENTITY_TICKING))
+				return false;
+			if(chunk.getBlockEntity(candidate) instanceof IConveyorBlockEntity<?> next&&next.getConveyorInstance()!=null)
+			{
+				IConveyorBelt nextBelt = next.getConveyorInstance();
+				if(nextBelt instanceof ConveyorBase nextBase&&nextBase.usesVirtualTransport())
+					return nextBase.acceptVirtual(item, nextBase.getEntryProgress(outputSide));
+				if(nextBelt.isBlocked())
+					return false;
+				spawnItemEntity(item, Vec3.atLowerCornerOf(outputSide.getNormal()).scale(VirtualConveyorItems.SPEED));
+				return true;
+			}
+			if(candidate.equals(outputPos))
+			{
+				LazyOptional<IItemHandler> output = CapabilityUtils.findItemHandlerAtPos(
+						level, outputPos, outputSide.getOpposite(), true
+				);
+				if(output.isPresent())
+					return insertIntoOutput(item, output.orElseThrow(IllegalStateException::new));
+				// Item entities would get stuck on the block, and be absorbed by this belt again
+				if(!level.getBlockState(outputPos).getCollisionShape(level, outputPos).isEmpty())
+					return false;
+			}
+		}
+		spawnItemEntity(item, Vec3.atLowerCornerOf(outputSide.getNormal()).scale(VirtualConveyorItems.SPEED));
+		return true;
+	}
+
+	/**
+	 * @return true if the item was inserted completely
+	 */
+	protected final boolean insertIntoOutput(VirtualItem item, IItemHandler output)
+	{
+		ItemStack remaining = ItemHandlerHelper.insertItem(output, item.stack, false);
+		if(remaining.isEmpty())
+			return true;
+		if(remaining.getCount()!=item.stack.getCount())
+		{
+			item.stack = remaining;
+			onVirtualItemsChanged();
+		}
+		return false;
+	}
+
+	protected final boolean acceptVirtual(VirtualItem item, float progress)
+	{
+		if(!virtualItems.hasSpaceAt(progress))
+			return false;
+		item.progress = progress;
+		item.exit = null;
+		item.reachedCentre = false;
+		onVirtualItemEntered(item);
+		virtualItems.insert(item);
+		onVirtualItemsChanged();
+		return true;
+	}
+
+	private float getEntryProgress(Direction movingIn)
+	{
+		// Items entering from the back start at the beginning of the belt, items entering from the side in the middle
+		Direction facing = getFacing();
+		return .5f-.5f*(movingIn.getStepX()*facing.getStepX()+movingIn.getStepZ()*facing.getStepZ());
+	}
+
+	protected final ItemEntity spawnItemEntity(VirtualItem item, Vec3 motion)
+	{
+		return spawnItemEntity(item, getVirtualItemPosition(item.progress, item.exit), motion);
+	}
+
+	protected final ItemEntity spawnItemEntity(VirtualItem item, Vec3 pos, Vec3 motion)
+	{
+		Level level = tile.getLevel();
+		ItemEntity entity = new ItemEntity(level, pos.x, pos.y, pos.z, item.stack);
+		entity.setDeltaMovement(motion);
+		level.addFreshEntity(entity);
+		return entity;
+	}
+
+	private void tickVirtualItems()
+	{
+		// The client stops moving the items when it is told the belt stopped
+		if(virtualItems.isMoving()!=isActive())
+			onVirtualItemsChanged();
+		if(!virtualItems.isMoving())
+			return;
+		long now = tile.getLevel().getGameTime();
+		List<VirtualItem> items = virtualItems.getItems();
+		boolean changed = false;
+		float limit = 1;
+		for(int i = 0; i < items.size(); )
+		{
+			VirtualItem item = items.get(i);
+			if(item.lastMoved!=now)
+			{
+				item.lastMoved = now;
+				float oldProgress = item.progress;
+				item.progress = Math.max(oldProgress, Math.min(oldProgress+VirtualConveyorItems.SPEED, limit));
+				if(tryOutputVirtual(item, oldProgress))
+				{
+					items.remove(i);
+					changed = true;
+					continue;
+				}
+			}
+			limit = item.progress-VirtualConveyorItems.SPACING;
+			++i;
+		}
+		if(changed)
+			onVirtualItemsChanged();
+	}
+
+	/**
+	 * Turns all items on this belt into item entities. Released entities are not picked up by the belt again.
+	 */
+	public void releaseVirtualItems()
+	{
+		if(virtualItems.isEmpty())
+			return;
+		if(!tile.getLevel().isClientSide)
+			for(VirtualItem item : virtualItems.getItems())
+				spawnItemEntity(item, Vec3.ZERO).getPersistentData().putBoolean(RELEASED_KEY, true);
+		virtualItems.getItems().clear();
+		onVirtualItemsChanged();
+	}
+
+	private boolean tryAbsorbItem(ItemEntity entity)
+	{
+		BlockPos pos = tile.getBlockPos();
+		// Items dropped by a belt are not absorbed in their first tick, when they can still be on top of the old belt
+		if(tile.getLevel().isClientSide||!entity.isAlive()||entity.tickCount <= 1||!pos.equals(entity.blockPosition()))
+			return false;
+		if(entity.getPersistentData().getBoolean(RELEASED_KEY)||!usesVirtualTransport())
+			return false;
+		Direction facing = getFacing();
+		float progress = Mth.clamp((float)(
+				(entity.getX()-pos.getX()-.5)*facing.getStepX()+(entity.getZ()-pos.getZ()-.5)*facing.getStepZ()+.5
+		), 0, 1);
+		if(!virtualItems.hasSpaceAt(progress))
+			return false;
+		acceptVirtual(new VirtualItem(entity.getItem().copy(), progress), progress);
+		entity.discard();
+		return true;
+	}
+
+	protected void onVirtualItemsChanged()
+	{
+		if(!tile.getLevel().isClientSide)
+			virtualItems.setMoving(isActive());
+		if(tile instanceof IEBaseBlockEntity ieBE)
+			ieBE.markFieldsForSync();
+		tile.setChanged();
 	}
 
 	/* ============ NBT ============ */
@@ -137,6 +515,10 @@ public abstract class ConveyorBase implements IConveyorBelt
 			nbt.putInt("dyeColour", dyeColour.getId());
 		if(cover!=Blocks.AIR)
 			nbt.putString("cover", ForgeRegistries.BLOCKS.getKey(cover).toString());
+		if(!virtualItems.isEmpty())
+			nbt.put("virtualItems", virtualItems.save());
+		if(!virtualItems.isMoving())
+			nbt.putBoolean("virtualItemsStopped", true);
 		return nbt;
 	}
 
@@ -150,6 +532,8 @@ public abstract class ConveyorBase implements IConveyorBelt
 			dyeColour = null;
 		if(nbt.contains("cover", Tag.TAG_STRING))
 			cover = ForgeRegistries.BLOCKS.getValue(new ResourceLocation(nbt.getString("cover")));
+		virtualItems.load(nbt.getList("virtualItems", Tag.TAG_COMPOUND));
+		virtualItems.setMoving(!nbt.getBoolean("virtualItemsStopped"));
 	}
 
 	/* ============ RENDERING ============ */
@@ -0,0 +1,150 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.blocks.metal.conveyors;
+
+import blusunrize.immersiveengineering.api.tool.conveyor.ConveyorHandler.ConveyorDirection;
+import blusunrize.immersiveengineering.api.tool.conveyor.ConveyorHandler.IConveyorBlockEntity;
+import blusunrize.immersiveengineering.api.tool.conveyor.IConveyorBelt;
+import blusunrize.immersiveengineering.api.utils.SafeChunkUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ChunkHolder.FullChunkStatus;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The resolved downstream neighbours of a conveyor, so the checks done for every item entity on the belt in every tick
+ * do not need to look up chunks and block entities. The positions only depend on the facing and direction of the
+ * conveyor and are checked against those on every access. The resolved block entities are only used on the server,
+ * where they are invalidated by neighbour updates, by conveyors being loaded or placed nearby (see
+ * {@link ConveyorBase#onConveyorLoaded}) and by the cached output conveyor being removed. Chunks that were not loaded or
+ * not entity ticking when resolving or last checked cause the neighbours to be resolved again, at most once per tick.
+ */
+class ConveyorNeighbourCache
+{
+	private final ConveyorBase conveyor;
+
+	@Nullable
+	private Direction facing;
+	@Nullable
+	private ConveyorDirection direction;
+	private List<BlockPos> candidates = List.of();
+	private BlockPos outputInventory = BlockPos.ZERO;
+
+	private boolean resolved = false;
+	private long resolvedAt;
+	private boolean missingChunk;
+	// The chunks of all candidates up to and including the one containing the output conveyor
+	private final List<LevelChunk> chunks = new ArrayList<>(2);
+	@Nullable
+	private BlockEntity outputBE;
+	@Nullable
+	private IConveyorBelt outputConveyor;
+
+	ConveyorNeighbourCache(ConveyorBase conveyor)
+	{
+		this.conveyor = conveyor;
+	}
+
+	public void invalidate()
+	{
+		resolved = false;
+	}
+
+	public List<BlockPos> getCandidates()
+	{
+		updatePositions();
+		return candidates;
+	}
+
+	public BlockPos getOutputInventory()
+	{
+		updatePositions();
+		return outputInventory;
+	}
+
+	public boolean isOutputBlocked()
+	{
+		Level level = conveyor.getBlockEntity().getLevel();
+		resolve(level);
+		if(!missingChunk)
+		{
+			for(LevelChunk chunk : chunks)
+				if(!chunk.getFullStatus().isOrAfter(FullChunkStatus.ENTITY_TICKING))
+				{
+					// The chunk may be unloaded and replaced by a new instance, so look it up again next tick
+					missingChunk = true;
+					return true;
+				}
+			return outputConveyor!=null&&outputConveyor.isBlocked();
+		}
+		return true;
+	}
+
+	@Nullable
+	public IConveyorBelt getOutputConveyor()
+	{
+		resolve(conveyor.getBlockEntity().getLevel());
+		return outputConveyor;
+	}
+
+	public boolean hasConveyorAt(BlockPos pos)
+	{
+		resolve(conveyor.getBlockEntity().getLevel());
+		return outputBE!=null&&outputBE.getBlockPos().equals(pos);
+	}
+
+	private void updatePositions()
+	{
+		Direction currentFacing = conveyor.getFacing();
+		ConveyorDirection currentDirection = conveyor.getConveyorDirection();
+		if(currentFacing!=facing||currentDirection!=direction)
+		{
+			facing = currentFacing;
+			direction = currentDirection;
+			candidates = conveyor.computeNextConveyorCandidates();
+			outputInventory = conveyor.getOutputInventory();
+			resolved = false;
+		}
+	}
+
+	private void resolve(Level level)
+	{
+		updatePositions();
+		if(resolved&&(outputBE==null||!outputBE.isRemoved())&&(!missingChunk||resolvedAt==level.getGameTime()))
+			return;
+		chunks.clear();
+		missingChunk = false;
+		outputBE = null;
+		outputConveyor = null;
+		for(BlockPos pos : candidates)
+		{
+			LevelChunk chunk = SafeChunkUtils.getSafeChunk(level, pos);
+			if(chunk==null)
+			{
+				missingChunk = true;
+				break;
+			}
+			chunks.add(chunk);
+			if(chunk.getBlockEntity(pos) instanceof IConveyorBlockEntity<?> convOut)
+			{
+				outputBE = (BlockEntity)convOut;
+				outputConveyor = convOut.getConveyorInstance();
+				break;
+			}
+		}
+		resolved = true;
+		resolvedAt = level.getGameTime();
+	}
+}
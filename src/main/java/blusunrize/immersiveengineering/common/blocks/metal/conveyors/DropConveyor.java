@@ -13,8 +13,10 @@ import blusunrize.immersiveengineering.api.tool.conveyor.ConveyorHandler;
 import blusunrize.immersiveengineering.api.tool.conveyor.ConveyorHandler.ConveyorDirection;
 import blusunrize.immersiveengineering.api.tool.conveyor.ConveyorHandler.IConveyorBlockEntity;
 import blusunrize.immersiveengineering.api.tool.conveyor.IConveyorType;
+import blusunrize.immersiveengineering.api.utils.CapabilityUtils;
 import blusunrize.immersiveengineering.api.utils.ItemUtils;
 import blusunrize.immersiveengineering.client.render.conveyor.BasicConveyorRender;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.VirtualConveyorItems.VirtualItem;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.Direction.Axis;
@@ -23,9 +25,12 @@ import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.Vec3;
 import net.minecraft.world.phys.shapes.BooleanOp;
 import net.minecraft.world.phys.shapes.Shapes;
 import net.minecraft.world.phys.shapes.VoxelShape;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.items.IItemHandler;
 
 import static blusunrize.immersiveengineering.ImmersiveEngineering.MODID;
 
@@ -83,6 +88,53 @@ public class DropConveyor extends ConveyorBase
 			super.handleInsertion(entity, conDir, distX, distZ);
 	}
 
+	@Override
+	public boolean supportsVirtualTransport()
+	{
+		return true;
+	}
+
+	@Override
+	protected boolean tryOutputVirtual(VirtualItem item, float oldProgress)
+	{
+		// Checked once per item rather than by crossing the centre, since items can enter the belt right at the centre
+		if(!item.reachedCentre&&item.progress >= .5f)
+		{
+			item.reachedCentre = true;
+			if(!isPowered())
+			{
+				item.progress = .5f;
+				if(dropVirtual(item))
+					return true;
+			}
+		}
+		return super.tryOutputVirtual(item, oldProgress);
+	}
+
+	private boolean dropVirtual(VirtualItem item)
+	{
+		Level level = getBlockEntity().getLevel();
+		BlockPos posDown = getBlockEntity().getBlockPos().below();
+		Vec3 dropPos = Vec3.atCenterOf(posDown);
+		BlockEntity inventoryTile = level.getBlockEntity(posDown);
+		if(inventoryTile instanceof IConveyorBlockEntity<?> conveyorBelow)
+		{
+			if(conveyorBelow.getConveyorInstance() instanceof ConveyorBase base&&base.usesVirtualTransport())
+				return base.acceptVirtual(item, .5f);
+			spawnItemEntity(item, dropPos, Vec3.ZERO);
+			return true;
+		}
+		LazyOptional<IItemHandler> inventory = CapabilityUtils.findItemHandlerAtPos(level, posDown, Direction.UP, true);
+		if(inventory.isPresent()&&insertIntoOutput(item, inventory.orElseThrow(IllegalStateException::new)))
+			return true;
+		if(isEmptySpace(level, posDown, inventoryTile))
+		{
+			spawnItemEntity(item, dropPos, Vec3.ZERO);
+			return true;
+		}
+		return false;
+	}
+
 	boolean isEmptySpace(Level world, BlockPos pos, BlockEntity tile)
 	{
 		// Special case conveyors, so items can be dropped through covered ones.
@@ -16,6 +16,7 @@ import blusunrize.immersiveengineering.api.tool.conveyor.IConveyorType;
 import blusunrize.immersiveengineering.api.utils.ItemUtils;
 import blusunrize.immersiveengineering.api.utils.SafeChunkUtils;
 import blusunrize.immersiveengineering.client.render.conveyor.SplitConveyorRender;
+import blusunrize.immersiveengineering.common.blocks.metal.conveyors.VirtualConveyorItems.VirtualItem;
 import com.google.common.collect.ImmutableList;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -29,6 +30,7 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.phys.Vec3;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.List;
 
 /**
@@ -104,15 +106,7 @@ public class SplitConveyor extends ConveyorBase
 			{
 				redirect = getOutputFace();
 				entity.getPersistentData().putInt(nbtKey, redirect.ordinal());
-				BlockPos nextPos = getBlockEntity().getBlockPos().relative(this.getOutputFace().getOpposite());
-				if(getBlockEntity().getLevel().hasChunkAt(nextPos))
-				{
-					BlockEntity nextTile = getBlockEntity().getLevel().getBlockEntity(nextPos);
-					if(!(nextTile instanceof IConveyorBlockEntity))
-						nextOutputLeft = !nextOutputLeft;
-					else if(((IConveyorBlockEntity<?>)nextTile).getFacing()!=this.getOutputFace())
-						nextOutputLeft = !nextOutputLeft;
-				}
+				updateNextOutput();
 			}
 		}
 		super.onEntityCollision(entity);
@@ -128,6 +122,53 @@ public class SplitConveyor extends ConveyorBase
 		}
 	}
 
+	private void updateNextOutput()
+	{
+		BlockPos nextPos = getBlockEntity().getBlockPos().relative(this.getOutputFace().getOpposite());
+		if(getBlockEntity().getLevel().hasChunkAt(nextPos))
+		{
+			BlockEntity nextTile = getBlockEntity().getLevel().getBlockEntity(nextPos);
+			if(!(nextTile instanceof IConveyorBlockEntity))
+				nextOutputLeft = !nextOutputLeft;
+			else if(((IConveyorBlockEntity<?>)nextTile).getFacing()!=this.getOutputFace())
+				nextOutputLeft = !nextOutputLeft;
+		}
+	}
+
+	@Override
+	public boolean supportsVirtualTransport()
+	{
+		return true;
+	}
+
+	@Override
+	protected void onVirtualItemEntered(VirtualItem item)
+	{
+		item.exit = getOutputFace();
+		updateNextOutput();
+	}
+
+	@Override
+	protected boolean tryOutputVirtual(VirtualItem item, float oldProgress)
+	{
+		if(item.progress < 1)
+			return false;
+		Direction exit = item.exit!=null?item.exit: getOutputFace();
+		BlockPos outputPos = getBlockEntity().getBlockPos().relative(exit);
+		return outputVirtual(item, exit, outputPos, ImmutableList.of(outputPos, outputPos.below()));
+	}
+
+	@Override
+	public Vec3 getVirtualItemPosition(float progress, @Nullable Direction exit)
+	{
+		// Items move to the center of the belt first, then towards the side they leave through
+		if(progress <= .5f||exit==null)
+			return super.getVirtualItemPosition(progress, exit);
+		BlockPos pos = getBlockEntity().getBlockPos();
+		double offset = progress-.5;
+		return new Vec3(pos.getX()+.5+exit.getStepX()*offset, pos.getY()+.125, pos.getZ()+.5+exit.getStepZ()*offset);
+	}
+
 	@Override
 	public Direction[] sigTransportDirections()
 	{
@@ -169,6 +210,13 @@ public class SplitConveyor extends ConveyorBase
 		nextOutputLeft = nbt.getBoolean("nextLeft");
 	}
 
+	@Override
+	protected boolean hasFixedOutput()
+	{
+		// The output side alternates between items
+		return false;
+	}
+
 	@Override
 	public List<BlockPos> getNextConveyorCandidates()
 	{
@@ -213,7 +213,7 @@ public class VerticalConveyor extends ConveyorBase
 	}
 
 	@Override
-	public List<BlockPos> getNextConveyorCandidates()
+	protected List<BlockPos> computeNextConveyorCandidates()
 	{
 		BlockPos pos = getBlockEntity().getBlockPos();
 		return ImmutableList.of(
@@ -0,0 +1,237 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.blocks.metal.conveyors;
+
+import blusunrize.immersiveengineering.common.gui.sync.GenericDataSerializers;
+import blusunrize.immersiveengineering.common.gui.sync.GenericDataSerializers.DataSerializer;
+import net.minecraft.core.Direction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.ItemStack;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The items on a conveyor using virtual transport, see {@link ConveyorBase#usesVirtualTransport}. Items are stored as
+ * stacks with their progress along the belt rather than as item entities, ordered by progress with the item furthest
+ * along first. The client only receives the list when items enter or leave the belt and extrapolates the movement in
+ * between.
+ */
+public class VirtualConveyorItems
+{
+	// Matches the speed of item entities, see IConveyorBelt#getDirection
+	public static final float SPEED = .1f*1.15f;
+	public static final float SPACING = .25f;
+	private static final long UNKNOWN_TIME = Long.MIN_VALUE;
+	public static final DataSerializer<List<VirtualItem>> SERIALIZER = GenericDataSerializers.register(
+			VirtualConveyorItems::read, VirtualConveyorItems::write, VirtualConveyorItems::copy, VirtualConveyorItems::matches
+	);
+
+	private final List<VirtualItem> items = new ArrayList<>();
+	// Whether the belt is running, the client does not move the items while it is not
+	private boolean moving = true;
+	private long syncedAt = UNKNOWN_TIME;
+
+	// Force classloading/static init, so the serializer gets the same ID on both sides
+	public static void init()
+	{
+	}
+
+	public List<VirtualItem> getItems()
+	{
+		return items;
+	}
+
+	public boolean isEmpty()
+	{
+		return items.isEmpty();
+	}
+
+	public boolean hasSpaceAt(float progress)
+	{
+		for(VirtualItem item : items)
+			if(Math.abs(item.progress-progress) < SPACING)
+				return false;
+		return true;
+	}
+
+	public void insert(VirtualItem item)
+	{
+		int index = 0;
+		while(index < items.size()&&items.get(index).progress >= item.progress)
+			++index;
+		items.add(index, item);
+	}
+
+	public boolean isMoving()
+	{
+		return moving;
+	}
+
+	/**
+	 * @return true if this changed the state
+	 */
+	public boolean setMoving(boolean moving)
+	{
+		if(this.moving==moving)
+			return false;
+		this.moving = moving;
+		syncedAt = UNKNOWN_TIME;
+		return true;
+	}
+
+	public void setFromSync(List<VirtualItem> synced)
+	{
+		items.clear();
+		items.addAll(copy(synced));
+		syncedAt = UNKNOWN_TIME;
+	}
+
+	/**
+	 * Client side extrapolation of where the items are now, assuming none of them left the belt since the last sync and
+	 * the belt did not stop
+	 *
+	 * @param time the current game time, including partial ticks
+	 */
+	public float[] getPredictedProgress(double time)
+	{
+		if(syncedAt==UNKNOWN_TIME)
+			syncedAt = (long)time;
+		double moved = moving?Math.max(0, time-syncedAt)*SPEED: 0;
+		float[] result = new float[items.size()];
+		float limit = 1;
+		for(int i = 0; i < result.length; ++i)
+		{
+			float synced = items.get(i).progress;
+			result[i] = (float)Math.max(synced, Math.min(synced+moved, limit));
+			limit = result[i]-SPACING;
+		}
+		return result;
+	}
+
+	public ListTag save()
+	{
+		ListTag list = new ListTag();
+		for(VirtualItem item : items)
+		{
+			CompoundTag tag = item.stack.save(new CompoundTag());
+			tag.putFloat("progress", item.progress);
+			if(item.exit!=null)
+				tag.putByte("exit", (byte)item.exit.get3DDataValue());
+			if(item.reachedCentre)
+				tag.putBoolean("reachedCentre", true);
+			list.add(tag);
+		}
+		return list;
+	}
+
+	public void load(ListTag list)
+	{
+		items.clear();
+		for(int i = 0; i < list.size(); ++i)
+		{
+			CompoundTag tag = list.getCompound(i);
+			ItemStack stack = ItemStack.of(tag);
+			if(stack.isEmpty())
+				continue;
+			VirtualItem item = new VirtualItem(stack, tag.getFloat("progress"));
+			if(tag.contains("exit", Tag.TAG_BYTE))
+				item.exit = Direction.from3DDataValue(tag.getByte("exit"));
+			item.reachedCentre = tag.getBoolean("reachedCentre");
+			insert(item);
+		}
+		syncedAt = UNKNOWN_TIME;
+	}
+
+	public static List<VirtualItem> read(FriendlyByteBuf buffer)
+	{
+		int count = buffer.readVarInt();
+		List<VirtualItem> result = new ArrayList<>(count);
+		for(int i = 0; i < count; ++i)
+		{
+			VirtualItem item = new VirtualItem(buffer.readItem(), buffer.readFloat());
+			byte exit = buffer.readByte();
+			if(exit >= 0)
+				item.exit = Direction.from3DDataValue(exit);
+			result.add(item);
+		}
+		return result;
+	}
+
+	public static void write(FriendlyByteBuf buffer, List<VirtualItem> items)
+	{
+		buffer.writeVarInt(items.size());
+		for(VirtualItem item : items)
+		{
+			buffer.writeItem(item.stack);
+			buffer.writeFloat(item.progress);
+			buffer.writeByte(item.exit!=null?item.exit.get3DDataValue(): -1);
+		}
+	}
+
+	public static List<VirtualItem> copy(List<VirtualItem> items)
+	{
+		List<VirtualItem> result = new ArrayList<>(items.size());
+		for(VirtualItem item : items)
+		{
+			VirtualItem copy = new VirtualItem(item.stack.copy(), item.progress);
+			copy.exit = item.exit;
+			result.add(copy);
+		}
+		return result;
+	}
+
+	public static boolean matches(List<VirtualItem> a, List<VirtualItem> b)
+	{
+		if(a.size()!=b.size())
+			return false;
+		for(int i = 0; i < a.size(); ++i)
+		{
+			VirtualItem itemA = a.get(i);
+			VirtualItem itemB = b.get(i);
+			if(itemA.progress!=itemB.progress||itemA.exit!=itemB.exit||!ItemStack.matches(itemA.stack, itemB.stack))
+				return false;
+		}
+		return true;
+	}
+
+	public static class VirtualItem
+	{
+		ItemStack stack;
+		float progress;
+		// The side the item leaves through, for conveyors that do not output everything to the front
+		@Nullable
+		Direction exit;
+		// Items passed on to the next belt must not be moved a second time in the same tick
+		long lastMoved = UNKNOWN_TIME;
+		// Whether the item was at or past the centre of the current belt, which is where drop conveyors act
+		boolean reachedCentre;
+
+		public VirtualItem(ItemStack stack, float progress)
+		{
+			this.stack = stack;
+			this.progress = progress;
+		}
+
+		public ItemStack getStack()
+		{
+			return stack;
+		}
+
+		@Nullable
+		public Direction getExit()
+		{
+			return exit;
+		}
+	}
+}
@@ -18,6 +18,7 @@ import blusunrize.immersiveengineering.common.blocks.metal.CapacitorBlockEntity;
 import blusunrize.immersiveengineering.common.config.CachedConfig.*;
 import blusunrize.immersiveengineering.common.register.IEBlockEntities;
 import blusunrize.immersiveengineering.common.wires.IEWireTypes.IEWireType;
+import blusunrize.immersiveengineering.common.wires.WireCollisions;
 import blusunrize.immersiveengineering.common.world.IEWorldGen;
 import com.electronwill.nightconfig.core.Config;
 import com.google.common.base.Preconditions;
@@ -241,6 +242,18 @@ public class IEServerConfig
 				floodlight_maximumStorage = addPositive(builder, "max_storage", 80, "How much Flux the floodlight can hold (must be at least 10x the power draw)");
 				builder.pop();
 			}
+			{
+				builder.push("conveyor");
+				conveyor_virtualTransport = builder
+						.comment("Set this to true to move items on basic, splitting and dropping conveyors as data instead of item entities.",
+								"Items become entities again when they leave a line of such conveyors or when a player right-clicks the conveyor with an empty hand.")
+						.define("virtualTransport", false);
+				builder.pop();
+			}
+			multiblock_progressSyncInterval = builder
+					.comment("The minimum number of ticks between two progress updates sent to clients for a running multiblock machine.",
+							"Higher values save bandwidth, but make the animations of machines like the metal press less smooth. Processes being added or finished are always sent immediately.")
+					.defineInRange("multiblock_progressSyncInterval", 1, 1, 100);
 			metalPressConfig = addMachineEnergyTimeModifiers(builder, "metal press");
 			crusherConfig = addMachineEnergyTimeModifiers(builder, "crusher");
 			squeezerConfig = addMachineEnergyTimeModifiers(builder, "squeezer");
@@ -394,6 +407,12 @@ public class IEServerConfig
 		public final IntValue floodlight_energyDraw;
 		public final IntValue floodlight_maximumStorage;
 
+		//Conveyors
+		public final BooleanValue conveyor_virtualTransport;
+
+		//Multiblocks
+		public final IntValue multiblock_progressSyncInterval;
+
 
 		//Multiblock Recipes
 		public final MachineRecipeConfig<MetalPressRecipe> metalPressConfig;
@@ -447,6 +466,9 @@ public class IEServerConfig
 			retrogen_log_remaining = builder
 					.comment("Set this to false to disable the logging of the chunks that are still left to retrogen.")
 					.define("retrogen_log_remaining", true);
+			retrogen_budget = builder
+					.comment("The time in microseconds IE may spend on retrogen per tick in each dimension. At least one chunk is generated per tick regardless.")
+					.defineInRange("retrogen_budget", 2000, 0, 50000);
 			builder.pop();
 		}
 
@@ -455,6 +477,7 @@ public class IEServerConfig
 		public final BooleanValue retrogen_log_flagChunk;
 		public final BooleanValue retrogen_log_remaining;
 		public final ConfigValue<String> retrogen_key;
+		public final IntValue retrogen_budget;
 
 		public static class OreConfig
 		{
@@ -655,6 +678,8 @@ public class IEServerConfig
 		ExcavatorHandler.mineralVeinYield = IEServerConfig.MACHINES.excavator_yield.get();
 		ExcavatorHandler.initialVeinDepletion = IEServerConfig.MACHINES.excavator_initial_depletion.get();
 		ExcavatorHandler.mineralNoiseThreshold = IEServerConfig.MACHINES.excavator_theshold.get();
+		WireCollisions.enableWireDamage = IEServerConfig.WIRES.enableWireDamage.get();
+		WireCollisions.blocksBreakWires = IEServerConfig.WIRES.blocksBreakWires.get();
 		IEWorldGen.onConfigUpdated();
 	}
 }
@@ -0,0 +1,215 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.crafting;
+
+import blusunrize.immersiveengineering.common.crafting.ArcRecyclingCalculator.RecyclingResult;
+import blusunrize.immersiveengineering.common.util.IELogger;
+import com.mojang.datafixers.util.Pair;
+import net.minecraft.core.Registry;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.storage.LevelResource;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores the results of the arc recycling calculation in the world directory, along with a fingerprint of everything
+ * the calculation depends on. If the fingerprint still matches on the next start, the stored results are used instead
+ * of running the calculation again.
+ */
+public class ArcRecyclingCache
+{
+	private static final int MAGIC = 0x49454152;
+	private static final int FORMAT_VERSION = 2;
+
+	public static Path getCacheFile(MinecraftServer server)
+	{
+		return server.getWorldPath(LevelResource.ROOT).resolve("data").resolve("immersiveengineering_arc_recycling.bin");
+	}
+
+	/**
+	 * @return the stored results, or null if there are none for the given fingerprint
+	 */
+	@Nullable
+	public static List<RecyclingResult> load(Path file, byte[] fingerprint)
+	{
+		if(!Files.isRegularFile(file))
+			return null;
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file)))))
+		{
+			List<StoredResult> stored = read(in, fingerprint);
+			if(stored==null)
+				return null;
+			List<RecyclingResult> results = new ArrayList<>(stored.size());
+			for(StoredResult result : stored)
+				results.add(result.toResult());
+			return results;
+		} catch(IOException|RuntimeException x)
+		{
+			IELogger.logger.warn("Failed to read arc recycling cache from {}, recalculating", file, x);
+			return null;
+		}
+	}
+
+	public static void save(Path file, byte[] fingerprint, List<RecyclingResult> results)
+	{
+		try
+		{
+			Files.createDirectories(file.getParent());
+			// Write to a temporary file first so an interrupted write can not leave a truncated cache behind
+			Path tempFile = file.resolveSibling(file.getFileName()+".tmp");
+			try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile)))))
+			{
+				write(out, fingerprint, results.stream().map(StoredResult::of).toList());
+			}
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch(IOException x)
+		{
+			IELogger.logger.warn("Failed to write arc recycling cache to {}", file, x);
+		}
+	}
+
+	static void write(DataOutput out, byte[] fingerprint, List<StoredResult> results) throws IOException
+	{
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeShort(fingerprint.length);
+		out.write(fingerprint);
+		out.writeInt(results.size());
+		for(StoredResult result : results)
+		{
+			writeStack(out, result.input());
+			out.writeShort(result.outputs().size());
+			for(Pair<StoredStack, Double> output : result.outputs())
+			{
+				writeStack(out, output.getFirst());
+				out.writeDouble(output.getSecond());
+			}
+		}
+	}
+
+	@Nullable
+	static List<StoredResult> read(DataInput in, byte[] fingerprint) throws IOException
+	{
+		if(in.readInt()!=MAGIC||in.readInt()!=FORMAT_VERSION)
+			return null;
+		byte[] storedFingerprint = new byte[in.readUnsignedShort()];
+		in.readFully(storedFingerprint);
+		if(!Arrays.equals(fingerprint, storedFingerprint))
+			return null;
+		int numResults = in.readInt();
+		List<StoredResult> results = new ArrayList<>(numResults);
+		for(int i = 0; i < numResults; ++i)
+		{
+			StoredStack input = readStack(in);
+			int numOutputs = in.readUnsignedShort();
+			List<Pair<StoredStack, Double>> outputs = new ArrayList<>(numOutputs);
+			for(int j = 0; j < numOutputs; ++j)
+				outputs.add(Pair.of(readStack(in), in.readDouble()));
+			results.add(new StoredResult(input, outputs));
+		}
+		return results;
+	}
+
+	private static void writeStack(DataOutput out, StoredStack stack) throws IOException
+	{
+		out.writeUTF(stack.item().toString());
+		writeVarInt(out, stack.count());
+		out.writeBoolean(stack.tag()!=null);
+		if(stack.tag()!=null)
+			NbtIo.write(stack.tag(), out);
+	}
+
+	private static StoredStack readStack(DataInput in) throws IOException
+	{
+		ResourceLocation name = new ResourceLocation(in.readUTF());
+		int count = readVarInt(in);
+		CompoundTag tag = in.readBoolean()?NbtIo.read(in): null;
+		return new StoredStack(name, count, tag);
+	}
+
+	private static void writeVarInt(DataOutput out, int value) throws IOException
+	{
+		while((value&-128)!=0)
+		{
+			out.writeByte(value&127|128);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInput in) throws IOException
+	{
+		int value = 0;
+		for(int shift = 0; shift < 35; shift += 7)
+		{
+			byte b = in.readByte();
+			value |= (b&127)<<shift;
+			if((b&128)==0)
+				return value;
+		}
+		throw new IOException("VarInt too long");
+	}
+
+	/**
+	 * A stack as it is stored in the cache, so the file format does not depend on the item registry
+	 */
+	record StoredStack(ResourceLocation item, int count, @Nullable CompoundTag tag)
+	{
+		static StoredStack of(ItemStack stack)
+		{
+			return new StoredStack(Registry.ITEM.getKey(stack.getItem()), stack.getCount(), stack.getTag());
+		}
+
+		ItemStack toStack() throws IOException
+		{
+			Optional<Item> item = Registry.ITEM.getOptional(this.item);
+			// The fingerprint covers the installed mods, so this only happens if the file was modified or corrupted
+			if(item.isEmpty())
+				throw new IOException("Unknown item "+this.item);
+			ItemStack stack = new ItemStack(item.get(), count);
+			if(tag!=null)
+				stack.setTag(tag.copy());
+			return stack;
+		}
+	}
+
+	record StoredResult(StoredStack input, List<Pair<StoredStack, Double>> outputs)
+	{
+		static StoredResult of(RecyclingResult result)
+		{
+			List<Pair<StoredStack, Double>> outputs = new ArrayList<>(result.outputs().size());
+			for(Pair<ItemStack, Double> output : result.outputs())
+				outputs.add(Pair.of(StoredStack.of(output.getFirst()), output.getSecond()));
+			return new StoredResult(StoredStack.of(result.input()), outputs);
+		}
+
+		RecyclingResult toResult() throws IOException
+		{
+			List<Pair<ItemStack, Double>> stacks = new ArrayList<>(outputs.size());
+			for(Pair<StoredStack, Double> output : outputs)
+				stacks.add(Pair.of(output.getFirst().toStack(), output.getSecond()));
+			return new RecyclingResult(input.toStack(), stacks);
+		}
+	}
+}
@@ -14,17 +14,23 @@ import blusunrize.immersiveengineering.api.Lib;
 import blusunrize.immersiveengineering.api.crafting.ArcFurnaceRecipe;
 import blusunrize.immersiveengineering.api.crafting.ArcRecyclingChecker;
 import blusunrize.immersiveengineering.api.crafting.IngredientWithSize;
+import blusunrize.immersiveengineering.api.crafting.cache.CachedRecipeList;
 import blusunrize.immersiveengineering.common.util.IELogger;
-import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.mojang.datafixers.util.Pair;
+import net.minecraft.Util;
 import net.minecraft.core.NonNullList;
+import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
+import net.minecraft.network.protocol.game.ClientboundUpdateRecipesPacket;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.crafting.Recipe;
@@ -33,42 +39,93 @@ import net.minecraftforge.common.util.Lazy;
 import net.minecraftforge.event.TickEvent.ServerTickEvent;
 import net.minecraftforge.event.server.ServerStartedEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.forgespi.language.IModInfo;
 import net.minecraftforge.items.ItemHandlerHelper;
 import net.minecraftforge.registries.ForgeRegistries;
 import net.minecraftforge.server.ServerLifecycleHooks;
 import org.apache.commons.lang3.mutable.Mutable;
 import org.apache.commons.lang3.mutable.MutableObject;
 
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
+/**
+ * Generates arc furnace recipes recycling the outputs of crafting recipes. The calculation runs on a background
+ * executor, working on a snapshot of the relevant recipes taken on the server thread. Results are published on the
+ * server thread once the calculation is done, unless another reload has started a newer calculation in the meantime.
+ */
 public class ArcRecyclingCalculator
 {
-	private final List<Recipe<?>> recipeList;
+	// Incremented for every recipe reload, calculations for older reloads are cancelled
+	private static final AtomicInteger LATEST_CALCULATION = new AtomicInteger();
+
+	private final List<RecipeSnapshot> recipeList;
 	private final long startTime;
 	private final ArcRecyclingChecker checker;
 	private final RegistryAccess tags;
+	private final BooleanSupplier isCancelled;
 
 	public ArcRecyclingCalculator(Collection<Recipe<?>> allRecipes, RegistryAccess tags)
+	{
+		this(allRecipes, tags, () -> false);
+	}
+
+	/**
+	 * Needs to be called on the server thread, {@link #run} can be called on any thread afterwards
+	 */
+	public ArcRecyclingCalculator(Collection<Recipe<?>> allRecipes, RegistryAccess tags, BooleanSupplier isCancelled)
 	{
 		this.tags = tags;
+		this.isCancelled = isCancelled;
 		this.startTime = System.currentTimeMillis();
 		Pair<Predicate<Recipe<?>>, ArcRecyclingChecker> pair = ArcRecyclingChecker.assembleRecyclingFilter(tags);
 		this.checker = pair.getSecond();
 		this.recipeList = allRecipes.stream()
 				.filter(pair.getFirst())
-				.collect(Collectors.toList());
+				.map(RecipeSnapshot::of)
+				.toList();
 	}
 
 	public List<ArcFurnaceRecipe> run()
 	{
-		RecipeIterator iterator = new RecipeIterator(recipeList, checker, tags);
+		return makeRecipes(calculate());
+	}
+
+	/**
+	 * Like {@link #run}, but reuses the results stored in the given file if nothing they depend on has changed
+	 */
+	public List<ArcFurnaceRecipe> runCached(Path cacheFile)
+	{
+		byte[] fingerprint = computeFingerprint();
+		List<RecyclingResult> results = ArcRecyclingCache.load(cacheFile, fingerprint);
+		if(results!=null)
+			IELogger.info("Loaded "+results.size()+" Arc Recycling recipes from cache, took "
+					+(System.currentTimeMillis()-startTime)+" milliseconds");
+		else
+		{
+			results = calculate();
+			ArcRecyclingCache.save(cacheFile, fingerprint, results);
+		}
+		return makeRecipes(results);
+	}
+
+	private List<RecyclingResult> calculate()
+	{
+		RecipeIterator iterator = new RecipeIterator(recipeList, checker, tags, isCancelled);
 		iterator.process();
 		int timeout = 0;
 		while(!iterator.nonValidated.isEmpty()&&timeout++ < (iterator.invalidCount*10))
 		{
+			checkCancelled(isCancelled);
 			ArrayList<RecyclingCalculation> newlyValid = new ArrayList<>();
 			for(RecyclingCalculation valid : iterator.validated)
 				for(ItemStack key : iterator.nonValidated.keySet())
@@ -84,101 +141,220 @@ public class ArcRecyclingCalculator
 			iterator.nonValidated.values().removeAll(newlyValid);
 			iterator.validated.addAll(newlyValid);
 		}
-		List<ArcFurnaceRecipe> generatedRecipes = new ArrayList<>();
+		List<RecyclingResult> generatedRecipes = new ArrayList<>();
 		Set<String> finishedRecycles = new HashSet<>();
 		for(RecyclingCalculation valid : iterator.validated)
 			if(finishedRecycles.add(valid.stack.toString())&&!valid.outputs.isEmpty())
-				generatedRecipes.add(makeRecipe(valid));
+				generatedRecipes.add(valid.toResult());
 		for(RecyclingCalculation invalid : Sets.newHashSet(iterator.nonValidated.values()))
 			if(finishedRecycles.add(invalid.stack.toString())&&!invalid.outputs.isEmpty())
 			{
 				IELogger.info("Couldn't fully analyze "+invalid.stack+", missing knowledge for "+invalid.queriedSubcomponents);
-				generatedRecipes.add(makeRecipe(invalid));
+				generatedRecipes.add(invalid.toResult());
 			}
 		IELogger.info("Finished recipe profiler for Arc Recycling, took "
 				+(System.currentTimeMillis()-startTime)+" milliseconds");
 		return generatedRecipes;
 	}
 
-	public static Mutable<List<ArcFurnaceRecipe>> makeFuture()
+	/**
+	 * Hashes everything the calculation depends on: the snapshot of the recipes (including the stacks their ingredients
+	 * resolve to), all item tags, the mod preference for outputs and the installed mods, which cover changes to the
+	 * recycling filters registered in code.
+	 */
+	private byte[] computeFingerprint()
+	{
+		Hasher hasher = Hashing.sha256().newHasher();
+		List<RecipeSnapshot> sortedRecipes = new ArrayList<>(recipeList);
+		sortedRecipes.sort(Comparator.comparing(snapshot -> snapshot.recipe().getId()));
+		for(RecipeSnapshot recipe : sortedRecipes)
+		{
+			hasher.putString(recipe.recipe().getId().toString(), StandardCharsets.UTF_8);
+			hashStack(hasher, recipe.result());
+			hasher.putBoolean(recipe.hasInputs());
+			hasher.putInt(recipe.inputs().size());
+			for(ItemStack[] input : recipe.inputs())
+			{
+				hasher.putInt(input.length);
+				for(ItemStack stack : input)
+					hashStack(hasher, stack);
+			}
+		}
+		Registry<Item> items = tags.registryOrThrow(Registry.ITEM_REGISTRY);
+		items.getTags()
+				.sorted(Comparator.comparing(tag -> tag.getFirst().location()))
+				.forEachOrdered(tag -> {
+					hasher.putString(tag.getFirst().location().toString(), StandardCharsets.UTF_8);
+					tag.getSecond().stream()
+							.map(holder -> items.getKey(holder.value()))
+							.filter(Objects::nonNull)
+							.sorted()
+							.forEachOrdered(name -> hasher.putString(name.toString(), StandardCharsets.UTF_8));
+				});
+		for(String mod : IEApi.modPreference)
+			hasher.putString(mod, StandardCharsets.UTF_8);
+		ModList.get().getMods().stream()
+				.sorted(Comparator.comparing(IModInfo::getModId))
+				.forEachOrdered(mod -> hasher
+						.putString(mod.getModId(), StandardCharsets.UTF_8)
+						.putString(mod.getVersion().toString(), StandardCharsets.UTF_8));
+		return hasher.hash().asBytes();
+	}
+
+	private static void hashStack(Hasher hasher, ItemStack stack)
+	{
+		hasher.putString(String.valueOf(Registry.ITEM.getKey(stack.getItem())), StandardCharsets.UTF_8);
+		hasher.putInt(stack.getCount());
+		hasher.putString(String.valueOf(stack.getTag()), StandardCharsets.UTF_8);
+	}
+
+	private static void checkCancelled(BooleanSupplier isCancelled)
+	{
+		if(isCancelled.getAsBoolean())
+			throw new CancellationException();
+	}
+
+	/**
+	 * Starts a calculation on the first server tick after the current recipe reload. The returned future completes on
+	 * the server thread, at which point cached recipe lists are invalidated and the new recipes are sent to all players.
+	 */
+	public static CompletableFuture<List<ArcFurnaceRecipe>> makeFuture()
 	{
-		Mutable<List<ArcFurnaceRecipe>> result = new MutableObject<>();
+		final int calculationId = LATEST_CALCULATION.incrementAndGet();
+		final BooleanSupplier isSuperseded = () -> LATEST_CALCULATION.get()!=calculationId;
+		CompletableFuture<List<ArcFurnaceRecipe>> result = new CompletableFuture<>();
 		Mutable<Object> eventListener = new MutableObject<>();
 		eventListener.setValue(new Object()
 		{
+			private boolean started = false;
+
 			@SubscribeEvent
 			public void onServerStarted(ServerStartedEvent ev)
 			{
-				fillInRecipes(ev.getServer());
+				startCalculation(ev.getServer());
 			}
 
 			@SubscribeEvent
 			public void onServerTick(ServerTickEvent ev)
 			{
-				fillInRecipes(ServerLifecycleHooks.getCurrentServer());
+				startCalculation(ServerLifecycleHooks.getCurrentServer());
 			}
 
-			private void fillInRecipes(MinecraftServer server)
+			private void startCalculation(MinecraftServer server)
 			{
-				Preconditions.checkState(result.getValue()==null);
-				Collection<Recipe<?>> recipes = server.getRecipeManager().getRecipes();
-				ArcRecyclingCalculator calculator = new ArcRecyclingCalculator(recipes, server.registryAccess());
-				result.setValue(calculator.run());
+				if(started)
+					return;
+				started = true;
 				MinecraftForge.EVENT_BUS.unregister(eventListener.getValue());
+				if(isSuperseded.getAsBoolean())
+				{
+					result.cancel(false);
+					return;
+				}
+				Collection<Recipe<?>> recipes = server.getRecipeManager().getRecipes();
+				ArcRecyclingCalculator calculator = new ArcRecyclingCalculator(
+						recipes, server.registryAccess(), isSuperseded
+				);
+				Path cacheFile = ArcRecyclingCache.getCacheFile(server);
+				CompletableFuture.supplyAsync(() -> calculator.runCached(cacheFile), Util.backgroundExecutor())
+						.whenComplete((generated, error) -> server.execute(() -> publish(server, generated, error)));
+			}
+
+			private void publish(MinecraftServer server, List<ArcFurnaceRecipe> generated, Throwable error)
+			{
+				if(error!=null||isSuperseded.getAsBoolean())
+				{
+					if(error!=null&&!(error.getCause() instanceof CancellationException))
+						IELogger.logger.error("Failed to generate arc recycling recipes", error);
+					result.cancel(false);
+					return;
+				}
+				result.complete(generated);
+				CachedRecipeList.invalidateAll();
+				server.getPlayerList().broadcastAll(
+						new ClientboundUpdateRecipesPacket(server.getRecipeManager().getRecipes())
+				);
 			}
 		});
 		MinecraftForge.EVENT_BUS.register(eventListener.getValue());
 		return result;
 	}
 
-	private ArcRecyclingRecipe makeRecipe(RecyclingCalculation calculation)
+	private List<ArcFurnaceRecipe> makeRecipes(List<RecyclingResult> results)
 	{
-		ResourceLocation id = new ResourceLocation(Lib.MODID, "recycling/"+ForgeRegistries.ITEMS.getKey(calculation.stack.getItem()).getPath());
+		List<ArcFurnaceRecipe> recipes = new ArrayList<>(results.size());
+		for(RecyclingResult result : results)
+			recipes.add(makeRecipe(result));
+		return recipes;
+	}
+
+	private ArcRecyclingRecipe makeRecipe(RecyclingResult result)
+	{
+		ResourceLocation id = new ResourceLocation(Lib.MODID, "recycling/"+ForgeRegistries.ITEMS.getKey(result.input().getItem()).getPath());
 		return new ArcRecyclingRecipe(
 				id, () -> tags,
-				calculation.outputs.entrySet().stream()
-						.map(e -> Pair.of(Lazy.of(e::getKey), e.getValue()))
+				result.outputs().stream()
+						.map(e -> Pair.of(Lazy.of(e::getFirst), e.getSecond()))
 						.toList(),
-				IngredientWithSize.of(calculation.stack), 100, 51200);
+				IngredientWithSize.of(result.input()), 100, 51200);
+	}
+
+	/**
+	 * The outcome of the calculation for one item, i.e. everything needed to create its recycling recipe
+	 */
+	record RecyclingResult(ItemStack input, List<Pair<ItemStack, Double>> outputs)
+	{
 	}
 
 	private static class RecipeIterator
 	{
-		final List<Recipe<?>> recipeList;
+		final List<RecipeSnapshot> recipeList;
 		final List<RecyclingCalculation> validated = new ArrayList<>();
 		final Multimap<ItemStack, RecyclingCalculation> nonValidated = ArrayListMultimap.create();
 		private final ArcRecyclingChecker checker;
 		int invalidCount = 0;
 		private final RegistryAccess tags;
+		private final BooleanSupplier isCancelled;
 
-		public RecipeIterator(List<Recipe<?>> recipeList, ArcRecyclingChecker checker, RegistryAccess tags)
+		public RecipeIterator(
+				List<RecipeSnapshot> recipeList, ArcRecyclingChecker checker, RegistryAccess tags,
+				BooleanSupplier isCancelled
+		)
 		{
 			this.recipeList = recipeList;
 			this.checker = checker;
 			this.tags = tags;
+			this.isCancelled = isCancelled;
 		}
 
 		public void process()
 		{
-			for(Recipe<?> recipe : recipeList)
+			// The initial calculations are independent of each other, so they can be done in parallel
+			List<RecyclingCalculation> calculations = recipeList.parallelStream()
+					.map(recipe -> {
+						checkCancelled(isCancelled);
+						return getRecycleCalculation(recipe);
+					})
+					.filter(Objects::nonNull)
+					.toList();
+			for(RecyclingCalculation calc : calculations)
 			{
-				RecyclingCalculation calc = getRecycleCalculation(recipe.getResultItem(), recipe);
-				if(calc!=null)
+				if(calc.isValid())
+					validated.add(calc);
+				else
 				{
-					if(calc.isValid())
-						validated.add(calc);
-					else
-					{
-						for(ItemStack s : calc.queriedSubcomponents.keySet())
-							nonValidated.put(s, calc);
-						invalidCount++;
-					}
+					for(ItemStack s : calc.queriedSubcomponents.keySet())
+						nonValidated.put(s, calc);
+					invalidCount++;
 				}
 			}
 		}
 
-		private RecyclingCalculation getRecycleCalculation(ItemStack stack, Recipe<?> recipe)
+		@Nullable
+		private RecyclingCalculation getRecycleCalculation(RecipeSnapshot snapshot)
 		{
+			final ItemStack stack = snapshot.result();
+			final Recipe<?> recipe = snapshot.recipe();
 			// Check if recipe output is among the items that have fixed returns
 			Pair<ItemStack, Double> brokenDown = ApiUtils.breakStackIntoPreciseIngots(tags, stack);
 			if(brokenDown!=null&&ArcRecyclingChecker.isValidRecyclingOutput(tags, brokenDown.getFirst())&&brokenDown.getSecond() > 0)
@@ -186,58 +362,55 @@ public class ArcRecyclingCalculator
 						ImmutableMap.of(brokenDown.getFirst(), brokenDown.getSecond()));
 
 			// Else check recipe inputs
-			NonNullList<Ingredient> inputs = recipe.getIngredients();
-			if(!inputs.isEmpty())
+			if(snapshot.hasInputs())
 			{
 				int resultCount = stack.getCount();
 				Map<ItemStack, Integer> missingSub = new HashMap<>();
 				Map<ItemStack, Double> outputs = new IdentityHashMap<>();
-				for(Ingredient in : inputs)
-					if(in!=null&&in!=Ingredient.EMPTY)
+				for(ItemStack[] matchingStacks : snapshot.inputs())
+				{
+					ItemStack inputStack = ItemStack.EMPTY;
+					if(matchingStacks.length > 0)
+						inputStack = IEApi.getPreferredStackbyMod(matchingStacks);
+					if(inputStack.isEmpty())
 					{
-						ItemStack[] matchingStacks = in.getItems();
-						ItemStack inputStack = ItemStack.EMPTY;
-						if(matchingStacks.length > 0)
-							inputStack = IEApi.getPreferredStackbyMod(in.getItems());
-						if(inputStack.isEmpty())
-						{
-							IELogger.warn("Recipe has invalid inputs and will be ignored: "+recipe+" ("+recipe.getId()+")");
-							return null;
-						}
-						brokenDown = ApiUtils.breakStackIntoPreciseIngots(tags, inputStack);
-						if(brokenDown==null)
+						IELogger.warn("Recipe has invalid inputs and will be ignored: "+recipe+" ("+recipe.getId()+")");
+						return null;
+					}
+					brokenDown = ApiUtils.breakStackIntoPreciseIngots(tags, inputStack);
+					if(brokenDown==null)
+					{
+						if(checker.isAllowed(tags, inputStack)&&ArcRecyclingChecker.isValidRecyclingOutput(tags, inputStack))
 						{
-							if(checker.isAllowed(tags, inputStack)&&ArcRecyclingChecker.isValidRecyclingOutput(tags, inputStack))
-							{
-								boolean b = false;
-								for(ItemStack storedMiss : missingSub.keySet())
-									if(ItemStack.isSame(inputStack, storedMiss))
-									{
-										missingSub.put(storedMiss, missingSub.get(storedMiss)+inputStack.getCount());
-										b = true;
-									}
-								if(!b)
-									missingSub.put(ItemHandlerHelper.copyStackWithSize(inputStack, 1), inputStack.getCount());
-							}
-							continue;
+							boolean b = false;
+							for(ItemStack storedMiss : missingSub.keySet())
+								if(ItemStack.isSame(inputStack, storedMiss))
+								{
+									missingSub.put(storedMiss, missingSub.get(storedMiss)+inputStack.getCount());
+									b = true;
+								}
+							if(!b)
+								missingSub.put(ItemHandlerHelper.copyStackWithSize(inputStack, 1), inputStack.getCount());
 						}
-						if(!brokenDown.getFirst().isEmpty()&&brokenDown.getSecond() > 0)
+						continue;
+					}
+					if(!brokenDown.getFirst().isEmpty()&&brokenDown.getSecond() > 0)
+					{
+						boolean invalidOutput = !ArcRecyclingChecker.isValidRecyclingOutput(tags, brokenDown.getFirst());
+						if(!invalidOutput)
 						{
-							boolean invalidOutput = !ArcRecyclingChecker.isValidRecyclingOutput(tags, brokenDown.getFirst());
-							if(!invalidOutput)
-							{
-								boolean b = false;
-								for(ItemStack storedOut : outputs.keySet())
-									if(ItemStack.isSame(brokenDown.getFirst(), storedOut))
-									{
-										outputs.put(storedOut, outputs.get(storedOut)+brokenDown.getSecond());
-										b = true;
-									}
-								if(!b)
-									outputs.put(ItemHandlerHelper.copyStackWithSize(brokenDown.getFirst(), 1), brokenDown.getSecond());
-							}
+							boolean b = false;
+							for(ItemStack storedOut : outputs.keySet())
+								if(ItemStack.isSame(brokenDown.getFirst(), storedOut))
+								{
+									outputs.put(storedOut, outputs.get(storedOut)+brokenDown.getSecond());
+									b = true;
+								}
+							if(!b)
+								outputs.put(ItemHandlerHelper.copyStackWithSize(brokenDown.getFirst(), 1), brokenDown.getSecond());
 						}
 					}
+				}
 				Map<ItemStack, Double> outputScaled = new IdentityHashMap<>(outputs.size());
 				for(Entry<ItemStack, Double> e : outputs.entrySet())
 					outputScaled.put(e.getKey(), e.getValue()/resultCount);
@@ -256,6 +429,23 @@ public class ArcRecyclingCalculator
 		}
 	}
 
+	/**
+	 * The parts of a recipe used by the calculation. Resolving the matching stacks of ingredients is not thread-safe, so
+	 * it is done when taking the snapshot.
+	 */
+	private record RecipeSnapshot(Recipe<?> recipe, ItemStack result, boolean hasInputs, List<ItemStack[]> inputs)
+	{
+		public static RecipeSnapshot of(Recipe<?> recipe)
+		{
+			NonNullList<Ingredient> ingredients = recipe.getIngredients();
+			List<ItemStack[]> inputs = new ArrayList<>(ingredients.size());
+			for(Ingredient in : ingredients)
+				if(in!=null&&in!=Ingredient.EMPTY)
+					inputs.add(in.getItems());
+			return new RecipeSnapshot(recipe, recipe.getResultItem().copy(), !ingredients.isEmpty(), inputs);
+		}
+	}
+
 	private static class RecyclingCalculation
 	{
 		Recipe<?> recipe;
@@ -275,6 +465,13 @@ public class ArcRecyclingCalculator
 			return !outputs.isEmpty()&&queriedSubcomponents.isEmpty();
 		}
 
+		public RecyclingResult toResult()
+		{
+			return new RecyclingResult(
+					stack, outputs.entrySet().stream().map(e -> Pair.of(e.getKey(), e.getValue())).toList()
+			);
+		}
+
 		public boolean validateSubcomponent(RecyclingCalculation calc)
 		{
 			if(isValid())
@@ -23,7 +23,6 @@ import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -46,7 +45,7 @@ public class GeneratedListRecipe<R extends IESerializableRecipe, E> extends IESe
 		));
 		LIST_GENERATORS.put(rl("arc_recycling_list"), new RecipeListGenerator<>(
 				ArcRecyclingCalculator::makeFuture,
-				recyclingList -> Objects.requireNonNull(recyclingList.getValue()),
+				recyclingList -> recyclingList.isDone()&&!recyclingList.isCompletedExceptionally()?recyclingList.join(): null,
 				ArcFurnaceRecipe.SERIALIZER.getId(),
 				ArcFurnaceRecipe.TYPE
 		));
@@ -111,7 +110,12 @@ public class GeneratedListRecipe<R extends IESerializableRecipe, E> extends IESe
 	public List<? extends IESerializableRecipe> getSubRecipes()
 	{
 		if(cachedRecipes==null)
-			cachedRecipes = generator.generator().apply(earlyResult);
+		{
+			List<? extends IESerializableRecipe> generated = generator.generator().apply(earlyResult);
+			if(generated==null)
+				return List.of();
+			cachedRecipes = generated;
+		}
 		return cachedRecipes;
 	}
 
@@ -120,6 +124,10 @@ public class GeneratedListRecipe<R extends IESerializableRecipe, E> extends IESe
 		return generator.serialized;
 	}
 
+	/**
+	 * @param generator may return null if the recipes are not available yet, e.g. because they are computed in the
+	 *                  background. The list is treated as empty until the generator returns a non-null result.
+	 */
 	public record RecipeListGenerator<T extends IESerializableRecipe, EarlyResult>(
 			Supplier<EarlyResult> makeEarlyResult,
 			Function<EarlyResult, List<? extends T>> generator,
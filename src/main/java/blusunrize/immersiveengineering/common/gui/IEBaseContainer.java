@@ -70,13 +70,7 @@ public class IEBaseContainer<T extends BlockEntity> extends AbstractContainerMen
 	public void broadcastChanges()
 	{
 		super.broadcastChanges();
-		List<Pair<Integer, DataPair<?>>> toSync = new ArrayList<>();
-		for(int i = 0; i < genericData.size(); i++)
-		{
-			GenericContainerData<?> data = genericData.get(i);
-			if(data.needsUpdate())
-				toSync.add(Pair.of(i, data.dataPair()));
-		}
+		List<Pair<Integer, DataPair<?>>> toSync = GenericContainerData.collectUpdates(genericData);
 		if(!toSync.isEmpty())
 			for(ServerPlayer player : usingPlayers)
 				ImmersiveEngineering.packetHandler.sendTo(
@@ -86,8 +80,7 @@ public class IEBaseContainer<T extends BlockEntity> extends AbstractContainerMen
 
 	public void receiveSync(List<Pair<Integer, DataPair<?>>> synced)
 	{
-		for(Pair<Integer, DataPair<?>> syncElement : synced)
-			genericData.get(syncElement.getFirst()).processSync(syncElement.getSecond().data());
+		GenericContainerData.processSyncs(genericData, synced);
 	}
 
 	@Override
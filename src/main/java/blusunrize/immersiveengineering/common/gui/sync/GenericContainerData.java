@@ -12,9 +12,13 @@ package blusunrize.immersiveengineering.common.gui.sync;
 import blusunrize.immersiveengineering.api.energy.IMutableEnergyStorage;
 import blusunrize.immersiveengineering.common.gui.sync.GenericDataSerializers.DataPair;
 import blusunrize.immersiveengineering.common.gui.sync.GenericDataSerializers.DataSerializer;
+import blusunrize.immersiveengineering.common.util.inventory.MultiFluidTank;
+import com.mojang.datafixers.util.Pair;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.templates.FluidTank;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -47,6 +51,14 @@ public class GenericContainerData<T>
 		return new GenericContainerData<>(GenericDataSerializers.FLUID_STACK, tank::getFluid, tank::setFluid);
 	}
 
+	public static GenericContainerData<List<FluidStack>> fluids(MultiFluidTank tank)
+	{
+		return new GenericContainerData<>(GenericDataSerializers.FLUID_STACKS, () -> tank.fluids, fluids -> {
+			tank.fluids.clear();
+			tank.fluids.addAll(fluids);
+		});
+	}
+
 	public static GenericContainerData<Boolean> bool(Supplier<Boolean> get, Consumer<Boolean> set)
 	{
 		return new GenericContainerData<>(GenericDataSerializers.BOOLEAN, get, set);
@@ -68,9 +80,12 @@ public class GenericContainerData<T>
 		return true;
 	}
 
-	public void processSync(Object receivedData)
+	public void processSync(DataPair<?> received)
 	{
-		current = (T)receivedData;
+		// Data written by a different serializer can't belong to this field
+		if(received.serializer()!=serializer)
+			return;
+		current = (T)received.data();
 		set.accept(serializer.copy().apply(current));
 	}
 
@@ -78,4 +93,34 @@ public class GenericContainerData<T>
 	{
 		return new DataPair<>(serializer, current);
 	}
+
+	/**
+	 * @return the index and new value of all fields that changed since the last call
+	 */
+	public static List<Pair<Integer, DataPair<?>>> collectUpdates(List<GenericContainerData<?>> fields)
+	{
+		List<Pair<Integer, DataPair<?>>> toSync = new ArrayList<>();
+		for(int i = 0; i < fields.size(); i++)
+		{
+			GenericContainerData<?> field = fields.get(i);
+			if(field.needsUpdate())
+				toSync.add(Pair.of(i, field.dataPair()));
+		}
+		return toSync;
+	}
+
+	/**
+	 * Applies updates created by {@link #collectUpdates}. Entries for unknown fields or with the wrong type are dropped,
+	 * they can only occur if the two sides registered different fields.
+	 */
+	public static void processSyncs(List<GenericContainerData<?>> fields, List<Pair<Integer, DataPair<?>>> synced)
+	{
+		for(Pair<Integer, DataPair<?>> syncElement : synced)
+		{
+			int index = syncElement.getFirst();
+			if(index >= 0&&index < fields.size())
+				fields.get(index).processSync(syncElement.getSecond());
+		}
+	}
+
 }
@@ -13,12 +13,14 @@ import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.fluids.FluidStack;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 public class GenericDataSerializers
 {
@@ -36,6 +38,15 @@ public class GenericDataSerializers
 	public static final DataSerializer<Float> FLOAT = register(
 			FriendlyByteBuf::readFloat, FriendlyByteBuf::writeFloat
 	);
+	public static final DataSerializer<int[]> INT_ARRAY = register(
+			FriendlyByteBuf::readVarIntArray, FriendlyByteBuf::writeVarIntArray, int[]::clone, Arrays::equals
+	);
+	public static final DataSerializer<List<FluidStack>> FLUID_STACKS = register(
+			buf -> buf.readList(FriendlyByteBuf::readFluidStack),
+			(buf, fluids) -> buf.writeCollection(fluids, FriendlyByteBuf::writeFluidStack),
+			fluids -> fluids.stream().map(FluidStack::copy).collect(Collectors.toList()),
+			GenericDataSerializers::fluidStacksIdentical
+	);
 
 	private static <T> DataSerializer<T> register(
 			Function<FriendlyByteBuf, T> read, BiConsumer<FriendlyByteBuf, T> write
@@ -44,7 +55,11 @@ public class GenericDataSerializers
 		return register(read, write, t -> t, Objects::equals);
 	}
 
-	private static <T> DataSerializer<T> register(
+	/**
+	 * Serializers are identified by the order they are registered in, so serializers outside of this class must be
+	 * registered during mod construction
+	 */
+	public static <T> DataSerializer<T> register(
 			Function<FriendlyByteBuf, T> read, BiConsumer<FriendlyByteBuf, T> write,
 			UnaryOperator<T> copy, BiPredicate<T, T> equals
 	)
@@ -54,6 +69,16 @@ public class GenericDataSerializers
 		return serializer;
 	}
 
+	private static boolean fluidStacksIdentical(List<FluidStack> a, List<FluidStack> b)
+	{
+		if(a.size()!=b.size())
+			return false;
+		for(int i = 0; i < a.size(); ++i)
+			if(!a.get(i).isFluidStackIdentical(b.get(i)))
+				return false;
+		return true;
+	}
+
 	public static DataPair<?> read(FriendlyByteBuf buffer)
 	{
 		DataSerializer<?> serializer = SERIALIZERS.get(buffer.readVarInt());
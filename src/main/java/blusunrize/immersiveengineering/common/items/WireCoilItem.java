@@ -40,6 +40,7 @@ import java.util.List;
 import java.util.Set;
 
 import static blusunrize.immersiveengineering.api.wires.utils.WireUtils.findObstructingBlocks;
+import static blusunrize.immersiveengineering.api.wires.utils.WireUtils.isObstructed;
 import static blusunrize.immersiveengineering.api.wires.utils.WirecoilUtils.clearWireLink;
 import static blusunrize.immersiveengineering.api.wires.utils.WirecoilUtils.hasWireLink;
 
@@ -169,8 +170,7 @@ public class WireCoilItem extends IEBaseItem implements IWireCoil
 									ignore.addAll(iicHere.getIgnored(iicLink));
 									ignore.addAll(iicLink.getIgnored(iicHere));
 									Connection conn = new Connection(wire, cpHere, otherLink.cp, net);
-									Set<BlockPos> failedReasons = findObstructingBlocks(world, conn, ignore);
-									if(failedReasons.isEmpty())
+									if(!isObstructed(world, conn, ignore))
 									{
 										net.addConnection(conn);
 
@@ -193,6 +193,7 @@ public class WireCoilItem extends IEBaseItem implements IWireCoil
 									else
 									{
 										player.displayClientMessage(new TranslatableComponent(Lib.CHAT_WARN+"cantSee"), true);
+										Set<BlockPos> failedReasons = findObstructingBlocks(world, conn, ignore);
 										ImmersiveEngineering.packetHandler.send(
 												PacketDistributor.PLAYER.with(() -> (ServerPlayer)player),
 												new MessageObstructedConnection(conn, failedReasons)
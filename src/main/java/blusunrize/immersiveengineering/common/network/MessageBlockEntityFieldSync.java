@@ -0,0 +1,64 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ *
+ */
+
+package blusunrize.immersiveengineering.common.network;
+
+import blusunrize.immersiveengineering.ImmersiveEngineering;
+import blusunrize.immersiveengineering.common.blocks.IEBaseBlockEntity;
+import blusunrize.immersiveengineering.common.gui.sync.GenericDataSerializers;
+import blusunrize.immersiveengineering.common.gui.sync.GenericDataSerializers.DataPair;
+import com.mojang.datafixers.util.Pair;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.network.NetworkEvent.Context;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Carries only the synced fields of a block entity that changed since the last sync, see
+ * {@link IEBaseBlockEntity#addSyncedField}
+ */
+public class MessageBlockEntityFieldSync implements IMessage
+{
+	private final BlockPos pos;
+	private final List<Pair<Integer, DataPair<?>>> synced;
+
+	public MessageBlockEntityFieldSync(BlockPos pos, List<Pair<Integer, DataPair<?>>> synced)
+	{
+		this.pos = pos;
+		this.synced = synced;
+	}
+
+	public MessageBlockEntityFieldSync(FriendlyByteBuf buf)
+	{
+		this(buf.readBlockPos(), PacketUtils.readList(buf, pb -> Pair.of(pb.readVarInt(), GenericDataSerializers.read(pb))));
+	}
+
+	@Override
+	public void toBytes(FriendlyByteBuf buf)
+	{
+		buf.writeBlockPos(pos);
+		PacketUtils.writeList(buf, synced, (pair, b) -> {
+			b.writeVarInt(pair.getFirst());
+			pair.getSecond().write(b);
+		});
+	}
+
+	@Override
+	public void process(Supplier<Context> context)
+	{
+		context.get().enqueueWork(() -> {
+			Level world = ImmersiveEngineering.proxy.getClientWorld();
+			if(world!=null&&world.getBlockEntity(pos) instanceof IEBaseBlockEntity ieBE)
+				ieBE.receiveFieldSync(synced);
+		});
+	}
+}
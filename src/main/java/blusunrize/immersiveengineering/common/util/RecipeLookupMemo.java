@@ -0,0 +1,104 @@
+/*
+ *  BluSunrize
+ *  Copyright (c) 2022
+ *
+ *  This code is licensed under "Blu's License of Common Sense"
+ *  Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.util;
+
+import blusunrize.immersiveengineering.api.crafting.cache.CachedRecipeList;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.ItemStack;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Remembers the result of the last successful recipe lookup and a bounded number of recent failed lookups, keyed by
+ * the exact input stack (item, NBT and count). Automation tends to offer the same stacks over and over, so this skips
+ * most recipe scans. Everything is forgotten when recipes or tags are reloaded or the lookup context (any other state
+ * the lookup depends on) changes.
+ */
+public class RecipeLookupMemo<R>
+{
+	private static final int MAX_MISSES = 8;
+
+	private int reloadCount = CachedRecipeList.INVALID_RELOAD_COUNT;
+	@Nullable
+	private Object context;
+
+	@Nullable
+	private R lastMatch;
+	private ItemStack lastMatchInput = ItemStack.EMPTY;
+	private int lastMatchHash;
+
+	private final ItemStack[] missInputs = new ItemStack[MAX_MISSES];
+	private final int[] missHashes = new int[MAX_MISSES];
+	private int missCount = 0;
+	private int nextMiss = 0;
+
+	@Nullable
+	public R find(ItemStack input, @Nullable Object context, Function<ItemStack, R> lookup)
+	{
+		validate(context);
+		final int hash = hash(input);
+		if(lastMatch!=null&&hash==lastMatchHash&&isSameInput(lastMatchInput, input))
+			return lastMatch;
+		for(int i = 0; i < missCount; ++i)
+			if(hash==missHashes[i]&&isSameInput(missInputs[i], input))
+				return null;
+		R result = lookup.apply(input);
+		if(result!=null)
+		{
+			lastMatch = result;
+			lastMatchInput = input.copy();
+			lastMatchHash = hash;
+		}
+		else
+		{
+			missInputs[nextMiss] = input.copy();
+			missHashes[nextMiss] = hash;
+			nextMiss = (nextMiss+1)%MAX_MISSES;
+			missCount = Math.min(missCount+1, MAX_MISSES);
+		}
+		return result;
+	}
+
+	public void invalidate()
+	{
+		lastMatch = null;
+		lastMatchInput = ItemStack.EMPTY;
+		missCount = 0;
+		nextMiss = 0;
+		// Don't keep references to the old stacks around
+		for(int i = 0; i < MAX_MISSES; ++i)
+			missInputs[i] = null;
+	}
+
+	private void validate(@Nullable Object context)
+	{
+		final int currentReloadCount = CachedRecipeList.getReloadCount();
+		if(currentReloadCount!=reloadCount||!Objects.equals(context, this.context))
+		{
+			invalidate();
+			reloadCount = currentReloadCount;
+			this.context = context;
+		}
+	}
+
+	private static int hash(ItemStack stack)
+	{
+		CompoundTag tag = stack.getTag();
+		int hash = System.identityHashCode(stack.getItem());
+		hash = 31*hash+(tag!=null?tag.hashCode(): 0);
+		return 31*hash+stack.getCount();
+	}
+
+	private static boolean isSameInput(ItemStack a, ItemStack b)
+	{
+		return a.getCount()==b.getCount()&&ItemStack.isSameItemSameTags(a, b);
+	}
+}
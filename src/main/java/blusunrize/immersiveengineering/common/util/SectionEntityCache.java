@@ -0,0 +1,131 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.util;
+
+import blusunrize.immersiveengineering.api.Lib;
+import blusunrize.immersiveengineering.mixin.accessors.EntitySectionManagerAccess;
+import blusunrize.immersiveengineering.mixin.accessors.ServerLevelAccess;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntitySelector;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.entity.EntitySection;
+import net.minecraft.world.level.entity.EntitySectionStorage;
+import net.minecraft.world.level.entity.PersistentEntitySectionManager;
+import net.minecraft.world.phys.AABB;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber.Bus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drop-in replacement for {@link Level#getEntitiesOfClass(Class, AABB)} for block entities that scan for entities
+ * frequently, like turrets and tesla coils. The entities of each chunk section are collected at most once per tick and
+ * level, so any number of block entities querying overlapping areas in the same tick only walk each section once.
+ * Sections are read directly from the entity storage, so a single query walks the same sections as a direct call.
+ * Entities spawned or moved into a section after it was collected are only seen in the next tick. Server side only,
+ * client levels are queried directly.
+ */
+@EventBusSubscriber(modid = Lib.MODID, bus = Bus.FORGE)
+public class SectionEntityCache
+{
+	// Entities are stored in the section containing their position, but their bounding box can extend into neighboring
+	// sections. This matches the margin used by vanilla for the same reason, and is only applied once per query.
+	private static final double SECTION_MARGIN = 2;
+	private static final Map<Level, SectionEntityCache> CACHES = new HashMap<>();
+
+	private final Level level;
+	private final Long2ObjectMap<List<Entity>> entitiesBySection = new Long2ObjectOpenHashMap<>();
+	private long cachedAtTick = Long.MIN_VALUE;
+
+	private SectionEntityCache(Level level)
+	{
+		this.level = level;
+	}
+
+	public static <T extends Entity> List<T> getEntitiesOfClass(Level level, Class<T> type, AABB box)
+	{
+		if(!(level instanceof ServerLevel))
+			return level.getEntitiesOfClass(type, box);
+		return CACHES.computeIfAbsent(level, SectionEntityCache::new).query(type, box);
+	}
+
+	private <T extends Entity> List<T> query(Class<T> type, AABB box)
+	{
+		if(cachedAtTick!=level.getGameTime())
+		{
+			entitiesBySection.clear();
+			cachedAtTick = level.getGameTime();
+		}
+		List<T> result = new ArrayList<>();
+		final int minX = SectionPos.posToSectionCoord(box.minX-SECTION_MARGIN);
+		final int minY = SectionPos.posToSectionCoord(box.minY-SECTION_MARGIN);
+		final int minZ = SectionPos.posToSectionCoord(box.minZ-SECTION_MARGIN);
+		final int maxX = SectionPos.posToSectionCoord(box.maxX+SECTION_MARGIN);
+		final int maxY = SectionPos.posToSectionCoord(box.maxY+SECTION_MARGIN);
+		final int maxZ = SectionPos.posToSectionCoord(box.maxZ+SECTION_MARGIN);
+		for(int x = minX; x <= maxX; ++x)
+			for(int y = minY; y <= maxY; ++y)
+				for(int z = minZ; z <= maxZ; ++z)
+					for(Entity entity : getSection(SectionPos.asLong(x, y, z)))
+						// Entities can be removed during the tick, e.g. items picked up by a previous block entity
+						if(!entity.isRemoved()&&type.isInstance(entity)&&EntitySelector.NO_SPECTATORS.test(entity)
+								&&entity.getBoundingBox().intersects(box))
+							result.add(type.cast(entity));
+		return result;
+	}
+
+	private List<Entity> getSection(long section)
+	{
+		List<Entity> inSection = entitiesBySection.get(section);
+		if(inSection==null)
+		{
+			// Walk the entity section directly, Level#getEntitiesOfClass would also walk all neighboring sections
+			EntitySection<Entity> storageSection = getSectionStorage().getSection(section);
+			if(storageSection==null||!storageSection.getStatus().isAccessible())
+				inSection = List.of();
+			else
+			{
+				List<Entity> entities = new ArrayList<>();
+				storageSection.getEntities().forEach(entity -> {
+					entities.add(entity);
+					// Parts are not stored in sections, vanilla adds them along with their parent
+					if(entity.isMultipartEntity()&&entity.getParts()!=null)
+						Collections.addAll(entities, entity.getParts());
+				});
+				inSection = entities;
+			}
+			entitiesBySection.put(section, inSection);
+		}
+		return inSection;
+	}
+
+	@SuppressWarnings("unchecked")
+	private EntitySectionStorage<Entity> getSectionStorage()
+	{
+		PersistentEntitySectionManager<Entity> manager = ((ServerLevelAccess)level).getEntityManager();
+		return ((EntitySectionManagerAccess<Entity>)manager).getSectionStorage();
+	}
+
+	@SubscribeEvent
+	public static void onUnload(WorldEvent.Unload ev)
+	{
+		if(ev.getWorld() instanceof ServerLevel level)
+			CACHES.remove(level);
+	}
+}
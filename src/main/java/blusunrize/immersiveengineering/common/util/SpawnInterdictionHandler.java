@@ -14,9 +14,13 @@ import blusunrize.immersiveengineering.api.utils.SafeChunkUtils;
 import blusunrize.immersiveengineering.common.blocks.IEBlockInterfaces.ISpawnInterdiction;
 import blusunrize.immersiveengineering.common.config.IEServerConfig;
 import blusunrize.immersiveengineering.common.register.IEPotions;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.resources.ResourceKey;
+import net.minecraft.util.Mth;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.MobCategory;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.phys.Vec3;
@@ -27,12 +31,21 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber.Bus;
 
-import java.util.*;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
 
+/**
+ * Interdictors are indexed by every chunk their maximum range reaches into, so a spawn check only has to look at the
+ * interdictors indexed for the chunk the entity is in. The arrays stored per chunk are never modified, changes replace
+ * them instead, so checks do not need to lock.
+ */
 @EventBusSubscriber(modid = ImmersiveEngineering.MODID, bus = Bus.FORGE)
 public class SpawnInterdictionHandler
 {
-	private static final Map<ResourceKey<Level>, Set<ISpawnInterdiction>> interdictionTiles = new HashMap<>();
+	private static final Map<ResourceKey<Level>, Map<Long, ISpawnInterdiction[]>> interdictionTiles = new ConcurrentHashMap<>();
 
 	@SubscribeEvent
 	public static void onEnderTeleport(EntityTeleportEvent.EnderEntity event)
@@ -55,27 +68,23 @@ public class SpawnInterdictionHandler
 	{
 		if(entity.getType().getCategory()!=MobCategory.MONSTER)
 			return false;
-		ResourceKey<Level> dimension = entity.level.dimension();
-		synchronized(interdictionTiles)
+		Map<Long, ISpawnInterdiction[]> inDimension = interdictionTiles.get(entity.level.dimension());
+		if(inDimension==null)
+			return false;
+		ISpawnInterdiction[] inChunk = inDimension.get(ChunkPos.asLong(
+				SectionPos.blockToSectionCoord(entity.getBlockX()), SectionPos.blockToSectionCoord(entity.getBlockZ())
+		));
+		if(inChunk==null)
+			return false;
+		for(ISpawnInterdiction interdictor : inChunk)
 		{
-			if(!interdictionTiles.containsKey(dimension))
-				return false;
-			Iterator<ISpawnInterdiction> it = interdictionTiles.get(dimension).iterator();
-			while(it.hasNext())
+			BlockEntity interdictorTE = (BlockEntity)interdictor;
+			if(!interdictorTE.isRemoved()&&interdictorTE.getLevel()!=null
+					&&SafeChunkUtils.isChunkSafe(interdictorTE.getLevel(), interdictorTE.getBlockPos()))
 			{
-				ISpawnInterdiction interdictor = it.next();
-				if(interdictor instanceof BlockEntity)
-				{
-					BlockEntity interdictorTE = (BlockEntity)interdictor;
-					if(interdictorTE.isRemoved()||interdictorTE.getLevel()==null)
-						it.remove();
-					else if(SafeChunkUtils.isChunkSafe(interdictorTE.getLevel(), interdictorTE.getBlockPos()))
-					{
-						Vec3 tilePos = Vec3.atCenterOf(interdictorTE.getBlockPos());
-						if(tilePos.distanceToSqr(entity.position()) <= interdictor.getInterdictionRangeSquared())
-							return true;
-					}
-				}
+				Vec3 tilePos = Vec3.atCenterOf(interdictorTE.getBlockPos());
+				if(tilePos.distanceToSqr(entity.position()) <= interdictor.getInterdictionRangeSquared())
+					return true;
 			}
 		}
 		return false;
@@ -84,12 +93,9 @@ public class SpawnInterdictionHandler
 	public static <T extends BlockEntity & ISpawnInterdiction>
 	void removeFromInterdictionTiles(T tile)
 	{
-		synchronized(interdictionTiles)
-		{
-			Set<ISpawnInterdiction> inDimension = interdictionTiles.get(tile.getLevel().dimension());
-			if(inDimension!=null)
-				inDimension.remove(tile);
-		}
+		Map<Long, ISpawnInterdiction[]> inDimension = interdictionTiles.get(tile.getLevel().dimension());
+		if(inDimension!=null)
+			forEachIndexedChunk(tile, chunk -> inDimension.computeIfPresent(chunk, (c, inChunk) -> without(inChunk, tile)));
 	}
 
 	public static <T extends BlockEntity & ISpawnInterdiction>
@@ -97,12 +103,54 @@ public class SpawnInterdictionHandler
 	{
 		Level world = tile.getLevel();
 		if(world!=null&&IEServerConfig.MACHINES.floodlight_spawnPrevent.get())
-			synchronized(interdictionTiles)
+		{
+			Map<Long, ISpawnInterdiction[]> forDim = interdictionTiles.computeIfAbsent(
+					world.dimension(), x -> new ConcurrentHashMap<>()
+			);
+			forEachIndexedChunk(tile, chunk -> forDim.compute(chunk, (c, inChunk) -> with(inChunk, tile)));
+		}
+	}
+
+	private static <T extends BlockEntity & ISpawnInterdiction>
+	void forEachIndexedChunk(T tile, LongConsumer out)
+	{
+		BlockPos pos = tile.getBlockPos();
+		// Ranges are measured from the center of the block, so rounding the radius up covers all reachable blocks
+		int radius = Mth.ceil(Math.sqrt(tile.getMaxInterdictionRangeSquared()));
+		int minX = SectionPos.blockToSectionCoord(pos.getX()-radius);
+		int maxX = SectionPos.blockToSectionCoord(pos.getX()+radius);
+		int minZ = SectionPos.blockToSectionCoord(pos.getZ()-radius);
+		int maxZ = SectionPos.blockToSectionCoord(pos.getZ()+radius);
+		for(int x = minX; x <= maxX; ++x)
+			for(int z = minZ; z <= maxZ; ++z)
+				out.accept(ChunkPos.asLong(x, z));
+	}
+
+	private static ISpawnInterdiction[] with(@Nullable ISpawnInterdiction[] old, ISpawnInterdiction added)
+	{
+		if(old==null)
+			return new ISpawnInterdiction[]{added};
+		for(ISpawnInterdiction existing : old)
+			if(existing==added)
+				return old;
+		ISpawnInterdiction[] result = Arrays.copyOf(old, old.length+1);
+		result[old.length] = added;
+		return result;
+	}
+
+	@Nullable
+	private static ISpawnInterdiction[] without(ISpawnInterdiction[] old, ISpawnInterdiction removed)
+	{
+		for(int i = 0; i < old.length; ++i)
+			if(old[i]==removed)
 			{
-				Set<ISpawnInterdiction> forDim = interdictionTiles.computeIfAbsent(
-						world.dimension(), x -> new HashSet<>()
-				);
-				forDim.add(tile);
+				if(old.length==1)
+					return null;
+				ISpawnInterdiction[] result = new ISpawnInterdiction[old.length-1];
+				System.arraycopy(old, 0, result, 0, i);
+				System.arraycopy(old, i+1, result, i, old.length-i-1);
+				return result;
 			}
+		return old;
 	}
 }
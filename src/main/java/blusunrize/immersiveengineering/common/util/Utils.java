@@ -15,7 +15,7 @@ import blusunrize.immersiveengineering.api.fluid.FluidUtils;
 import blusunrize.immersiveengineering.api.utils.CapabilityReference;
 import blusunrize.immersiveengineering.api.utils.DirectionUtils;
 import blusunrize.immersiveengineering.api.utils.DirectionalBlockPos;
-import blusunrize.immersiveengineering.api.utils.Raytracer;
+import blusunrize.immersiveengineering.api.utils.VoxelTraversal;
 import blusunrize.immersiveengineering.common.util.inventory.IIEInventory;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
@@ -723,20 +723,11 @@ public class Utils
 		}
 	}
 
+	@Nullable
 	public static BlockPos rayTraceForFirst(Vec3 start, Vec3 end, Level w, Set<BlockPos> ignore)
 	{
-		Set<BlockPos> trace = Raytracer.rayTrace(start, end, w);
-		for(BlockPos cc : ignore)
-			trace.remove(cc);
-		if(start.x!=end.x)
-			trace = findMinOrMax(trace, start.x > end.x, 0);
-		if(start.y!=end.y)
-			trace = findMinOrMax(trace, start.y > end.y, 0);
-		if(start.z!=end.z)
-			trace = findMinOrMax(trace, start.z > end.z, 0);
-		if(trace.size() > 0)
-			return trace.iterator().next();
-		return null;
+		BlockHitResult hit = VoxelTraversal.clipFirst(w, start, end, ignore::contains);
+		return hit!=null?hit.getBlockPos(): null;
 	}
 
 	public static Set<BlockPos> findMinOrMax(Set<BlockPos> in, boolean max, int coord)
@@ -29,6 +29,16 @@ public class WorldMap<Key, Value>
 		worldMap.put(key, value);
 	}
 
+	@Nullable
+	public Value remove(Level world, Key key)
+	{
+		Preconditions.checkArgument(!world.isClientSide);
+		final Map<Key, Value> worldMap = map.get(world.dimension());
+		if(worldMap==null)
+			return null;
+		return worldMap.remove(key);
+	}
+
 	public void clearDimension(Level world)
 	{
 		Preconditions.checkArgument(!world.isClientSide);
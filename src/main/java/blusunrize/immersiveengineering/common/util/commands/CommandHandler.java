@@ -20,7 +20,9 @@ public class CommandHandler
 		//TODO do all subcommands have proper permission requirements?
 		LiteralArgumentBuilder<CommandSourceStack> main = Commands.literal("ie");
 		main.then(CommandMineral.create())
-				.then(CommandShaders.create());
+				.then(CommandShaders.create())
+				.then(CommandWires.create())
+				.then(CommandMultiblocks.create());
 		dispatcher.register(main);
 	}
 }
\ No newline at end of file
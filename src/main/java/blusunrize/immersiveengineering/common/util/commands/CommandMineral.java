@@ -11,6 +11,7 @@ package blusunrize.immersiveengineering.common.util.commands;
 import blusunrize.immersiveengineering.ImmersiveEngineering;
 import blusunrize.immersiveengineering.api.Lib;
 import blusunrize.immersiveengineering.api.excavator.ExcavatorHandler;
+import blusunrize.immersiveengineering.api.excavator.MineralInfoCache.CacheStats;
 import blusunrize.immersiveengineering.api.excavator.MineralMix;
 import blusunrize.immersiveengineering.api.excavator.MineralVein;
 import blusunrize.immersiveengineering.api.excavator.MineralWorldInfo;
@@ -64,7 +65,8 @@ public class CommandMineral
 				.then(listMineral())
 				.then(getMineral())
 				.then(putMineral())
-				.then(setMineralDepletion());
+				.then(setMineralDepletion())
+				.then(cacheStats());
 		return main;
 	}
 
@@ -207,6 +209,20 @@ public class CommandMineral
 					"mineral.set_depletion.no_mineral", pos.x, pos.z), true);
 	}
 
+	private static LiteralArgumentBuilder<CommandSourceStack> cacheStats()
+	{
+		LiteralArgumentBuilder<CommandSourceStack> stats = Commands.literal("cacheStats");
+		stats.requires(source -> source.hasPermission(2)).executes(ctx -> {
+			CommandSourceStack sender = ctx.getSource();
+			CacheStats cache = ExcavatorHandler.getCacheStats(sender.getLevel().dimension());
+			sender.sendSuccess(new TranslatableComponent(Lib.CHAT_COMMAND+"mineral.cache_stats",
+					cache.size(), cache.capacity(), cache.hits(), cache.misses(),
+					Utils.formatDouble(cache.hitRate()*100, "0.0"), cache.evictions(), cache.invalidations()), true);
+			return Command.SINGLE_SUCCESS;
+		});
+		return stats;
+	}
+
 	private static ColumnPos columnPos(Vec3 vec)
 	{
 		return new ColumnPos((int)vec.x, (int)vec.z);
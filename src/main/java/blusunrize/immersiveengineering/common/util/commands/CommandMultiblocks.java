@@ -0,0 +1,56 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.util.commands;
+
+import blusunrize.immersiveengineering.api.Lib;
+import blusunrize.immersiveengineering.common.blocks.generic.PoweredMultiblockBlockEntity;
+import blusunrize.immersiveengineering.common.blocks.generic.PoweredMultiblockBlockEntity.SleepCounts;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.network.chat.TranslatableComponent;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+public class CommandMultiblocks
+{
+	public static LiteralArgumentBuilder<CommandSourceStack> create()
+	{
+		LiteralArgumentBuilder<CommandSourceStack> main = Commands.literal("multiblocks");
+		main.requires(source -> source.hasPermission(2));
+		main.then(Commands.literal("sleeping").executes(CommandMultiblocks::showSleeping));
+		return main;
+	}
+
+	private static int showSleeping(CommandContext<CommandSourceStack> context)
+	{
+		CommandSourceStack source = context.getSource();
+		Map<ResourceLocation, SleepCounts> counts = PoweredMultiblockBlockEntity.getSleepCounts();
+		if(counts.isEmpty())
+		{
+			source.sendSuccess(new TranslatableComponent(Lib.CHAT_COMMAND+"multiblocks.sleeping.none"), false);
+			return Command.SINGLE_SUCCESS;
+		}
+		TextComponent ret = new TextComponent("");
+		ret.append(new TranslatableComponent(Lib.CHAT_COMMAND+"multiblocks.sleeping.header"));
+		for(Entry<ResourceLocation, SleepCounts> entry : counts.entrySet())
+			ret.append(new TextComponent("\n ").append(new TranslatableComponent(
+					Lib.CHAT_COMMAND+"multiblocks.sleeping.entry",
+					entry.getKey().toString(), entry.getValue().sleeping(), entry.getValue().awake()
+			)).withStyle(ChatFormatting.GRAY));
+		source.sendSuccess(ret, false);
+		return Command.SINGLE_SUCCESS;
+	}
+}
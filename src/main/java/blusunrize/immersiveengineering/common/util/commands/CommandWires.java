@@ -0,0 +1,108 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2021
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.util.commands;
+
+import blusunrize.immersiveengineering.api.Lib;
+import blusunrize.immersiveengineering.api.wires.GlobalWireNetwork;
+import blusunrize.immersiveengineering.api.wires.LocalWireNetwork;
+import blusunrize.immersiveengineering.api.wires.WireNetworkProfiler;
+import blusunrize.immersiveengineering.common.util.Utils;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.network.chat.TranslatableComponent;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class CommandWires
+{
+	private static final int DEFAULT_NET_COUNT = 10;
+
+	public static LiteralArgumentBuilder<CommandSourceStack> create()
+	{
+		LiteralArgumentBuilder<CommandSourceStack> main = Commands.literal("wires");
+		main.requires(source -> source.hasPermission(2));
+		main.then(profile());
+		return main;
+	}
+
+	private static LiteralArgumentBuilder<CommandSourceStack> profile()
+	{
+		LiteralArgumentBuilder<CommandSourceStack> profile = Commands.literal("profile");
+		profile.executes(context -> showProfile(context, DEFAULT_NET_COUNT))
+				.then(Commands.argument("count", IntegerArgumentType.integer(1, 100))
+						.executes(context -> showProfile(context, IntegerArgumentType.getInteger(context, "count"))))
+				.then(Commands.literal("start").executes(context -> {
+					WireNetworkProfiler.start();
+					context.getSource().sendSuccess(new TranslatableComponent(Lib.CHAT_COMMAND+"wires.profile.start"), true);
+					return Command.SINGLE_SUCCESS;
+				}))
+				.then(Commands.literal("stop").executes(context -> {
+					WireNetworkProfiler.stop();
+					context.getSource().sendSuccess(new TranslatableComponent(Lib.CHAT_COMMAND+"wires.profile.stop"), true);
+					return Command.SINGLE_SUCCESS;
+				}));
+		return profile;
+	}
+
+	private static int showProfile(CommandContext<CommandSourceStack> context, int netCount)
+	{
+		CommandSourceStack source = context.getSource();
+		if(!WireNetworkProfiler.isEnabled()&&WireNetworkProfiler.getProfiledTime() <= 0)
+		{
+			source.sendFailure(new TranslatableComponent(Lib.CHAT_COMMAND+"wires.profile.no_data"));
+			return 0;
+		}
+		TextComponent ret = new TextComponent("");
+		ret.append(new TranslatableComponent(
+				Lib.CHAT_COMMAND+"wires.profile.summary",
+				formatMillis(WireNetworkProfiler.getProfiledTime()),
+				WireNetworkProfiler.getDijkstraRuns(),
+				WireNetworkProfiler.getPathCacheHits(),
+				WireNetworkProfiler.getPathCacheMisses(),
+				WireNetworkProfiler.getSplits(),
+				WireNetworkProfiler.getMerges()
+		));
+		for(Object2LongMap.Entry<ResourceLocation> handler : WireNetworkProfiler.getHandlerTimes().object2LongEntrySet())
+			ret.append(new TextComponent("\n ").append(new TranslatableComponent(
+					Lib.CHAT_COMMAND+"wires.profile.handler", handler.getKey().toString(), formatMillis(handler.getLongValue())
+			)).withStyle(ChatFormatting.GRAY));
+		List<LocalWireNetwork> nets = new ArrayList<>(GlobalWireNetwork.getNetwork(source.getLevel()).getLocalNets());
+		// Networks can briefly be empty while they are split or merged
+		nets.removeIf(net -> net.getProfiledTicks()==0||net.getConnectors().isEmpty());
+		nets.sort(Comparator.comparingLong(LocalWireNetwork::getProfiledTime).reversed());
+		for(LocalWireNetwork net : nets.subList(0, Math.min(netCount, nets.size())))
+		{
+			BlockPos pos = net.getConnectors().iterator().next();
+			ret.append(new TextComponent("\n ").append(new TranslatableComponent(
+					Lib.CHAT_COMMAND+"wires.profile.net",
+					formatMillis(net.getProfiledTime()/net.getProfiledTicks()),
+					net.getConnectors().size(),
+					pos.getX(), pos.getY(), pos.getZ()
+			)).withStyle(ChatFormatting.GRAY));
+		}
+		source.sendSuccess(ret, false);
+		return Command.SINGLE_SUCCESS;
+	}
+
+	private static String formatMillis(long nanos)
+	{
+		return Utils.formatDouble(nanos/1e6, "0.000");
+	}
+}
@@ -17,7 +17,6 @@ import blusunrize.immersiveengineering.api.wires.WireCollisionData.CollisionInfo
 import blusunrize.immersiveengineering.api.wires.localhandlers.ICollisionHandler;
 import blusunrize.immersiveengineering.api.wires.localhandlers.LocalNetworkHandler;
 import blusunrize.immersiveengineering.api.wires.utils.WireUtils;
-import blusunrize.immersiveengineering.common.config.IEServerConfig;
 import blusunrize.immersiveengineering.common.util.IEDamageSources;
 import blusunrize.immersiveengineering.common.util.Utils;
 import net.minecraft.core.BlockPos;
@@ -37,14 +36,21 @@ import java.util.Map.Entry;
 
 public class WireCollisions
 {
+	// Cached copies of the config values, updated by IEServerConfig.refresh
+	public static boolean enableWireDamage = false;
+	public static boolean blocksBreakWires = false;
+
 	public static void handleEntityCollision(BlockPos p, Entity e)
 	{
-		if(!e.level.isClientSide&&IEServerConfig.WIRES.enableWireDamage.get()&&e instanceof LivingEntity living&&
-				!e.isInvulnerableTo(IEDamageSources.wireShock)&&
-				!(e instanceof Player player&&player.getAbilities().invulnerable))
+		// Called for every block touched by every entity, so check the cheap conditions first
+		if(!enableWireDamage||e.level.isClientSide||!(e instanceof LivingEntity living))
+			return;
+		GlobalWireNetwork global = GlobalWireNetwork.getNetwork(e.level);
+		WireCollisionData wireData = global.getCollisionData();
+		if(!wireData.hasWiresAt(p.getX(), p.getY(), p.getZ()))
+			return;
+		if(!e.isInvulnerableTo(IEDamageSources.wireShock)&&!(e instanceof Player player&&player.getAbilities().invulnerable))
 		{
-			GlobalWireNetwork global = GlobalWireNetwork.getNetwork(e.level);
-			WireCollisionData wireData = global.getCollisionData();
 			Collection<WireCollisionData.CollisionInfo> atBlock = wireData.getCollisionInfo(p);
 			for(CollisionInfo info : atBlock)
 			{
@@ -58,7 +64,7 @@ public class WireCollisions
 
 	public static void notifyBlockUpdate(@Nonnull Level worldIn, @Nonnull BlockPos pos, @Nonnull BlockState newState, int flags)
 	{
-		if(IEServerConfig.WIRES.blocksBreakWires.get()&&!worldIn.isClientSide&&(flags&1)!=0&&!newState.getCollisionShape(worldIn, pos).isEmpty())
+		if(blocksBreakWires&&!worldIn.isClientSide&&(flags&1)!=0&&!newState.getCollisionShape(worldIn, pos).isEmpty())
 		{
 			GlobalWireNetwork globalNet = GlobalWireNetwork.getNetwork(worldIn);
 			Collection<CollisionInfo> data = globalNet.getCollisionData().getCollisionInfo(pos);
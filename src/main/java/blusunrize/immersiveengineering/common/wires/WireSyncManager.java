@@ -24,10 +24,7 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.network.PacketDistributor;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.UUID;
+import java.util.*;
 
 @EventBusSubscriber(modid = ImmersiveEngineering.MODID)
 public class WireSyncManager implements IWireSyncManager
@@ -72,13 +69,16 @@ public class WireSyncManager implements IWireSyncManager
 
 	private static <T> void sendToPlayersForConnection(T msg, ServerLevel world, Connection c)
 	{
-		ApiUtils.addFutureServerTask(world, () -> {
-			Set<ServerPlayer> targets = new HashSet<>();
-			addPlayersTrackingPoint(targets, c.getEndA().getX(), c.getEndA().getZ(), world);
-			addPlayersTrackingPoint(targets, c.getEndB().getX(), c.getEndB().getZ(), world);
-			for(ServerPlayer p : targets)
-				ImmersiveEngineering.packetHandler.send(PacketDistributor.PLAYER.with(() -> p), msg);
-		}, true);
+		ApiUtils.addFutureServerTask(world, () -> sendToPlayersForConnectionNow(msg, world, c), true);
+	}
+
+	private static <T> void sendToPlayersForConnectionNow(T msg, ServerLevel world, Connection c)
+	{
+		Set<ServerPlayer> targets = new HashSet<>();
+		addPlayersTrackingPoint(targets, c.getEndA().getX(), c.getEndA().getZ(), world);
+		addPlayersTrackingPoint(targets, c.getEndB().getX(), c.getEndB().getZ(), world);
+		for(ServerPlayer p : targets)
+			ImmersiveEngineering.packetHandler.send(PacketDistributor.PLAYER.with(() -> p), msg);
 	}
 
 	@SubscribeEvent
@@ -119,4 +119,22 @@ public class WireSyncManager implements IWireSyncManager
 		if(!c.isInternal()&&!world.isClientSide&&world instanceof ServerLevel)
 			sendToPlayersForConnection(new MessageWireSync(c, false), (ServerLevel)world, c);
 	}
+
+	@Override
+	public void onConnectionsRemoved(Collection<Connection> removed)
+	{
+		if(world.isClientSide||!(world instanceof ServerLevel serverLevel))
+			return;
+		List<Connection> toSync = new ArrayList<>(removed.size());
+		for(Connection c : removed)
+			if(!c.isInternal())
+				toSync.add(c);
+		if(toSync.isEmpty())
+			return;
+		// One task for all connections rather than one per connection
+		ApiUtils.addFutureServerTask(world, () -> {
+			for(Connection c : toSync)
+				sendToPlayersForConnectionNow(new MessageWireSync(c, false), serverLevel, c);
+		}, true);
+	}
 }
@@ -12,6 +12,7 @@ import blusunrize.immersiveengineering.ImmersiveEngineering;
 import blusunrize.immersiveengineering.api.EnumMetals;
 import blusunrize.immersiveengineering.api.Lib;
 import blusunrize.immersiveengineering.common.IEContent;
+import blusunrize.immersiveengineering.common.IESaveData;
 import blusunrize.immersiveengineering.common.config.IEServerConfig;
 import blusunrize.immersiveengineering.common.config.IEServerConfig.Ores.OreConfig;
 import blusunrize.immersiveengineering.common.config.IEServerConfig.Ores.VeinType;
@@ -33,7 +34,6 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LevelAccessor;
-import net.minecraft.world.level.WorldGenLevel;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.chunk.ChunkStatus;
 import net.minecraft.world.level.levelgen.GenerationStep.Decoration;
@@ -49,8 +49,10 @@ import net.minecraft.world.level.levelgen.placement.*;
 import net.minecraftforge.common.world.BiomeGenerationSettingsBuilder;
 import net.minecraftforge.event.RegistryEvent;
 import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.event.world.BiomeLoadingEvent;
 import net.minecraftforge.event.world.ChunkDataEvent;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.LogicalSide;
@@ -95,6 +97,8 @@ public class IEWorldGen
 
 	public static void onConfigUpdated()
 	{
+		// The vein size is baked into the features
+		retrogenFeatures = new EnumMap<>(VeinType.class);
 		anyRetrogenEnabled = false;
 		for(Pair<VeinType, List<TargetBlockState>> config : retroFeatures.values())
 			anyRetrogenEnabled |= IEServerConfig.ORES.ores.get(config.getFirst()).retrogenEnabled.get();
@@ -116,16 +120,24 @@ public class IEWorldGen
 			List<TargetBlockState> targetList = gen.getValue().getSecond();
 			OreConfig config = IEServerConfig.ORES.ores.get(type);
 			if(config.retrogenEnabled.get())
-			{
-				ConfiguredFeature<OreConfiguration, Feature<OreConfiguration>> configured = new ConfiguredFeature<>(IEContent.ORE_RETROGEN, new OreConfiguration(targetList, config.veinSize.get()));
-				PlacedFeature placed = new PlacedFeature(Holder.direct(configured), getOreModifiers(type));
-				placed.place(
+				getRetrogenFeature(type, targetList).place(
 						world, world.getChunkSource().getGenerator(), random, new BlockPos(16*chunkX, 0, 16*chunkZ)
 				);
-			}
 		}
 	}
 
+	private static volatile Map<VeinType, PlacedFeature> retrogenFeatures = new EnumMap<>(VeinType.class);
+
+	private static PlacedFeature getRetrogenFeature(VeinType type, List<TargetBlockState> targetList)
+	{
+		return retrogenFeatures.computeIfAbsent(type, t -> {
+			ConfiguredFeature<OreConfiguration, Feature<OreConfiguration>> configured = new ConfiguredFeature<>(
+					IEContent.ORE_RETROGEN, new OreConfiguration(targetList, IEServerConfig.ORES.ores.get(t).veinSize.get())
+			);
+			return new PlacedFeature(Holder.direct(configured), getOreModifiers(t));
+		});
+	}
+
 	private static List<PlacementModifier> getOreModifiers(VeinType type)
 	{
 		return ImmutableList.of(
@@ -138,9 +150,8 @@ public class IEWorldGen
 	@SubscribeEvent
 	public void chunkDataSave(ChunkDataEvent.Save event)
 	{
-		CompoundTag levelTag = event.getData().getCompound("Level");
 		CompoundTag nbt = new CompoundTag();
-		levelTag.put("ImmersiveEngineering", nbt);
+		event.getData().put("ImmersiveEngineering", nbt);
 		nbt.putBoolean(IEServerConfig.ORES.retrogen_key.get(), true);
 	}
 
@@ -158,56 +169,89 @@ public class IEWorldGen
 				ResourceKey<Level> dimension = ((Level)world).dimension();
 				synchronized(retrogenChunks)
 				{
-					retrogenChunks.computeIfAbsent(dimension, d -> new ArrayList<>()).add(event.getChunk().getPos());
+					retrogenChunks.computeIfAbsent(dimension, d -> new RetrogenQueue()).add(event.getChunk().getPos().toLong());
 				}
+				IESaveData.markInstanceDirty();
 			}
 		}
 	}
 
-	public static final Map<ResourceKey<Level>, List<ChunkPos>> retrogenChunks = new HashMap<>();
+	@SubscribeEvent
+	public void chunkLoad(ChunkEvent.Load event)
+	{
+		if(event.getWorld() instanceof ServerLevel level)
+			synchronized(retrogenChunks)
+			{
+				RetrogenQueue queue = retrogenChunks.get(level.dimension());
+				if(queue!=null)
+					queue.onChunkLoaded(event.getChunk().getPos().toLong());
+			}
+	}
+
+	@SubscribeEvent
+	public void serverStopped(ServerStoppedEvent event)
+	{
+		synchronized(retrogenChunks)
+		{
+			retrogenChunks.clear();
+		}
+	}
 
-	int indexToRemove = 0;
+	// Saved in IESaveData, since chunks are marked as done for retrogen as soon as they are saved
+	public static final Map<ResourceKey<Level>, RetrogenQueue> retrogenChunks = new HashMap<>();
 
 	@SubscribeEvent
 	public void serverWorldTick(TickEvent.WorldTickEvent event)
 	{
-		if(event.side==LogicalSide.CLIENT||event.phase==TickEvent.Phase.START||!(event.world instanceof ServerLevel))
+		if(event.side==LogicalSide.CLIENT||event.phase==TickEvent.Phase.START||!(event.world instanceof ServerLevel level))
 			return;
-		ResourceKey<Level> dimension = event.world.dimension();
+		RetrogenQueue queue;
+		synchronized(retrogenChunks)
+		{
+			queue = retrogenChunks.get(level.dimension());
+			if(queue==null||!queue.hasReady())
+				return;
+		}
+		final long deadline = System.nanoTime()+IEServerConfig.ORES.retrogen_budget.get()*1000L;
 		int counter = 0;
 		int remaining;
-		synchronized(retrogenChunks)
+		do
 		{
-			final List<ChunkPos> chunks = retrogenChunks.get(dimension);
-
-			if(chunks!=null&&chunks.size() > 0)
+			long chunk;
+			synchronized(retrogenChunks)
+			{
+				chunk = queue.poll();
+			}
+			if(chunk==RetrogenQueue.NONE)
+				break;
+			int chunkX = ChunkPos.getX(chunk);
+			int chunkZ = ChunkPos.getZ(chunk);
+			if(level.hasChunk(chunkX, chunkZ))
 			{
-				if(indexToRemove >= chunks.size())
-					indexToRemove = 0;
-				for(int i = 0; i < 2&&indexToRemove < chunks.size(); ++i)
+				long worldSeed = level.getSeed();
+				Random fmlRandom = new Random(worldSeed);
+				long xSeed = (fmlRandom.nextLong() >> 3);
+				long zSeed = (fmlRandom.nextLong() >> 3);
+				fmlRandom.setSeed(xSeed*chunkX+zSeed*chunkZ^worldSeed);
+				this.generateOres(fmlRandom, chunkX, chunkZ, level);
+				counter++;
+			}
+			else
+				synchronized(retrogenChunks)
 				{
-					if(chunks.size() <= 0)
-						break;
-					ChunkPos loc = chunks.get(indexToRemove);
-					if(event.world.hasChunk(loc.x, loc.z))
-					{
-						long worldSeed = ((WorldGenLevel)event.world).getSeed();
-						Random fmlRandom = new Random(worldSeed);
-						long xSeed = (fmlRandom.nextLong() >> 3);
-						long zSeed = (fmlRandom.nextLong() >> 3);
-						fmlRandom.setSeed(xSeed*loc.x+zSeed*loc.z^worldSeed);
-						this.generateOres(fmlRandom, loc.x, loc.z, (ServerLevel)event.world);
-						counter++;
-						chunks.remove(indexToRemove);
-					}
-					else
-						++indexToRemove;
+					queue.setAside(chunk);
 				}
-			}
-			remaining = chunks==null?0: chunks.size();
+		} while(System.nanoTime() < deadline);
+		synchronized(retrogenChunks)
+		{
+			remaining = queue.size();
+		}
+		if(counter > 0)
+		{
+			IESaveData.markInstanceDirty();
+			if(IEServerConfig.ORES.retrogen_log_remaining.get())
+				IELogger.info("Retrogen was performed on "+counter+" Chunks, "+remaining+" chunks remaining");
 		}
-		if(counter > 0&&IEServerConfig.ORES.retrogen_log_remaining.get())
-			IELogger.info("Retrogen was performed on "+counter+" Chunks, "+remaining+" chunks remaining");
 	}
 
 	private static final DeferredRegister<Feature<?>> FEATURE_REGISTER = DeferredRegister.create(ForgeRegistries.FEATURES, ImmersiveEngineering.MODID);
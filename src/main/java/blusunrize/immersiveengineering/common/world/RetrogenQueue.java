@@ -0,0 +1,87 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.world;
+
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * The chunks of one dimension that are flagged for ore retrogen, as packed chunk positions. Loaded chunks are processed
+ * in the order they were flagged. Chunks that turn out to be unloaded are set aside until they are loaded again rather
+ * than being checked in every tick. Not thread safe, chunks are flagged while they are loaded, so all accesses
+ * synchronize on {@link IEWorldGen#retrogenChunks}.
+ */
+public class RetrogenQueue
+{
+	public static final long NONE = ChunkPos.INVALID_CHUNK_POS;
+
+	private final LongLinkedOpenHashSet ready = new LongLinkedOpenHashSet();
+	private final LongSet waiting = new LongOpenHashSet();
+
+	/**
+	 * Adds a chunk that is currently being loaded
+	 */
+	public void add(long chunk)
+	{
+		waiting.remove(chunk);
+		ready.add(chunk);
+	}
+
+	public void onChunkLoaded(long chunk)
+	{
+		if(waiting.remove(chunk))
+			ready.add(chunk);
+	}
+
+	/**
+	 * @return the next chunk that is probably loaded, or {@link #NONE}
+	 */
+	public long poll()
+	{
+		return ready.isEmpty()?NONE: ready.removeFirstLong();
+	}
+
+	public void setAside(long chunk)
+	{
+		waiting.add(chunk);
+	}
+
+	public boolean hasReady()
+	{
+		return !ready.isEmpty();
+	}
+
+	public int size()
+	{
+		return ready.size()+waiting.size();
+	}
+
+	public long[] save()
+	{
+		long[] result = new long[size()];
+		int i = 0;
+		for(long chunk : ready)
+			result[i++] = chunk;
+		for(long chunk : waiting)
+			result[i++] = chunk;
+		return result;
+	}
+
+	/**
+	 * Adds saved chunks. They are all checked once, since some of them may already be loaded.
+	 */
+	public void load(long[] saved)
+	{
+		for(long chunk : saved)
+			if(!waiting.contains(chunk))
+				ready.add(chunk);
+	}
+}
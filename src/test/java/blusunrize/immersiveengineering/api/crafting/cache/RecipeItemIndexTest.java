@@ -0,0 +1,93 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.crafting.cache;
+
+import blusunrize.immersiveengineering.api.crafting.cache.RecipeItemIndex.Snapshot;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class RecipeItemIndexTest
+{
+	private static final int KEYS = 20;
+
+	/**
+	 * A recipe accepting the given keys, or any key if keys is null
+	 */
+	private record DummyRecipe(int id, Set<Integer> keys)
+	{
+		boolean accepts(int key)
+		{
+			return keys==null||keys.contains(key);
+		}
+	}
+
+	private static List<DummyRecipe> makeRecipes(Random random)
+	{
+		List<DummyRecipe> recipes = new ArrayList<>();
+		for(int i = 0; i < 200; ++i)
+			if(random.nextInt(10)==0)
+				recipes.add(new DummyRecipe(i, null));
+			else
+				recipes.add(new DummyRecipe(i, random.ints(1+random.nextInt(3), 0, KEYS).boxed().collect(Collectors.toSet())));
+		return recipes;
+	}
+
+	@Test
+	public void testSingleKeyMatchesLinearSearch()
+	{
+		Random random = new Random(0);
+		for(int run = 0; run < 10; ++run)
+		{
+			List<DummyRecipe> recipes = makeRecipes(random);
+			Snapshot<Integer> index = Snapshot.build(0, recipes, DummyRecipe::keys);
+			// Includes keys no recipe lists explicitly
+			for(int key = 0; key < KEYS+2; ++key)
+			{
+				final int k = key;
+				List<DummyRecipe> expected = recipes.stream().filter(r -> r.accepts(k)).toList();
+				List<DummyRecipe> candidates = index.getCandidates(key);
+				assertEquals(expected, candidates);
+			}
+		}
+	}
+
+	@Test
+	public void testMultipleKeysMatchLinearSearch()
+	{
+		Random random = new Random(1);
+		for(int run = 0; run < 100; ++run)
+		{
+			List<DummyRecipe> recipes = makeRecipes(random);
+			Snapshot<Integer> index = Snapshot.build(0, recipes, DummyRecipe::keys);
+			List<Integer> keys = random.ints(1+random.nextInt(4), 0, KEYS+2).boxed().toList();
+			List<DummyRecipe> expected = recipes.stream()
+					.filter(r -> keys.stream().anyMatch(r::accepts))
+					.toList();
+			List<DummyRecipe> candidates = index.getCandidates(keys);
+			assertEquals(expected, candidates);
+		}
+	}
+
+	@Test
+	public void testOnlyFallbackRecipes()
+	{
+		List<DummyRecipe> recipes = List.of(new DummyRecipe(0, null), new DummyRecipe(1, null));
+		Snapshot<Integer> index = Snapshot.build(0, recipes, DummyRecipe::keys);
+		assertEquals(recipes, index.getCandidates(5));
+		assertEquals(recipes, index.getCandidates(List.of(1, 2)));
+		assertEquals(recipes, index.<DummyRecipe>getCandidates(List.of()));
+	}
+}
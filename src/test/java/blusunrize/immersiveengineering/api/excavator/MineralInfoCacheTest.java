@@ -0,0 +1,68 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2021
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.excavator;
+
+import blusunrize.immersiveengineering.api.excavator.MineralInfoCache.CacheStats;
+import net.minecraft.server.level.ColumnPos;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MineralInfoCacheTest
+{
+	private static final MineralWorldInfo INFO = new MineralWorldInfo(List.of());
+
+	@Test
+	public void testEvictsLeastRecentlyUsed()
+	{
+		MineralInfoCache cache = new MineralInfoCache(2);
+		ColumnPos a = new ColumnPos(0, 0);
+		ColumnPos b = new ColumnPos(1, 0);
+		ColumnPos c = new ColumnPos(-5, 1000);
+		cache.put(a, INFO);
+		cache.put(b, INFO);
+		// Touch a, so b is the least recently used entry
+		assertSame(INFO, cache.get(a));
+		cache.put(c, INFO);
+		assertNull(cache.get(b));
+		assertSame(INFO, cache.get(a));
+		assertSame(INFO, cache.get(c));
+		CacheStats stats = cache.getStats();
+		assertEquals(2, stats.size());
+		assertEquals(3, stats.hits());
+		assertEquals(1, stats.misses());
+		assertEquals(1, stats.evictions());
+	}
+
+	@Test
+	public void testInvalidatesOnlyInRadius()
+	{
+		for(int radius : new int[]{2, 20})
+		{
+			// Small radius iterates the covered columns, large radius iterates the cache entries
+			MineralInfoCache cache = new MineralInfoCache(100);
+			ColumnPos center = new ColumnPos(-10, 7);
+			for(int dX = -3; dX <= 3; ++dX)
+				for(int dZ = -3; dZ <= 3; ++dZ)
+					cache.put(new ColumnPos(center.x+dX, center.z+dZ), INFO);
+			ColumnPos far = new ColumnPos(100, 100);
+			cache.put(far, INFO);
+			cache.invalidate(center, radius);
+			for(int dX = -3; dX <= 3; ++dX)
+				for(int dZ = -3; dZ <= 3; ++dZ)
+				{
+					boolean inVein = dX*dX+dZ*dZ < radius*radius;
+					assertEquals(inVein, cache.get(new ColumnPos(center.x+dX, center.z+dZ))==null);
+				}
+			assertNotNull(cache.get(far));
+		}
+	}
+}
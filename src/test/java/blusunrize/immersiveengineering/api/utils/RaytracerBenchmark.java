@@ -0,0 +1,158 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.utils;
+
+import blusunrize.immersiveengineering.common.util.Utils;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.level.material.Fluids;
+import net.minecraft.world.phys.BlockHitResult;
+import net.minecraft.world.phys.Vec3;
+import org.openjdk.jmh.annotations.*;
+
+import javax.annotation.Nullable;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Raytracer} to {@link VoxelTraversal} on 32 block rays (the floodlight range) through terrain where
+ * every 50th block is solid. "firstHit" is the query used by floodlights and turrets, "visitAll" the one used to find
+ * wires along a ray. Run using the "jmh" Gradle task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaytracerBenchmark
+{
+	private static final int NUM_RAYS = 64;
+	private static final int RANGE = 32;
+
+	private final Vec3[] starts = new Vec3[NUM_RAYS];
+	private final Vec3[] ends = new Vec3[NUM_RAYS];
+	private BlockGetter world;
+
+	@Setup
+	public void setup()
+	{
+		SharedConstants.tryDetectVersion();
+		Bootstrap.bootStrap();
+		world = new SparseWorld(Blocks.STONE.defaultBlockState());
+		Random rand = new Random(42);
+		for(int i = 0; i < NUM_RAYS; ++i)
+		{
+			starts[i] = new Vec3(rand.nextDouble()*16, rand.nextDouble()*16, rand.nextDouble()*16);
+			Vec3 dir = new Vec3(rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian()).normalize();
+			ends[i] = starts[i].add(dir.scale(RANGE));
+		}
+	}
+
+	@Benchmark
+	public int firstHitLegacy()
+	{
+		int hits = 0;
+		for(int i = 0; i < NUM_RAYS; ++i)
+			if(legacyFirstHit(starts[i], ends[i])!=null)
+				++hits;
+		return hits;
+	}
+
+	@Benchmark
+	public int firstHitTraversal()
+	{
+		int hits = 0;
+		for(int i = 0; i < NUM_RAYS; ++i)
+			if(VoxelTraversal.clipFirst(world, starts[i], ends[i], pos -> false)!=null)
+				++hits;
+		return hits;
+	}
+
+	@Benchmark
+	public int visitAllLegacy()
+	{
+		int[] visited = {0};
+		for(int i = 0; i < NUM_RAYS; ++i)
+			Raytracer.rayTrace(starts[i], ends[i], world, pos -> ++visited[0]);
+		return visited[0];
+	}
+
+	@Benchmark
+	public int visitAllTraversal()
+	{
+		int[] visited = {0};
+		for(int i = 0; i < NUM_RAYS; ++i)
+			VoxelTraversal.forEachBlock(starts[i], ends[i], (pos, tEnter, tExit) -> {
+				++visited[0];
+				return true;
+			});
+		return visited[0];
+	}
+
+	// The implementation previously used by Utils#rayTraceForFirst
+	@Nullable
+	private BlockPos legacyFirstHit(Vec3 start, Vec3 end)
+	{
+		Set<BlockPos> trace = Raytracer.rayTrace(start, end, world);
+		if(start.x!=end.x)
+			trace = Utils.findMinOrMax(trace, start.x > end.x, 0);
+		if(start.y!=end.y)
+			trace = Utils.findMinOrMax(trace, start.y > end.y, 0);
+		if(start.z!=end.z)
+			trace = Utils.findMinOrMax(trace, start.z > end.z, 0);
+		if(trace.size() > 0)
+			return trace.iterator().next();
+		return null;
+	}
+
+	private record SparseWorld(BlockState solid) implements BlockGetter
+	{
+		@Nullable
+		@Override
+		public BlockEntity getBlockEntity(BlockPos pos)
+		{
+			return null;
+		}
+
+		@Override
+		public BlockState getBlockState(BlockPos pos)
+		{
+			if(Mth.getSeed(pos.getX(), pos.getY(), pos.getZ())%50==0)
+				return solid;
+			return Blocks.AIR.defaultBlockState();
+		}
+
+		@Override
+		public FluidState getFluidState(BlockPos pos)
+		{
+			return Fluids.EMPTY.defaultFluidState();
+		}
+
+		@Override
+		public int getHeight()
+		{
+			return 384;
+		}
+
+		@Override
+		public int getMinBuildHeight()
+		{
+			return -64;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.utils;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.phys.Vec3;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class VoxelTraversalTest
+{
+	private static List<BlockPos> trace(Vec3 start, Vec3 end)
+	{
+		List<BlockPos> visited = new ArrayList<>();
+		double[] lastExit = {0};
+		assertTrue(VoxelTraversal.forEachBlock(start, end, (pos, tEnter, tExit) -> {
+			assertEquals(lastExit[0], tEnter, 1e-9);
+			assertTrue(tExit >= tEnter);
+			lastExit[0] = tExit;
+			visited.add(pos.immutable());
+			return true;
+		}));
+		assertEquals(1, lastExit[0], 1e-9);
+		return visited;
+	}
+
+	@Test
+	public void testStraight()
+	{
+		assertEquals(
+				List.of(new BlockPos(0, 0, 0), new BlockPos(1, 0, 0), new BlockPos(2, 0, 0), new BlockPos(3, 0, 0)),
+				trace(new Vec3(0.5, 0.5, 0.5), new Vec3(3.5, 0.5, 0.5))
+		);
+		assertEquals(
+				List.of(new BlockPos(0, 0, -1), new BlockPos(0, 0, -2), new BlockPos(0, 0, -3)),
+				trace(new Vec3(0.5, 0.5, -0.5), new Vec3(0.5, 0.5, -2.5))
+		);
+	}
+
+	@Test
+	public void testSingleBlock()
+	{
+		assertEquals(List.of(new BlockPos(-1, 2, 3)), trace(new Vec3(-0.5, 2.5, 3.5), new Vec3(-0.5, 2.5, 3.5)));
+		assertEquals(List.of(new BlockPos(-1, 2, 3)), trace(new Vec3(-0.9, 2.1, 3.1), new Vec3(-0.1, 2.9, 3.9)));
+	}
+
+	@Test
+	public void testDiagonal()
+	{
+		List<BlockPos> visited = trace(new Vec3(0.2, 0.5, 0.5), new Vec3(2.5, 1.8, 0.5));
+		assertEquals(new BlockPos(0, 0, 0), visited.get(0));
+		assertEquals(new BlockPos(2, 1, 0), visited.get(visited.size()-1));
+		// Every step moves to a neighbor of the previous block
+		for(int i = 1; i < visited.size(); ++i)
+			assertEquals(1, visited.get(i).distManhattan(visited.get(i-1)));
+		assertEquals(4, visited.size());
+	}
+
+	@Test
+	public void testEarlyStop()
+	{
+		int[] count = {0};
+		boolean completed = VoxelTraversal.forEachBlock(
+				new Vec3(0.5, 0.5, 0.5), new Vec3(100.5, 0.5, 0.5), (pos, tEnter, tExit) -> ++count[0] < 3
+		);
+		assertFalse(completed);
+		assertEquals(3, count[0]);
+	}
+}
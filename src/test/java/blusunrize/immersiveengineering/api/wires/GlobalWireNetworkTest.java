@@ -13,12 +13,17 @@ import blusunrize.immersiveengineering.api.wires.testutils.DummyProxyProvider;
 import blusunrize.immersiveengineering.api.wires.testutils.DummySyncManager;
 import blusunrize.immersiveengineering.api.wires.testutils.DummyWireType;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.phys.Vec3;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class GlobalWireNetworkTest
 {
 	private GlobalWireNetwork global;
@@ -65,4 +70,71 @@ public class GlobalWireNetworkTest
 		global.removeConnection(new Connection(wiretype, cpA0, cpB0, Vec3.ZERO, Vec3.ZERO));
 		Assert.assertNotEquals(global.getLocalNet(cpA0), global.getLocalNet(cpB0));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testConnectorsInChunk()
+	{
+		final BlockPos farPos = new BlockPos(100, 0, -40);
+		final ConnectionPoint cpFar = new ConnectionPoint(farPos, 0);
+		global.onConnectorLoad(iicA, false);
+		global.onConnectorLoad(iicB, false);
+		global.onConnectorLoad(new DummyIIC(farPos, false, ImmutableList.of(cpFar), ImmutableList.of()), false);
+		Assert.assertEquals(
+				ImmutableSet.of(cpA0, cpB0, cpB1), ImmutableSet.copyOf(global.getAllConnectorsIn(new ChunkPos(posA)))
+		);
+		Assert.assertEquals(ImmutableSet.of(cpFar), ImmutableSet.copyOf(global.getAllConnectorsIn(new ChunkPos(farPos))));
+		global.removeConnector(iicB);
+		Assert.assertEquals(ImmutableSet.of(cpA0), ImmutableSet.copyOf(global.getAllConnectorsIn(new ChunkPos(posA))));
+		Assert.assertTrue(global.getAllConnectorsIn(new ChunkPos(farPos.east(16))).isEmpty());
+	}
+
+	@Test
+	public void testRemoveAllConnectionsAt()
+	{
+		final BlockPos posC = posB.above();
+		final ConnectionPoint cpC0 = new ConnectionPoint(posC, 0);
+		final IImmersiveConnectable iicC = new DummyIIC(posC, false, ImmutableList.of(cpC0), ImmutableList.of());
+		global.onConnectorLoad(iicA, false);
+		global.onConnectorLoad(iicB, false);
+		global.onConnectorLoad(iicC, false);
+		global.addConnection(new Connection(wiretype, cpA0, cpB0, Vec3.ZERO, Vec3.ZERO));
+		global.addConnection(new Connection(wiretype, cpC0, cpB0, Vec3.ZERO, Vec3.ZERO));
+		global.addConnection(new Connection(wiretype, cpB1, cpC0, Vec3.ZERO, Vec3.ZERO));
+		Assert.assertEquals(global.getLocalNet(cpA0), global.getLocalNet(cpB1));
+		List<Connection> removed = new ArrayList<>();
+		global.removeAllConnectionsAt(iicB, removed::add);
+		Assert.assertEquals(3, removed.size());
+		Assert.assertNotEquals(global.getLocalNet(cpA0), global.getLocalNet(cpC0));
+		Assert.assertNotEquals(global.getLocalNet(cpB0), global.getLocalNet(cpC0));
+		Assert.assertTrue(global.getLocalNet(cpC0).getConnections(cpC0).isEmpty());
+	}
+
+	@Test
+	public void testCollisionDataSummary()
+	{
+		// Crosses a section border in x
+		final BlockPos farPos = new BlockPos(20, 3, 0);
+		final ConnectionPoint cpFar = new ConnectionPoint(farPos, 0);
+		global.onConnectorLoad(iicA, false);
+		global.onConnectorLoad(new DummyIIC(farPos, false, ImmutableList.of(cpFar), ImmutableList.of()), false);
+		Connection conn = new Connection(wiretype, cpA0, cpFar, Vec3.ZERO, Vec3.ZERO);
+		global.addConnection(conn);
+		WireCollisionData data = global.getCollisionData();
+		int blocksWithWires = 0;
+		for(int x = -2; x <= 22; ++x)
+			for(int y = -8; y <= 5; ++y)
+				for(int z = -2; z <= 2; ++z)
+					if(data.hasWiresAt(x, y, z))
+					{
+						++blocksWithWires;
+						Assert.assertFalse(data.getCollisionInfo(new BlockPos(x, y, z)).isEmpty());
+					}
+		Assert.assertTrue(blocksWithWires >= 20);
+		Assert.assertFalse(data.hasWiresAt(100, 0, 0));
+		global.removeConnection(conn);
+		for(int x = -2; x <= 22; ++x)
+			for(int y = -8; y <= 5; ++y)
+				for(int z = -2; z <= 2; ++z)
+					Assert.assertFalse(data.hasWiresAt(x, y, z));
+	}
+}
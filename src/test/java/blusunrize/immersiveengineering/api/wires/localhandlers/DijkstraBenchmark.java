@@ -0,0 +1,132 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2021
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.wires.localhandlers;
+
+import blusunrize.immersiveengineering.api.wires.Connection;
+import blusunrize.immersiveengineering.api.wires.ConnectionPoint;
+import blusunrize.immersiveengineering.api.wires.GlobalWireNetwork;
+import blusunrize.immersiveengineering.api.wires.LocalWireNetwork;
+import blusunrize.immersiveengineering.api.wires.localhandlers.EnergyTransferHandler.Path;
+import blusunrize.immersiveengineering.api.wires.testutils.DummyEnergyIIC;
+import blusunrize.immersiveengineering.api.wires.testutils.DummyEnergyWireType;
+import blusunrize.immersiveengineering.api.wires.testutils.DummyProxyProvider;
+import blusunrize.immersiveengineering.api.wires.testutils.DummySyncManager;
+import blusunrize.immersiveengineering.api.wires.utils.BinaryHeap;
+import blusunrize.immersiveengineering.api.wires.utils.BinaryHeap.HeapEntry;
+import blusunrize.immersiveengineering.api.wires.utils.CompactWireGraph;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.phys.Vec3;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the map-based Dijkstra previously used by {@link EnergyTransferHandler} to {@link CompactWireGraph} on a
+ * square grid of connectors. Run using the "jmh" Gradle task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DijkstraBenchmark
+{
+	@Param({"10", "45"})
+	public int gridSize;
+
+	private LocalWireNetwork net;
+	private ConnectionPoint source;
+
+	@Setup
+	public void setup()
+	{
+		LocalNetworkHandler.register(EnergyTransferHandler.ID, EnergyTransferHandler::new);
+		GlobalWireNetwork global = new GlobalWireNetwork(false, new DummyProxyProvider(), new DummySyncManager());
+		// Low enough that paths across the entire grid stay below a loss of 1
+		DummyEnergyWireType wire = new DummyEnergyWireType(1e-4);
+		for(int x = 0; x < gridSize; ++x)
+			for(int z = 0; z < gridSize; ++z)
+				global.onConnectorLoad(new DummyEnergyIIC(new BlockPos(x, 0, z), x==0&&z==0, true), false);
+		for(int x = 0; x < gridSize; ++x)
+			for(int z = 0; z < gridSize; ++z)
+			{
+				ConnectionPoint here = new ConnectionPoint(new BlockPos(x, 0, z), 0);
+				if(x > 0)
+					global.addConnection(new Connection(
+							wire, here, new ConnectionPoint(new BlockPos(x-1, 0, z), 0), Vec3.ZERO, Vec3.ZERO
+					));
+				if(z > 0)
+					global.addConnection(new Connection(
+							wire, here, new ConnectionPoint(new BlockPos(x, 0, z-1), 0), Vec3.ZERO, Vec3.ZERO
+					));
+			}
+		source = new ConnectionPoint(BlockPos.ZERO, 0);
+		net = global.getLocalNet(source);
+	}
+
+	@Benchmark
+	public Map<ConnectionPoint, Path> legacy()
+	{
+		Map<ConnectionPoint, Path> shortestKnown = new HashMap<>();
+		BinaryHeap<ConnectionPoint> heap = new BinaryHeap<>(
+				Comparator.comparingDouble(end -> shortestKnown.get(end).loss));
+		Map<ConnectionPoint, HeapEntry<ConnectionPoint>> entryMap = new HashMap<>();
+		Map<ConnectionPoint, Path> result = new HashMap<>();
+		shortestKnown.put(source, new Path(source));
+		entryMap.put(source, heap.insert(source));
+		while(!heap.empty())
+		{
+			ConnectionPoint endPoint = heap.extractMin();
+			entryMap.remove(endPoint);
+			Path shortest = shortestKnown.get(endPoint);
+			result.put(endPoint, shortest);
+			if(shortest.loss >= 1)
+				break;
+			for(Connection next : net.getConnections(endPoint))
+			{
+				Path alternative = shortest.append(next, true);
+				Path oldPath = shortestKnown.get(alternative.end);
+				if(oldPath==null)
+				{
+					shortestKnown.put(alternative.end, alternative);
+					entryMap.put(alternative.end, heap.insert(alternative.end));
+				}
+				else if(alternative.loss < oldPath.loss)
+				{
+					shortestKnown.put(alternative.end, alternative);
+					heap.decreaseKey(entryMap.get(alternative.end));
+				}
+			}
+		}
+		return result;
+	}
+
+	@Benchmark
+	public CompactWireGraph.ShortestPaths compact()
+	{
+		CompactWireGraph graph = new CompactWireGraph(net, EnergyTransferHandler::getBasicLoss);
+		return graph.shortestPathsFrom(source, 1);
+	}
+
+	@Benchmark
+	public int compactWithSinkPaths()
+	{
+		// Includes building the paths to all sinks, which is what the energy handler actually needs
+		CompactWireGraph graph = new CompactWireGraph(net, EnergyTransferHandler::getBasicLoss);
+		CompactWireGraph.ShortestPaths paths = graph.shortestPathsFrom(source, 1);
+		int totalLength = 0;
+		for(int id : paths.getReachedPoints())
+			totalLength += paths.getConnectionsTo(graph.getPoint(id)).length;
+		return totalLength;
+	}
+}
@@ -0,0 +1,302 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2021
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.wires.localhandlers;
+
+import blusunrize.immersiveengineering.api.wires.Connection;
+import blusunrize.immersiveengineering.api.wires.ConnectionPoint;
+import blusunrize.immersiveengineering.api.wires.GlobalWireNetwork;
+import blusunrize.immersiveengineering.api.wires.localhandlers.EnergyTransferHandler.Path;
+import blusunrize.immersiveengineering.api.wires.testutils.DummyEnergyIIC;
+import blusunrize.immersiveengineering.api.wires.testutils.DummyEnergyWireType;
+import blusunrize.immersiveengineering.api.wires.testutils.DummyProxyProvider;
+import blusunrize.immersiveengineering.api.wires.testutils.DummySyncManager;
+import com.mojang.datafixers.util.Pair;
+import it.unimi.dsi.fastutil.objects.*;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.phys.Vec3;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class EnergyTransferHandlerTest
+{
+	private static final double LOSS = 0.1;
+	private static final double EPSILON = 1e-9;
+
+	private GlobalWireNetwork global;
+	private final DummyEnergyWireType wiretype = new DummyEnergyWireType(LOSS);
+	private final DummyEnergyIIC source = new DummyEnergyIIC(BlockPos.ZERO, true, false);
+	private final DummyEnergyIIC middle = new DummyEnergyIIC(BlockPos.ZERO.east(), false, false);
+	private final DummyEnergyIIC sink = new DummyEnergyIIC(BlockPos.ZERO.east(2), false, true);
+
+	@Before
+	public void setupNetwork()
+	{
+		LocalNetworkHandler.register(EnergyTransferHandler.ID, EnergyTransferHandler::new);
+		global = new GlobalWireNetwork(false, new DummyProxyProvider(), new DummySyncManager());
+		global.onConnectorLoad(source, false);
+		global.onConnectorLoad(middle, false);
+		global.onConnectorLoad(sink, false);
+		global.addConnection(connect(source, sink));
+		global.addConnection(connect(source, middle));
+		global.addConnection(connect(middle, sink));
+	}
+
+	@Test
+	public void testRemoveUnusedConnection()
+	{
+		EnergyTransferHandler handler = getHandler();
+		assertLoss(LOSS, handler.getPath(cp(source), cp(sink)));
+		final int runsBefore = handler.getDijkstraRuns();
+		// Neither of the shortest paths from the source uses this connection
+		global.removeConnection(connect(middle, sink));
+		Assert.assertSame(handler, getHandler());
+		assertLoss(LOSS, handler.getPath(cp(source), cp(sink)));
+		Assert.assertEquals(runsBefore, handler.getDijkstraRuns());
+	}
+
+	@Test
+	public void testRemoveUsedConnection()
+	{
+		EnergyTransferHandler handler = getHandler();
+		assertLoss(LOSS, handler.getPath(cp(source), cp(sink)));
+		final int runsBefore = handler.getDijkstraRuns();
+		global.removeConnection(connect(source, sink));
+		Assert.assertSame(handler, getHandler());
+		assertLoss(2*LOSS, handler.getPath(cp(source), cp(sink)));
+		Assert.assertEquals(runsBefore+1, handler.getDijkstraRuns());
+	}
+
+	@Test
+	public void testReloadKeepsPaths()
+	{
+		EnergyTransferHandler handler = getHandler();
+		Assert.assertTrue(handler.getSources().containsKey(cp(source)));
+		assertLoss(LOSS, handler.getPath(cp(source), cp(sink)));
+		final int runsBefore = handler.getDijkstraRuns();
+		global.onConnectorUnload(middle);
+		global.onConnectorLoad(middle, false);
+		Assert.assertTrue(handler.getSources().containsKey(cp(source)));
+		assertLoss(LOSS, handler.getPath(cp(source), cp(sink)));
+		Assert.assertEquals(runsBefore, handler.getDijkstraRuns());
+	}
+
+	@Test
+	public void testTransferMatchesReference()
+	{
+		// 4x4 grid with several sources and sinks, compared to a direct implementation of the transfer rules. Every
+		// connection has a different loss, so the shortest paths are unique and can be compared to a reference search
+		Map<BlockPos, DummyEnergyIIC> grid = new HashMap<>();
+		for(int x = 0; x < 4; ++x)
+			for(int z = 0; z < 4; ++z)
+			{
+				BlockPos pos = new BlockPos(x, 1, z);
+				boolean isSource = (x==0&&z==0)||(x==3&&z==3)||(x==1&&z==1);
+				boolean isSink = (x==3&&z==0)||(x==0&&z==3)||(x==2&&z==2)||(x==1&&z==2)||(x==1&&z==1);
+				DummyEnergyIIC iic = new DummyEnergyIIC(pos, isSource, isSink);
+				grid.put(pos, iic);
+				global.onConnectorLoad(iic, false);
+			}
+		List<Connection> gridConnections = new ArrayList<>();
+		Object2DoubleMap<Connection> losses = new Object2DoubleOpenHashMap<>();
+		for(int x = 0; x < 4; ++x)
+			for(int z = 0; z < 4; ++z)
+			{
+				DummyEnergyIIC here = grid.get(new BlockPos(x, 1, z));
+				if(x > 0)
+					gridConnections.add(connect(here, grid.get(new BlockPos(x-1, 1, z)), losses));
+				if(z > 0)
+					gridConnections.add(connect(here, grid.get(new BlockPos(x, 1, z-1)), losses));
+			}
+		for(Connection c : gridConnections)
+			global.addConnection(c);
+		EnergyTransferHandler handler = global.getLocalNet(cp(grid.get(new BlockPos(0, 1, 0))))
+				.getHandler(EnergyTransferHandler.ID, EnergyTransferHandler.class);
+		Assert.assertNotNull(handler);
+		int[][] availableByTick = {{1000, 50, 10}, {0, 500, 7}, {20, 20, 20}};
+		int[][] requestedByTick = {{300, 2000, 0, 40, 10}, {300, 5, 80, 40, 0}, {1, 1, 1000, 0, 3}};
+		BlockPos[] sourcePositions = {new BlockPos(0, 1, 0), new BlockPos(3, 1, 3), new BlockPos(1, 1, 1)};
+		BlockPos[] sinkPositions = {
+				new BlockPos(3, 1, 0), new BlockPos(0, 1, 3), new BlockPos(2, 1, 2), new BlockPos(1, 1, 2),
+				new BlockPos(1, 1, 1)
+		};
+		Object2IntMap<DummyEnergyIIC> expectedInserted = new Object2IntOpenHashMap<>();
+		Object2IntMap<DummyEnergyIIC> expectedExtracted = new Object2IntOpenHashMap<>();
+		Object2DoubleMap<DummyEnergyIIC> expectedPassed = new Object2DoubleOpenHashMap<>();
+		for(int tick = 0; tick < availableByTick.length; ++tick)
+		{
+			for(int i = 0; i < sourcePositions.length; ++i)
+				grid.get(sourcePositions[i]).available = availableByTick[tick][i];
+			for(int i = 0; i < sinkPositions.length; ++i)
+				grid.get(sinkPositions[i]).requested = requestedByTick[tick][i];
+			Object2DoubleOpenHashMap<Connection> expectedTransfer = new Object2DoubleOpenHashMap<>();
+			for(BlockPos sourcePos : sourcePositions)
+			{
+				DummyEnergyIIC source = grid.get(sourcePos);
+				final int available = source.available;
+				if(available <= 0)
+					continue;
+				Map<ConnectionPoint, List<Connection>> referencePaths = referenceShortestPaths(
+						cp(source), gridConnections, losses
+				);
+				double maxSum = 0;
+				List<Pair<DummyEnergyIIC, Double>> outputs = new ArrayList<>();
+				for(BlockPos sinkPos : sinkPositions)
+				{
+					DummyEnergyIIC sink = grid.get(sinkPos);
+					List<Connection> expectedPath = referencePaths.get(cp(sink));
+					Path path = handler.getPath(cp(source), cp(sink));
+					Assert.assertNotNull(expectedPath);
+					Assert.assertNotNull(path);
+					Assert.assertEquals(expectedPath, List.of(path.conns));
+					double pathLoss = sumLosses(expectedPath, losses);
+					Assert.assertEquals(pathLoss, path.loss, EPSILON);
+					if(sink.requested <= 0)
+						continue;
+					double required = Math.min(sink.requested/(1-pathLoss), available);
+					outputs.add(Pair.of(sink, required));
+					maxSum += required;
+				}
+				if(maxSum==0)
+					continue;
+				double allowedFactor = Math.min(1, available/maxSum);
+				for(Pair<DummyEnergyIIC, Double> output : outputs)
+				{
+					DummyEnergyIIC sink = output.getFirst();
+					double atSource = allowedFactor*output.getSecond();
+					double factor = 1;
+					ConnectionPoint current = cp(source);
+					for(Connection c : referencePaths.get(cp(sink)))
+					{
+						current = c.getOtherEnd(current);
+						factor -= losses.getDouble(c);
+						expectedTransfer.addTo(c, atSource*factor);
+						if(!current.equals(cp(sink)))
+							expectedPassed.mergeDouble(grid.get(current.position()), atSource*factor, Double::sum);
+					}
+					expectedInserted.mergeInt(sink, (int)(atSource*factor+0.01), Integer::sum);
+				}
+				expectedExtracted.mergeInt(source, allowedFactor < 1?available: Mth.ceil(maxSum), Integer::sum);
+			}
+
+			handler.update(null);
+
+			for(DummyEnergyIIC iic : grid.values())
+			{
+				Assert.assertEquals(expectedInserted.getInt(iic), iic.inserted);
+				Assert.assertEquals(expectedExtracted.getInt(iic), iic.extracted);
+				Assert.assertEquals(expectedPassed.getDouble(iic), iic.passedThrough, EPSILON);
+			}
+			Object2DoubleMap<Connection> actualTransfer = handler.getTransferredLastTick();
+			Assert.assertEquals(expectedTransfer.keySet(), actualTransfer.keySet());
+			for(Connection c : expectedTransfer.keySet())
+				Assert.assertEquals(expectedTransfer.getDouble(c), actualTransfer.getDouble(c), EPSILON);
+		}
+	}
+
+	/**
+	 * Plain Dijkstra over the given connections, independent of the graph used by the handler
+	 *
+	 * @return the connections on the shortest path to every reachable point
+	 */
+	private static Map<ConnectionPoint, List<Connection>> referenceShortestPaths(
+			ConnectionPoint source, List<Connection> connections, Object2DoubleMap<Connection> losses
+	)
+	{
+		Map<ConnectionPoint, List<Connection>> adjacent = new HashMap<>();
+		for(Connection c : connections)
+		{
+			adjacent.computeIfAbsent(c.getEndA(), cp -> new ArrayList<>()).add(c);
+			adjacent.computeIfAbsent(c.getEndB(), cp -> new ArrayList<>()).add(c);
+		}
+		Object2DoubleMap<ConnectionPoint> distances = new Object2DoubleOpenHashMap<>();
+		distances.defaultReturnValue(Double.POSITIVE_INFINITY);
+		Map<ConnectionPoint, List<Connection>> paths = new HashMap<>();
+		Set<ConnectionPoint> done = new HashSet<>();
+		distances.put(source, 0);
+		paths.put(source, List.of());
+		while(true)
+		{
+			ConnectionPoint next = null;
+			for(ConnectionPoint cp : paths.keySet())
+				if(!done.contains(cp)&&(next==null||distances.getDouble(cp) < distances.getDouble(next)))
+					next = cp;
+			if(next==null)
+				return paths;
+			done.add(next);
+			for(Connection c : adjacent.getOrDefault(next, List.of()))
+			{
+				ConnectionPoint other = c.getOtherEnd(next);
+				double oldDistance = distances.getDouble(other);
+				double newDistance = distances.getDouble(next)+losses.getDouble(c);
+				Assert.assertNotEquals("Test graph has several shortest paths", oldDistance, newDistance, 1e-12);
+				if(newDistance < oldDistance)
+				{
+					distances.put(other, newDistance);
+					List<Connection> path = new ArrayList<>(paths.get(next));
+					path.add(c);
+					paths.put(other, path);
+				}
+			}
+		}
+	}
+
+	private static double sumLosses(List<Connection> path, Object2DoubleMap<Connection> losses)
+	{
+		double sum = 0;
+		for(Connection c : path)
+			sum += losses.getDouble(c);
+		return sum;
+	}
+
+	private EnergyTransferHandler getHandler()
+	{
+		EnergyTransferHandler handler = global.getLocalNet(cp(source))
+				.getHandler(EnergyTransferHandler.ID, EnergyTransferHandler.class);
+		Assert.assertNotNull(handler);
+		return handler;
+	}
+
+	private Connection connect(DummyEnergyIIC a, DummyEnergyIIC b)
+	{
+		return new Connection(wiretype, cp(a), cp(b), Vec3.ZERO, Vec3.ZERO);
+	}
+
+	/**
+	 * Connects the given connectors with a wire type of its own, so every connection has a different loss
+	 */
+	private static Connection connect(DummyEnergyIIC a, DummyEnergyIIC b, Object2DoubleMap<Connection> losses)
+	{
+		// Paths with the same number of connections can only have the same loss if they use the same connections, since
+		// the variable parts are distinct powers of two. Their sum is too small for paths of different length to match.
+		double loss = .05+.04*Math.pow(.5, losses.size()+1);
+		Connection connection = new Connection(new DummyEnergyWireType(loss), cp(a), cp(b), Vec3.ZERO, Vec3.ZERO);
+		losses.put(connection, loss);
+		return connection;
+	}
+
+	private static ConnectionPoint cp(DummyEnergyIIC iic)
+	{
+		return new ConnectionPoint(iic.getPosition(), 0);
+	}
+
+	private static void assertLoss(double expected, Path path)
+	{
+		Assert.assertNotNull(path);
+		Assert.assertEquals(expected, path.loss, EPSILON);
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2021
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.wires.testutils;
+
+import blusunrize.immersiveengineering.api.wires.ConnectionPoint;
+import blusunrize.immersiveengineering.api.wires.localhandlers.EnergyTransferHandler;
+import blusunrize.immersiveengineering.api.wires.localhandlers.EnergyTransferHandler.EnergyConnector;
+import com.google.common.collect.ImmutableList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.Collection;
+
+public class DummyEnergyIIC extends DummyIIC implements EnergyConnector
+{
+	private final boolean source;
+	private final boolean sink;
+	public int available;
+	public int requested;
+	public int inserted;
+	public int extracted;
+	public double passedThrough;
+
+	public DummyEnergyIIC(BlockPos pos, boolean source, boolean sink)
+	{
+		super(pos, false, ImmutableList.of(new ConnectionPoint(pos, 0)), ImmutableList.of());
+		this.source = source;
+		this.sink = sink;
+	}
+
+	@Override
+	public boolean isSource(ConnectionPoint cp)
+	{
+		return source;
+	}
+
+	@Override
+	public boolean isSink(ConnectionPoint cp)
+	{
+		return sink;
+	}
+
+	@Override
+	public int getAvailableEnergy()
+	{
+		return available;
+	}
+
+	@Override
+	public int getRequestedEnergy()
+	{
+		return requested;
+	}
+
+	@Override
+	public void insertEnergy(int amount)
+	{
+		inserted += amount;
+	}
+
+	@Override
+	public void extractEnergy(int amount)
+	{
+		extracted += amount;
+	}
+
+	@Override
+	public void onEnergyPassedThrough(double amount)
+	{
+		passedThrough += amount;
+	}
+
+	@Override
+	public Collection<ResourceLocation> getRequestedHandlers()
+	{
+		return ImmutableList.of(EnergyTransferHandler.ID);
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.api.wires.utils;
+
+import blusunrize.immersiveengineering.api.wires.Connection;
+import blusunrize.immersiveengineering.api.wires.ConnectionPoint;
+import blusunrize.immersiveengineering.api.wires.testutils.DummyWireType;
+import blusunrize.immersiveengineering.api.wires.utils.WireUtils.ObstructionCheck;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the obstruction search against the catenary segment search it replaced
+ */
+public class WireObstructionTest
+{
+	private static final List<AABB> FULL_BLOCK = List.of(new AABB(0, 0, 0, 1, 1, 1));
+	private static final List<Predicate<BlockPos>> WORLDS = List.of(
+			pos -> true,
+			pos -> ((pos.getX()*31+pos.getY())*31+pos.getZ())%3==0,
+			pos -> (pos.getX()+pos.getZ())%2==0
+	);
+
+	private static Connection create(Vec3 start, Vec3 end, double slack)
+	{
+		BlockPos posStart = new BlockPos(start);
+		BlockPos posEnd = new BlockPos(end);
+		return new Connection(
+				new DummyWireType(slack),
+				new ConnectionPoint(posStart, 0),
+				new ConnectionPoint(posEnd, 0),
+				start.subtract(Vec3.atLowerCornerOf(posStart)),
+				end.subtract(Vec3.atLowerCornerOf(posEnd))
+		);
+	}
+
+	private static ObstructionCheck checkFor(Predicate<BlockPos> solid)
+	{
+		return (pos, a, b) -> solid.test(pos)&&WireUtils.intersectsAny(FULL_BLOCK, a, b);
+	}
+
+	private static Set<BlockPos> findWithSegments(Connection conn, ObstructionCheck check)
+	{
+		Set<BlockPos> obstructions = new HashSet<>();
+		WireUtils.raytraceAlongCatenary(conn, p -> {
+			if(check.preventsConnection(p.block(), p.entersAt(), p.leavesAt()))
+				obstructions.add(p.block());
+		}, p -> {
+		});
+		return obstructions;
+	}
+
+	private static Set<BlockPos> findWithTraversal(Connection conn, ObstructionCheck check)
+	{
+		Set<BlockPos> obstructions = new HashSet<>();
+		assertTrue(WireUtils.forEachObstruction(conn, Set.of(), check, pos -> {
+			obstructions.add(pos.immutable());
+			return true;
+		}));
+		return obstructions;
+	}
+
+	private static void assertSameObstructions(Vec3 start, Vec3 end, double slack)
+	{
+		Connection conn = create(start, end, slack);
+		for(Predicate<BlockPos> solid : WORLDS)
+		{
+			ObstructionCheck check = checkFor(solid);
+			assertEquals(findWithSegments(conn, check), findWithTraversal(conn, check));
+		}
+	}
+
+	@Test
+	public void testAxisAligned()
+	{
+		// Vertical wires through a block center, along a face and along an edge
+		assertSameObstructions(new Vec3(0.5, 0.5, 0.5), new Vec3(0.5, 6.5, 0.5), 0.001);
+		assertSameObstructions(new Vec3(1, 0.5, 0.5), new Vec3(1, 6.5, 0.5), 0.001);
+		assertSameObstructions(new Vec3(1, 0.5, 1), new Vec3(1, 6.5, 1), 0.001);
+		// Horizontal wires along the X axis, in a block and on the boundary between two blocks
+		assertSameObstructions(new Vec3(0.5, 2.5, 0.5), new Vec3(8.5, 2.5, 0.5), 0.005);
+		assertSameObstructions(new Vec3(0.5, 2.5, 1), new Vec3(8.5, 2.5, 1), 0.005);
+	}
+
+	@Test
+	public void testCornerGrazing()
+	{
+		// Passes exactly through the vertical edges at integer X=Z
+		assertSameObstructions(new Vec3(0.25, 3.5, 0.25), new Vec3(5.25, 3.5, 5.25), 0.005);
+		assertSameObstructions(new Vec3(0.5, 3.5, 0.5), new Vec3(4.5, 3.5, 4.5), 0.005);
+		// Passes through block corners, with the sag crossing a horizontal boundary
+		assertSameObstructions(new Vec3(0, 3.01, 0), new Vec3(6, 3.01, 6), 0.05);
+	}
+}
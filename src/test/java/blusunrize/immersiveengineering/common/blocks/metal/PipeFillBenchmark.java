@@ -0,0 +1,145 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.blocks.metal;
+
+import blusunrize.immersiveengineering.api.fluid.IFluidPipe;
+import blusunrize.immersiveengineering.common.blocks.metal.FluidPipeBlockEntity.DirectionalFluidOutput;
+import blusunrize.immersiveengineering.common.util.Utils;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.Direction;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.material.Fluids;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.capability.IFluidHandler.FluidAction;
+import net.minecraftforge.fluids.capability.templates.FluidTank;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pump feeding 64 tanks connected to a pipe network, comparing the HashMap-based distribution previously used by
+ * {@link FluidPipeBlockEntity.PipeFluidHandler#fill} to {@link PipeFillDistributor}. Pipes only matter for discovering
+ * the network, which is cached by {@link FluidPipeNetwork}, so the network is modeled by its outputs alone and no pipes
+ * are created. Run using the "jmh" Gradle task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipeFillBenchmark
+{
+	private static final int NUM_TANKS = 64;
+	// Pressurized pipe throughput, i.e. what a pump pushes per tick
+	private static final int PUMP_OUTPUT = IFluidPipe.AMOUNT_PRESSURIZED;
+
+	private FluidTank[] tanks;
+	private DirectionalFluidOutput[] outputArray;
+	private Set<DirectionalFluidOutput> outputSet;
+	private FluidStack pumped;
+	private final PipeFillDistributor distributor = new PipeFillDistributor();
+	private final PipeFillDistributor.OutputContext context = new PipeFillDistributor.OutputContext()
+	{
+		@Override
+		public int getTransferLimit(DirectionalFluidOutput output, FluidStack resource)
+		{
+			return PUMP_OUTPUT;
+		}
+
+		@Override
+		public void onTransferred(DirectionalFluidOutput output, int amount)
+		{
+		}
+	};
+
+	@Setup
+	public void setup()
+	{
+		SharedConstants.tryDetectVersion();
+		Bootstrap.bootStrap();
+		tanks = new FluidTank[NUM_TANKS];
+		outputArray = new DirectionalFluidOutput[NUM_TANKS];
+		outputSet = new HashSet<>();
+		// The tanks are connected to the network from varying directions
+		for(int i = 0; i < NUM_TANKS; ++i)
+		{
+			tanks[i] = new FluidTank(4*PUMP_OUTPUT);
+			outputArray[i] = new DirectionalFluidOutput(tanks[i], Direction.from3DDataValue(i%6), null);
+			outputSet.add(outputArray[i]);
+		}
+		pumped = new FluidStack(Fluids.WATER, PUMP_OUTPUT);
+	}
+
+	@Benchmark
+	public int legacy()
+	{
+		int result = legacyFill(pumped, FluidAction.EXECUTE);
+		emptyTanks();
+		return result;
+	}
+
+	@Benchmark
+	public int distributor()
+	{
+		int result = distributor.fill(outputArray, pumped, FluidAction.EXECUTE, context);
+		emptyTanks();
+		return result;
+	}
+
+	private void emptyTanks()
+	{
+		for(FluidTank tank : tanks)
+			tank.setFluid(FluidStack.EMPTY);
+	}
+
+	private int legacyFill(FluidStack resource, FluidAction doFill)
+	{
+		int canAccept = resource.getAmount();
+		int sum = 0;
+		HashMap<DirectionalFluidOutput, Integer> sorting = new HashMap<>();
+		for(DirectionalFluidOutput output : outputSet)
+		{
+			int limit = context.getTransferLimit(output, resource);
+			int tileSpecificAcceptedFluid = Math.min(limit, canAccept);
+			int temp = output.output().fill(Utils.copyFluidStackWithAmount(resource, tileSpecificAcceptedFluid, output.stripPressure()), FluidAction.SIMULATE);
+			if(temp > 0)
+			{
+				sorting.put(output, temp);
+				sum += temp;
+			}
+		}
+		if(sum > 0)
+		{
+			int f = 0;
+			for(DirectionalFluidOutput output : sorting.keySet())
+			{
+				int amount = sorting.get(output);
+				if(sum > resource.getAmount())
+				{
+					int limit = context.getTransferLimit(output, resource);
+					int tileSpecificAcceptedFluid = Math.min(limit, canAccept);
+					float prio = amount/(float)sum;
+					amount = (int)Math.ceil(Mth.clamp(amount, 1,
+							Math.min(resource.getAmount()*prio, tileSpecificAcceptedFluid)));
+					amount = Math.min(amount, canAccept);
+				}
+				int r = output.output().fill(Utils.copyFluidStackWithAmount(resource, amount, output.stripPressure()), doFill);
+				f += r;
+				canAccept -= r;
+				if(canAccept <= 0)
+					break;
+			}
+			return f;
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.crafting;
+
+import blusunrize.immersiveengineering.common.crafting.ArcRecyclingCache.StoredResult;
+import blusunrize.immersiveengineering.common.crafting.ArcRecyclingCache.StoredStack;
+import com.mojang.datafixers.util.Pair;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceLocation;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ArcRecyclingCacheTest
+{
+	private static final byte[] FINGERPRINT = {1, 2, 3, 4, 5, 6, 7, 8};
+
+	private static StoredStack stack(String item, int count)
+	{
+		return new StoredStack(new ResourceLocation(item), count, null);
+	}
+
+	private static List<StoredResult> makeResults()
+	{
+		CompoundTag damaged = new CompoundTag();
+		damaged.putInt("Damage", 17);
+		return List.of(
+				new StoredResult(stack("iron_pickaxe", 1), List.of(Pair.of(stack("iron_ingot", 3), 3.))),
+				new StoredResult(new StoredStack(new ResourceLocation("iron_sword"), 1, damaged), List.of(
+						Pair.of(stack("iron_ingot", 2), 2.),
+						Pair.of(stack("gold_nugget", 1), 1/9.)
+				)),
+				new StoredResult(stack("cauldron", 1), List.of()),
+				// Counts that do not fit into a byte
+				new StoredResult(stack("immersiveengineering:big_thing", 300), List.of(
+						Pair.of(stack("iron_block", 1000), 1000.),
+						Pair.of(stack("iron_nugget", Integer.MAX_VALUE), 1.)
+				))
+		);
+	}
+
+	private static byte[] write(byte[] fingerprint, List<StoredResult> results) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ArcRecyclingCache.write(new DataOutputStream(bytes), fingerprint, results);
+		return bytes.toByteArray();
+	}
+
+	private static List<StoredResult> read(byte[] data, byte[] fingerprint) throws IOException
+	{
+		return ArcRecyclingCache.read(new DataInputStream(new ByteArrayInputStream(data)), fingerprint);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException
+	{
+		List<StoredResult> original = makeResults();
+		assertEquals(original, read(write(FINGERPRINT, original), FINGERPRINT));
+	}
+
+	@Test
+	public void testFingerprintMismatch() throws IOException
+	{
+		byte[] data = write(FINGERPRINT, makeResults());
+		assertNull(read(data, new byte[]{1, 2, 3, 4, 5, 6, 7, 9}));
+		assertNull(read(data, new byte[0]));
+	}
+
+	@Test
+	public void testInvalidHeader() throws IOException
+	{
+		byte[] data = write(FINGERPRINT, makeResults());
+		data[0] ^= 1;
+		assertNull(read(data, FINGERPRINT));
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * BluSunrize
+ * Copyright (c) 2022
+ *
+ * This code is licensed under "Blu's License of Common Sense"
+ * Details can be found in the license file in the root folder of this project
+ */
+
+package blusunrize.immersiveengineering.common.gui.sync;
+
+import blusunrize.immersiveengineering.common.gui.sync.GenericDataSerializers.DataPair;
+import com.mojang.datafixers.util.Pair;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import org.apache.commons.lang3.mutable.MutableBoolean;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GenericContainerDataTest
+{
+	@Test
+	public void testOnlyChangedFieldsAreSynced()
+	{
+		SyncedValues server = new SyncedValues();
+		// Everything is sent initially
+		assertEquals(List.of(0, 1, 2), indices(GenericContainerData.collectUpdates(server.fields)));
+		assertTrue(GenericContainerData.collectUpdates(server.fields).isEmpty());
+
+		server.number.setValue(12);
+		assertEquals(List.of(0), indices(GenericContainerData.collectUpdates(server.fields)));
+		// Setting a field to its last synced value is not a change
+		server.flag.setValue(true);
+		server.flag.setValue(false);
+		assertTrue(GenericContainerData.collectUpdates(server.fields).isEmpty());
+		// Arrays are compared by value, so changes inside the array are noticed
+		server.array.getValue()[1] = 5;
+		assertEquals(List.of(2), indices(GenericContainerData.collectUpdates(server.fields)));
+	}
+
+	@Test
+	public void testRoundTrip()
+	{
+		SyncedValues server = new SyncedValues();
+		SyncedValues client = new SyncedValues();
+		GenericContainerData.collectUpdates(server.fields);
+		server.number.setValue(-3);
+		server.flag.setValue(true);
+		server.array.setValue(new int[]{4, 0, 300000});
+		GenericContainerData.processSyncs(client.fields, sendThroughBuffer(GenericContainerData.collectUpdates(server.fields)));
+		assertEquals(-3, client.number.intValue());
+		assertTrue(client.flag.booleanValue());
+		assertArrayEquals(new int[]{4, 0, 300000}, client.array.getValue());
+		// The client gets its own copy of the array
+		server.array.getValue()[0] = 1;
+		assertEquals(4, client.array.getValue()[0]);
+
+		server.number.setValue(7);
+		GenericContainerData.processSyncs(client.fields, sendThroughBuffer(GenericContainerData.collectUpdates(server.fields)));
+		assertEquals(7, client.number.intValue());
+		assertTrue(client.flag.booleanValue());
+		assertArrayEquals(new int[]{4, 0, 300000}, client.array.getValue());
+	}
+
+	@Test
+	public void testDropsUnknownAndMismatchedEntries()
+	{
+		SyncedValues client = new SyncedValues();
+		List<Pair<Integer, DataPair<?>>> synced = List.of(
+				Pair.of(-1, new DataPair<>(GenericDataSerializers.INT32, 1)),
+				Pair.of(3, new DataPair<>(GenericDataSerializers.INT32, 2)),
+				// Index of the boolean field, but an int was sent
+				Pair.of(1, new DataPair<>(GenericDataSerializers.INT32, 3)),
+				Pair.of(0, new DataPair<>(GenericDataSerializers.INT32, 4))
+		);
+		GenericContainerData.processSyncs(client.fields, synced);
+		assertEquals(4, client.number.intValue());
+		assertFalse(client.flag.booleanValue());
+		assertArrayEquals(new int[3], client.array.getValue());
+	}
+
+	private static List<Integer> indices(List<Pair<Integer, DataPair<?>>> synced)
+	{
+		return synced.stream().map(Pair::getFirst).toList();
+	}
+
+	private static List<Pair<Integer, DataPair<?>>> sendThroughBuffer(List<Pair<Integer, DataPair<?>>> synced)
+	{
+		FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+		buffer.writeVarInt(synced.size());
+		for(Pair<Integer, DataPair<?>> entry : synced)
+		{
+			buffer.writeVarInt(entry.getFirst());
+			entry.getSecond().write(buffer);
+		}
+		int numEntries = buffer.readVarInt();
+		List<Pair<Integer, DataPair<?>>> received = new ArrayList<>(numEntries);
+		for(int i = 0; i < numEntries; ++i)
+			received.add(Pair.of(buffer.readVarInt(), GenericDataSerializers.read(buffer)));
+		assertEquals(0, buffer.readableBytes());
+		return received;
+	}
+
+	private static class SyncedValues
+	{
+		private final MutableInt number = new MutableInt();
+		private final MutableBoolean flag = new MutableBoolean();
+		private final MutableObject<int[]> array = new MutableObject<>(new int[3]);
+		private final List<GenericContainerData<?>> fields = List.of(
+				GenericContainerData.int32(number::getValue, number::setValue),
+				GenericContainerData.bool(flag::getValue, flag::setValue),
+				new GenericContainerData<>(GenericDataSerializers.INT_ARRAY, array::getValue, array::setValue)
+		);
+	}
+}